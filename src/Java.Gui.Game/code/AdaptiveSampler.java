@@ -0,0 +1,165 @@
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Chooses questions with a bias toward the countries the player keeps getting wrong.
+ * Each country is weighted by CountryStats, and draws come from a WeightTree, so a draw costs
+ * O(log n) however large the bank is. Outcomes reported during a round only update the stats and
+ * mark the country as changed; at the end of the round only the changed countries are reweighted
+ * in the tree, so a round costs O(k log n) for its k questions and the bank is never rescanned.
+ * Guarantees:
+ * - No country repeats within a round: a country drawn is set to weight zero until the round
+ *   ends. Only a round longer than the bank starts over, once every country has been asked.
+ * - Across rounds, weak countries are deliberately asked again sooner than a QuestionDeck would,
+ *   which is the point of the bias; use a QuestionDeck where every country must come up once per pass.
+ * - A fixed seed together with the same starting stats replays the same questions.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class AdaptiveSampler implements QuestionSampler
+{
+    // Weights are kept as whole units of 1/WEIGHT_SCALE, so the tree sums stay exact
+    private static final double WEIGHT_SCALE = 1024.0;
+
+    private final List<Country> countries;
+    private final CountryStats stats;
+    private final Random random;
+    private final long[] units;
+    private final boolean[] changed;
+    private final int[] changedIndexes;
+    private final boolean[] askedThisRound;
+    private final int[] askedIndexes;
+    private final WeightTree tree;
+    private int changedCount;
+    private int askedCount;
+
+    /**
+     * Creates a sampler over the given countries, drawing from a random seed.
+     *
+     * @param countries the question bank
+     * @param stats     the player's history, updated as outcomes are recorded
+     */
+    public AdaptiveSampler(final List<Country> countries,
+                           final CountryStats stats)
+    {
+        this(countries, stats, new Random());
+    }
+
+    /**
+     * Creates a sampler whose draws are reproducible for a given seed and history.
+     *
+     * @param countries the question bank
+     * @param stats     the player's history, updated as outcomes are recorded
+     * @param seed      the seed to replay
+     */
+    public AdaptiveSampler(final List<Country> countries,
+                           final CountryStats stats,
+                           final long seed)
+    {
+        this(countries, stats, new Random(seed));
+    }
+
+    private AdaptiveSampler(final List<Country> countries,
+                            final CountryStats stats,
+                            final Random random)
+    {
+        if (countries.isEmpty())
+        {
+            throw new IllegalArgumentException("An adaptive sampler needs at least one question.");
+        }
+
+        final int size = countries.size();
+        this.countries = countries;
+        this.stats = stats;
+        this.random = random;
+        this.units = new long[size];
+        this.changed = new boolean[size];
+        this.changedIndexes = new int[size];
+        this.askedThisRound = new boolean[size];
+        this.askedIndexes = new int[size];
+
+        for (int i = 0; i < size; i++)
+        {
+            units[i] = unitsOf(countries.get(i));
+        }
+        this.tree = new WeightTree(units);
+    }
+
+    /**
+     * Draws the next question, weighted toward poorly known countries.
+     *
+     * @return an index into the country list
+     */
+    @Override
+    public int next()
+    {
+        if (askedCount == askedIndexes.length)
+        {
+            // The round has asked every country; start over rather than fail
+            restoreAsked();
+        }
+
+        final int index = tree.sample(random);
+        tree.set(index, 0);
+        askedThisRound[index] = true;
+        askedIndexes[askedCount++] = index;
+        return index;
+    }
+
+    /**
+     * Records the outcome in the player's history and marks the country for reweighting.
+     *
+     * @param index   the question index
+     * @param outcome how the question was answered
+     */
+    @Override
+    public void record(final int index,
+                       final AnswerOutcome outcome)
+    {
+        stats.record(countries.get(index), outcome);
+        if (!changed[index])
+        {
+            changed[index] = true;
+            changedIndexes[changedCount++] = index;
+        }
+    }
+
+    /**
+     * Reweights the countries answered during the round and makes the round's countries drawable again.
+     */
+    @Override
+    public void endRound()
+    {
+        for (int i = 0; i < changedCount; i++)
+        {
+            final int index = changedIndexes[i];
+            units[index] = unitsOf(countries.get(index));
+            changed[index] = false;
+            if (!askedThisRound[index])
+            {
+                tree.set(index, units[index]);
+            }
+        }
+        changedCount = 0;
+
+        restoreAsked();
+    }
+
+    private void restoreAsked()
+    {
+        for (int i = 0; i < askedCount; i++)
+        {
+            final int index = askedIndexes[i];
+            askedThisRound[index] = false;
+            tree.set(index, units[index]);
+        }
+        askedCount = 0;
+    }
+
+    private long unitsOf(final Country country)
+    {
+        // Never zero, so every country stays drawable however well it is known
+        return Math.max(1, Math.round(stats.weightOf(country) * WEIGHT_SCALE));
+    }
+}
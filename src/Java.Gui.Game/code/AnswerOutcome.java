@@ -0,0 +1,15 @@
+/**
+ * The result of a single WordGame question.
+ * - FIRST_TRY: answered correctly on the first attempt (2 points).
+ * - SECOND_TRY: answered correctly on the second attempt (1 point).
+ * - MISSED: not answered correctly in either attempt (0 points).
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public enum AnswerOutcome
+{
+    FIRST_TRY,
+    SECOND_TRY,
+    MISSED
+}
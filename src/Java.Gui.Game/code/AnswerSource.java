@@ -0,0 +1,40 @@
+/**
+ * Supplies the player's side of a WordGame session to WordGameEngine.
+ * The console game reads answers from System.in, while automated drivers and network sessions
+ * provide their own implementations, so the same engine runs interactively or headless.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public interface AnswerSource
+{
+    /**
+     * Returns the player's guess for the capital of a country.
+     *
+     * @param country the country being asked about
+     * @param attempt the attempt number, 1 or 2
+     * @return the guess, or null if the player has gone away and the session should end
+     */
+    String nextGuess(Country country, int attempt);
+
+    /**
+     * Returns the player's guess for a question of either direction.
+     * By default the question's country is passed on to nextGuess(Country, int).
+     *
+     * @param question the question being asked
+     * @param attempt  the attempt number, 1 or 2
+     * @return the guess, or null if the player has gone away and the session should end
+     */
+    default String nextGuess(final Question question,
+                             final int attempt)
+    {
+        return nextGuess(question.getCountry(), attempt);
+    }
+
+    /**
+     * Asks whether the player wants to play another round.
+     *
+     * @return true to play again, false to end the session
+     */
+    boolean playAgain();
+}
@@ -0,0 +1,249 @@
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * A Burkhard-Keller tree over strings, using Levenshtein edit distance as its metric.
+ * The tree answers "is there a word within distance d of this query?" by visiting only the
+ * children whose edge distance lies in [distance - d, distance + d], so a query against a bank of
+ * hundreds of thousands of words touches a small fraction of it.
+ * Each node's distance is computed with a bound of its largest edge plus the query radius: past
+ * that bound neither the node nor any child can match, so the Levenshtein computation stops early
+ * for the many nodes that are far from the query.
+ * Words are expected to be normalized by the caller (see NameNormalizer); duplicates are ignored.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class BkTree
+{
+    private Node root;
+    private int size;
+
+    /**
+     * Adds a word to the tree. Adding a word that is already present has no effect.
+     *
+     * @param word the normalized word to add
+     */
+    public void add(final String word)
+    {
+        if (root == null)
+        {
+            root = new Node(word);
+            size++;
+            return;
+        }
+
+        Node node = root;
+        while (true)
+        {
+            final int distance = distance(word, node.word);
+            if (distance == 0)
+            {
+                return;
+            }
+
+            final Node child = node.child(distance);
+            if (child == null)
+            {
+                node.addChild(distance, new Node(word));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Returns the number of distinct words in the tree.
+     *
+     * @return the number of words
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Checks whether any word other than the excluded one lies within a distance of the query.
+     *
+     * @param query       the normalized query
+     * @param maxDistance the largest distance that counts as a hit
+     * @param excluded    a word to ignore, or null to consider every word
+     * @return true if another word is within maxDistance of the query
+     */
+    public boolean containsWithin(final String query,
+                                  final int maxDistance,
+                                  final String excluded)
+    {
+        return containsWithin(query, maxDistance, word -> word.equals(excluded));
+    }
+
+    /**
+     * Checks whether any word not matching the exclusion lies within a distance of the query.
+     *
+     * @param query       the normalized query
+     * @param maxDistance the largest distance that counts as a hit
+     * @param excluded    tells which words to ignore
+     * @return true if a word that is not excluded is within maxDistance of the query
+     */
+    public boolean containsWithin(final String query,
+                                  final int maxDistance,
+                                  final Predicate<String> excluded)
+    {
+        return maxDistance >= 0 && root != null && search(root, query, maxDistance, excluded);
+    }
+
+    private static boolean search(final Node node,
+                                  final String query,
+                                  final int maxDistance,
+                                  final Predicate<String> excluded)
+    {
+        // Beyond maxEdge + maxDistance the exact distance cannot reach the node or any child
+        final int distance = boundedDistance(query, node.word, node.maxEdge + maxDistance);
+        if (distance <= maxDistance && !excluded.test(node.word))
+        {
+            return true;
+        }
+
+        for (int i = 0; i < node.childCount; i++)
+        {
+            final int edge = node.edges[i];
+            if (edge >= distance - maxDistance && edge <= distance + maxDistance
+                    && search(node.children[i], query, maxDistance, excluded))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings.
+     *
+     * @param a the first string
+     * @param b the second string
+     * @return the minimum number of single-character edits turning a into b
+     */
+    public static int distance(final String a,
+                               final String b)
+    {
+        return boundedDistance(a, b, Math.max(a.length(), b.length()));
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings, giving up once it exceeds a bound.
+     * Only the diagonal band of cells within bound of the main diagonal is filled, since any path
+     * leaving it already costs more than bound, so the work is O(bound * length) rather than
+     * O(length squared); the computation also stops at the first row whose every cell is over bound.
+     *
+     * @param a     the first string
+     * @param b     the second string
+     * @param bound the largest distance of interest
+     * @return the distance, or bound + 1 if it is larger than bound
+     */
+    public static int boundedDistance(final String a,
+                                      final String b,
+                                      final int bound)
+    {
+        final int over = bound + 1;
+        if (Math.abs(a.length() - b.length()) > bound)
+        {
+            return over;
+        }
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+
+        for (int j = 0; j <= b.length(); j++)
+        {
+            previous[j] = j <= bound ? j : over;
+        }
+
+        for (int i = 1; i <= a.length(); i++)
+        {
+            final int low = Math.max(1, i - bound);
+            final int high = Math.min(b.length(), i + bound);
+
+            // The cell left of the band is column 0 on the first rows and out of reach after that
+            current[low - 1] = low == 1 && i <= bound ? i : over;
+            int rowMinimum = current[low - 1];
+
+            for (int j = low; j <= high; j++)
+            {
+                final int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(over, Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1));
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+
+            // The next row reads one cell past this band
+            if (high < b.length())
+            {
+                current[high + 1] = over;
+            }
+
+            if (rowMinimum > bound)
+            {
+                return over;
+            }
+
+            final int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return Math.min(previous[b.length()], over);
+    }
+
+    /**
+     * A tree node; children are kept in parallel arrays keyed by their edge distance.
+     */
+    private static final class Node
+    {
+        private static final int INITIAL_CHILDREN = 2;
+
+        private final String word;
+        private int[] edges;
+        private Node[] children;
+        private int childCount;
+        private int maxEdge;
+
+        Node(final String word)
+        {
+            this.word = word;
+        }
+
+        Node child(final int distance)
+        {
+            for (int i = 0; i < childCount; i++)
+            {
+                if (edges[i] == distance)
+                {
+                    return children[i];
+                }
+            }
+
+            return null;
+        }
+
+        void addChild(final int distance,
+                      final Node child)
+        {
+            if (edges == null)
+            {
+                edges = new int[INITIAL_CHILDREN];
+                children = new Node[INITIAL_CHILDREN];
+            }
+            else if (childCount == edges.length)
+            {
+                edges = Arrays.copyOf(edges, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+
+            edges[childCount] = distance;
+            children[childCount] = child;
+            childCount++;
+            maxEdge = Math.max(maxEdge, distance);
+        }
+    }
+}
@@ -1,14 +1,23 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * The Country class represents a single country and its associated capital city.
  * This class is used in geography-related games to generate quiz questions that
  * ask the player to identify the capital of a specific country.
  * Each Country object contains a country name and its capital city. It is designed
  * to be immutable: once created, its values cannot be changed.
- * The third constructor parameter is accepted but currently ignored. It exists solely
- * to match an expected method signature used by the WordGame file loader and may be used
- * in the future to associate additional facts or metadata about Canada.
+ * Countries with several capitals list them in one field separated by CAPITAL_SEPARATOR, as in
+ * "Bolivia,Sucre|La Paz"; the first one listed is the primary capital, and any of them is
+ * accepted as an answer.
+ * The third constructor parameter takes facts about the country (population, region, flag and
+ * trivia, in CountryFacts order). Country objects are read on every question and answer check,
+ * so the facts are not kept here: a Country built with a NamePool hands them to the pool's
+ * CountryFacts.Builder under its id, and CountryFacts.open with the same pool serves them from a
+ * columnar store. A Country built without a pool has no load to attach facts to and drops them.
  * Example usage:
- * - new Country("Canada", "Ottawa", unusedArray);
+ * - new Country("Canada", "Ottawa", null);
  * - Used in game logic to display: "What is the capital of Canada?"
  * This class is deliberately simple and single-purpose to follow clean design principles.
  *
@@ -17,33 +26,84 @@
  */
 public class Country
 {
+    /**
+     * Separates the capitals of a country that has several.
+     */
+    public static final char CAPITAL_SEPARATOR = '|';
+
     /**
      * The name of the country.
      */
     private final String name;
 
     /**
-     * The name of the capital city of the country.
+     * The names of the capital cities of the country, primary capital first.
+     */
+    private final List<String> capitalCityNames;
+
+    /**
+     * The normalized form of the country name, precomputed for index lookups.
+     */
+    private final String normalizedName;
+
+    /**
+     * The normalized forms of the capital city names, precomputed for answer checks.
      */
-    private final String capitalCityName;
+    private final String[] normalizedCapitalCityNames;
+
+    /**
+     * The id of the normalized name in the pool this country was built with, or NamePool.NO_ID.
+     */
+    private final int id;
 
     /**
      * Constructs a new Country object with the specified country name and capital city name.
      * This constructor also accepts a third parameter for compatibility with the WordGame loader,
-     * which expects three arguments when creating Country objects. Although the third parameter
-     * (canadaFacts) is currently unused, it is provided to ensure forward compatibility
-     * and potential extensibility for including additional data later.
+     * which expects three arguments when creating Country objects. Without a pool there is no
+     * facts store to add the facts to, so they are dropped; use the pooled constructor to keep them.
      *
      * @param name            the name of the country
-     * @param capitalCityName the name of the capital city of the country
-     * @param canadaFacts     an unused placeholder for future metadata related to Canadian countries or facts
+     * @param capitalCityName the name of the capital city of the country, or several names
+     *                        separated by CAPITAL_SEPARATOR
+     * @param canadaFacts     facts about the country in CountryFacts order, dropped
      */
     public Country(final String name,
                    final String capitalCityName,
                    final String[] canadaFacts)
     {
-        this.name = name;
-        this.capitalCityName = capitalCityName;
+        this(name, capitalCityName, canadaFacts, null);
+    }
+
+    /**
+     * Constructs a new Country object whose names and keys come from a load-scoped NamePool, so
+     * every Country built from the same pool shares one copy of each distinct string.
+     * Facts are added to the pool's CountryFacts.Builder under this country's id.
+     *
+     * @param name            the name of the country
+     * @param capitalCityName the name of the capital city of the country, or several names
+     *                        separated by CAPITAL_SEPARATOR
+     * @param canadaFacts     facts about the country in CountryFacts order, or null
+     * @param pool            the pool to take strings from, or null to keep the strings given
+     */
+    public Country(final String name,
+                   final String capitalCityName,
+                   final String[] canadaFacts,
+                   final NamePool pool)
+    {
+        this.name = pool == null ? name : pool.intern(name);
+        this.capitalCityNames = splitCapitals(capitalCityName, pool);
+        this.normalizedName = normalize(this.name, pool);
+        this.normalizedCapitalCityNames = new String[capitalCityNames.size()];
+        for (int i = 0; i < normalizedCapitalCityNames.length; i++)
+        {
+            normalizedCapitalCityNames[i] = normalize(capitalCityNames.get(i), pool);
+        }
+
+        this.id = pool == null ? NamePool.NO_ID : pool.findId(normalizedName);
+        if (canadaFacts != null && id != NamePool.NO_ID)
+        {
+            pool.getFacts().add(id, canadaFacts);
+        }
     }
 
     /**
@@ -59,10 +119,135 @@ public class Country
     /**
      * Returns the name of the capital city associated with this country.
      *
-     * @return the capital city name
+     * @return the capital city name, or the primary one if the country has several
      */
     public String getCapitalCityName()
     {
-        return capitalCityName;
+        return capitalCityNames.get(0);
+    }
+
+    /**
+     * Returns the names of every capital city of this country.
+     *
+     * @return an unmodifiable list of the capital city names, primary capital first
+     */
+    public List<String> getCapitalCityNames()
+    {
+        return capitalCityNames;
+    }
+
+    /**
+     * Returns the id of this country in the NamePool it was built with: the id of its normalized
+     * name, shared by every Country of that load with the same name.
+     *
+     * @return the id, or NamePool.NO_ID if the country was built without a pool
+     */
+    public int getId()
+    {
+        return id;
+    }
+
+    /**
+     * Returns the normalized country name used as a lookup key.
+     *
+     * @return the case-folded, accent-free form of the country name
+     */
+    public String getNormalizedName()
+    {
+        return normalizedName;
+    }
+
+    /**
+     * Returns the normalized capital city name used for answer checks.
+     *
+     * @return the case-folded, accent-free form of the capital city name, or of the primary one
+     */
+    public String getNormalizedCapitalCityName()
+    {
+        return normalizedCapitalCityNames[0];
+    }
+
+    /**
+     * Returns the number of capital cities of this country.
+     *
+     * @return the capital count, at least 1
+     */
+    public int getCapitalCount()
+    {
+        return normalizedCapitalCityNames.length;
+    }
+
+    /**
+     * Returns the normalized name of one of this country's capital cities.
+     *
+     * @param index the capital's position, 0 for the primary capital
+     * @return the case-folded, accent-free form of that capital city name
+     */
+    public String getNormalizedCapitalCityName(final int index)
+    {
+        return normalizedCapitalCityNames[index];
+    }
+
+    /**
+     * Checks whether a normalized name is one of this country's capitals.
+     * Countries have one capital or a handful, so this is a constant-time check.
+     *
+     * @param normalizedCapital the normalized capital city name
+     * @return true if the name is one of this country's capitals
+     */
+    public boolean hasNormalizedCapital(final String normalizedCapital)
+    {
+        for (String capital : normalizedCapitalCityNames)
+        {
+            if (capital != null && capital.equals(normalizedCapital))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static String normalize(final String name,
+                                    final NamePool pool)
+    {
+        return pool == null ? NameNormalizer.normalize(name) : pool.normalize(name);
+    }
+
+    /*
+     * Splits a capital field on CAPITAL_SEPARATOR, trimming each name and dropping empty ones.
+     * A field without any non-empty name is kept as it was.
+     */
+    private static List<String> splitCapitals(final String capitalCityName,
+                                              final NamePool pool)
+    {
+        if (capitalCityName == null || capitalCityName.indexOf(CAPITAL_SEPARATOR) < 0)
+        {
+            return Collections.singletonList(pool == null ? capitalCityName : pool.intern(capitalCityName));
+        }
+
+        final List<String> names = new ArrayList<>();
+        int start = 0;
+        while (start <= capitalCityName.length())
+        {
+            int end = capitalCityName.indexOf(CAPITAL_SEPARATOR, start);
+            if (end < 0)
+            {
+                end = capitalCityName.length();
+            }
+
+            final String capital = capitalCityName.substring(start, end).trim();
+            if (!capital.isEmpty())
+            {
+                names.add(pool == null ? capital : pool.intern(capital));
+            }
+            start = end + 1;
+        }
+
+        if (names.isEmpty())
+        {
+            return Collections.singletonList(pool == null ? capitalCityName : pool.intern(capitalCityName));
+        }
+        return List.copyOf(names);
     }
 }
\ No newline at end of file
@@ -0,0 +1,448 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A side store of facts about countries: population, region, flag and trivia lines.
+ * Facts are only needed once a question is answered, so they are kept out of Country, which
+ * stays small for the hot paths, and are read on the first lookup rather than at load time.
+ * Storage:
+ * - Countries are keyed by their id in the load's NamePool (see Country.getId), and an array
+ *   indexed by that id gives each country's row in the store, so a lookup is two array reads.
+ * - Each fact is a column indexed by row: populations in a long array, regions as ids into a
+ *   dictionary (most countries share a handful of regions), flags in a String array, and trivia
+ *   lines flattened into one array with a start offset per row.
+ * Sources, first one wins for a country:
+ * - The facts passed to the Country constructors of the load, which the pool's Builder collects.
+ * - The file `countries.facts` next to the data files, one country per line:
+ *   CountryName,population,region,flag,trivia
+ *   The fields after the name are the facts array the Country constructor takes, in the same
+ *   order. Any field may be empty. Trivia may contain commas; several trivia lines are separated
+ *   by TRIVIA_SEPARATOR.
+ * Countries from another pool, or built without one, are looked up by normalized name instead.
+ * A missing file gives an empty store. A file that cannot be read is reported once and also
+ * gives an empty store, so facts never stop a game.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class CountryFacts
+{
+    /**
+     * Name of the facts file read from the data directory.
+     */
+    public static final String FACTS_FILE_NAME = "countries.facts";
+
+    /**
+     * Separates the trivia lines of a country.
+     */
+    public static final char TRIVIA_SEPARATOR = '|';
+
+    /**
+     * The id of a country that has no facts.
+     */
+    public static final int NO_FACTS = -1;
+
+    /**
+     * The population of a country whose population is not known.
+     */
+    public static final long UNKNOWN_POPULATION = -1;
+
+    /**
+     * The position of the population in a facts array.
+     */
+    public static final int POPULATION = 0;
+
+    /**
+     * The position of the region in a facts array.
+     */
+    public static final int REGION = 1;
+
+    /**
+     * The position of the flag in a facts array.
+     */
+    public static final int FLAG = 2;
+
+    /**
+     * The position of the first trivia line in a facts array; every later entry is trivia too.
+     */
+    public static final int TRIVIA = 3;
+
+    private static final char FIELD_SEPARATOR = ',';
+    private static final int INITIAL_ROWS = 64;
+
+    private final Path file;
+    private final NamePool pool;
+    private Columns columns;
+
+    private CountryFacts(final Path file,
+                         final NamePool pool,
+                         final Columns columns)
+    {
+        this.file = file;
+        this.pool = pool;
+        this.columns = columns;
+    }
+
+    /**
+     * Opens the facts file of a data directory. Nothing is read until the first lookup.
+     *
+     * @param directoryPath path to the folder containing the data files
+     * @return the store
+     */
+    public static CountryFacts open(final String directoryPath)
+    {
+        return open(directoryPath, new NamePool());
+    }
+
+    /**
+     * Opens the facts of a load: those its Country constructors collected in the pool, and the
+     * facts file of its data directory. Nothing is read until the first lookup.
+     *
+     * @param directoryPath path to the folder containing the data files
+     * @param pool          the pool the countries were loaded with
+     * @return the store
+     */
+    public static CountryFacts open(final String directoryPath,
+                                    final NamePool pool)
+    {
+        return new CountryFacts(Path.of(directoryPath, FACTS_FILE_NAME), pool, null);
+    }
+
+    /**
+     * Returns the row of a country's facts, reading the facts first if this is the first lookup.
+     *
+     * @param country the country
+     * @return the country's row, or NO_FACTS if the store has nothing about it
+     */
+    public int idOf(final Country country)
+    {
+        final Columns loaded = columns();
+        int key = country.getId();
+        if (!pool.holds(key, country.getNormalizedName()))
+        {
+            // Built with another pool or none, so its id means nothing here
+            key = pool.findId(country.getNormalizedName());
+        }
+        return key < 0 || key >= loaded.rows.length ? NO_FACTS : loaded.rows[key];
+    }
+
+    /**
+     * Gets the population of a country.
+     *
+     * @param id the country's row, from idOf
+     * @return the population, or UNKNOWN_POPULATION
+     */
+    public long getPopulation(final int id)
+    {
+        return columns().populations[id];
+    }
+
+    /**
+     * Gets the region of a country.
+     *
+     * @param id the country's row, from idOf
+     * @return the region, or null if not known
+     */
+    public String getRegion(final int id)
+    {
+        final Columns loaded = columns();
+        final int region = loaded.regionIds[id];
+        return region == NO_FACTS ? null : loaded.regions.nameOf(region);
+    }
+
+    /**
+     * Gets the flag of a country, typically its flag emoji.
+     *
+     * @param id the country's row, from idOf
+     * @return the flag, or null if not known
+     */
+    public String getFlag(final int id)
+    {
+        return columns().flags[id];
+    }
+
+    /**
+     * Gets the trivia lines about a country.
+     *
+     * @param id the country's row, from idOf
+     * @return an unmodifiable list of trivia lines, empty if there are none
+     */
+    public List<String> getTrivia(final int id)
+    {
+        final Columns loaded = columns();
+        return List.of(Arrays.copyOfRange(loaded.trivia, loaded.triviaStarts[id], loaded.triviaStarts[id + 1]));
+    }
+
+    /**
+     * Returns the number of countries with facts, reading the facts if needed.
+     *
+     * @return the number of countries
+     */
+    public int size()
+    {
+        return columns().populations.length;
+    }
+
+    /**
+     * Tells whether the facts have been read yet.
+     *
+     * @return true once the first lookup has happened
+     */
+    public synchronized boolean isLoaded()
+    {
+        return columns != null;
+    }
+
+    private synchronized Columns columns()
+    {
+        if (columns == null)
+        {
+            final Builder builder = pool.getFacts();
+            try
+            {
+                read(file, builder);
+            }
+            catch (IOException e)
+            {
+                System.out.println("Failed to read country facts: " + e.getMessage());
+            }
+            columns = builder.build().columns;
+        }
+        return columns;
+    }
+
+    private static void read(final Path file,
+                             final Builder builder) throws IOException
+    {
+        if (!Files.isRegularFile(file))
+        {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                final int nameEnd = line.indexOf(FIELD_SEPARATOR);
+                if (nameEnd <= 0)
+                {
+                    continue;
+                }
+
+                // The name and the first three facts end at commas; the rest of the line is trivia
+                final List<String> facts = new ArrayList<>();
+                int start = nameEnd + 1;
+                while (facts.size() < TRIVIA)
+                {
+                    final int end = line.indexOf(FIELD_SEPARATOR, start);
+                    facts.add(line.substring(start, end < 0 ? line.length() : end).trim());
+                    start = end < 0 ? line.length() : end + 1;
+                }
+                if (start < line.length())
+                {
+                    for (String trivia : line.substring(start).split("\\" + TRIVIA_SEPARATOR))
+                    {
+                        facts.add(trivia.trim());
+                    }
+                }
+
+                builder.add(line.substring(0, nameEnd).trim(), facts.toArray(new String[0]));
+            }
+        }
+    }
+
+    /**
+     * Builds a store in memory, one country at a time. A builder may be filled from the several
+     * threads of a parallel load.
+     */
+    public static final class Builder
+    {
+        private final NamePool pool;
+        private final NamePool regions;
+        private final List<String> trivia;
+        private int[] rows;
+        private int size;
+        private long[] populations;
+        private int[] regionIds;
+        private String[] flags;
+        private int[] triviaStarts;
+
+        /**
+         * Creates an empty builder with a pool of its own.
+         */
+        public Builder()
+        {
+            this(new NamePool());
+        }
+
+        /**
+         * Creates an empty builder keyed by the ids of a pool.
+         *
+         * @param pool the pool whose ids key the countries
+         */
+        public Builder(final NamePool pool)
+        {
+            this.pool = pool;
+            this.regions = new NamePool();
+            this.trivia = new ArrayList<>();
+            this.rows = new int[INITIAL_ROWS];
+            Arrays.fill(rows, NO_FACTS);
+            this.populations = new long[INITIAL_ROWS];
+            this.regionIds = new int[INITIAL_ROWS];
+            this.flags = new String[INITIAL_ROWS];
+            this.triviaStarts = new int[INITIAL_ROWS + 1];
+        }
+
+        /**
+         * Adds the facts of a country given by name.
+         *
+         * @param countryName the country's name
+         * @param facts       population, region, flag, then any number of trivia lines; entries may
+         *                    be missing, empty or null
+         * @return this builder
+         * @see #add(int, String[])
+         */
+        public Builder add(final String countryName,
+                           final String[] facts)
+        {
+            final String key = pool.normalize(countryName);
+            if (key == null || key.isEmpty())
+            {
+                return this;
+            }
+            return add(pool.findId(key), facts);
+        }
+
+        /**
+         * Adds the facts of a country, given in the order of the Country constructor's facts array.
+         * Facts added again for a country already in the builder are ignored.
+         *
+         * @param countryId the country's id in this builder's pool
+         * @param facts     population, region, flag, then any number of trivia lines; entries may
+         *                  be missing, empty or null
+         * @return this builder
+         */
+        public synchronized Builder add(final int countryId,
+                                        final String[] facts)
+        {
+            if (countryId < 0)
+            {
+                return this;
+            }
+            if (countryId >= rows.length)
+            {
+                final int length = rows.length;
+                rows = Arrays.copyOf(rows, Math.max(countryId + 1, length * 2));
+                Arrays.fill(rows, length, rows.length, NO_FACTS);
+            }
+            if (rows[countryId] != NO_FACTS)
+            {
+                return this;
+            }
+
+            final int row = size;
+            if (row == populations.length)
+            {
+                final int capacity = row * 2;
+                populations = Arrays.copyOf(populations, capacity);
+                regionIds = Arrays.copyOf(regionIds, capacity);
+                flags = Arrays.copyOf(flags, capacity);
+                triviaStarts = Arrays.copyOf(triviaStarts, capacity + 1);
+            }
+
+            rows[countryId] = row;
+            size++;
+            populations[row] = parsePopulation(fact(facts, POPULATION));
+            final String region = fact(facts, REGION);
+            regionIds[row] = region == null ? NO_FACTS : regions.idOf(region);
+            flags[row] = fact(facts, FLAG);
+            for (int i = TRIVIA; i < facts.length; i++)
+            {
+                final String line = fact(facts, i);
+                if (line != null)
+                {
+                    trivia.add(line);
+                }
+            }
+            triviaStarts[row + 1] = trivia.size();
+            return this;
+        }
+
+        /**
+         * Builds the store. Facts added afterwards do not reach it.
+         *
+         * @return a store holding every country added so far
+         */
+        public synchronized CountryFacts build()
+        {
+            return new CountryFacts(null, pool, new Columns(Arrays.copyOf(rows, rows.length), regions,
+                    Arrays.copyOf(populations, size), Arrays.copyOf(regionIds, size), Arrays.copyOf(flags, size),
+                    Arrays.copyOf(triviaStarts, size + 1), trivia.toArray(new String[0])));
+        }
+
+        private static String fact(final String[] facts,
+                                   final int index)
+        {
+            if (facts == null || index >= facts.length || facts[index] == null || facts[index].isBlank())
+            {
+                return null;
+            }
+            return facts[index].trim();
+        }
+
+        private static long parsePopulation(final String value)
+        {
+            if (value == null)
+            {
+                return UNKNOWN_POPULATION;
+            }
+
+            try
+            {
+                return Long.parseLong(value);
+            }
+            catch (NumberFormatException e)
+            {
+                return UNKNOWN_POPULATION;
+            }
+        }
+    }
+
+    /**
+     * The loaded columns; never changed once built.
+     */
+    private static final class Columns
+    {
+        private final int[] rows;
+        private final NamePool regions;
+        private final long[] populations;
+        private final int[] regionIds;
+        private final String[] flags;
+        private final int[] triviaStarts;
+        private final String[] trivia;
+
+        Columns(final int[] rows,
+                final NamePool regions,
+                final long[] populations,
+                final int[] regionIds,
+                final String[] flags,
+                final int[] triviaStarts,
+                final String[] trivia)
+        {
+            this.rows = rows;
+            this.regions = regions;
+            this.populations = populations;
+            this.regionIds = regionIds;
+            this.flags = flags;
+            this.triviaStarts = triviaStarts;
+            this.trivia = trivia;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Loads country-capital data for the WordGame using memory-mapped files and a fork-join pool.
+ * This is the fast counterpart to WordGame.loadCountriesFromDirectory and accepts exactly the same
+ * input, but is built for question banks made of hundreds of files and millions of lines.
+ * How it works:
+ * - Each `.txt` file in the folder is memory-mapped through NIO instead of read through a Reader.
+ *   A mapping cannot exceed 2 GB, so files are mapped in windows of at most MAX_WINDOW_BYTES, each
+ *   cut after its last complete line; the next window starts at the line that did not fit.
+ * - Lines are parsed straight from the mapped bytes; no String.split or per-line String is created.
+ * - Names go through a load-scoped NamePool, so names repeated across files are stored once.
+ * - Files are spread across the common fork-join pool, one task per file.
+ * - Results are merged in file-name order, so the returned list is the same on every run.
+ * Line format:
+ * - Each line must be in format: CountryName,CapitalCity
+ * - Trailing commas are ignored and both fields are trimmed, matching the text loader.
+ * - Lines with a missing or extra field are skipped, and so is a line longer than a whole window,
+ *   which cannot be a country line.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class CountryLoader
+{
+    private static final String DATA_FILE_EXTENSION = ".txt";
+    private static final byte FIELD_SEPARATOR = ',';
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int WHITESPACE_LIMIT = ' ';
+    private static final int UNSIGNED_BYTE_MASK = 0xFF;
+    private static final int NOT_FOUND = -1;
+    private static final int INITIAL_SCRATCH_SIZE = 64;
+
+    /**
+     * The largest part of a file mapped at once: 1 GB, half of what a single mapping allows.
+     */
+    static final long MAX_WINDOW_BYTES = 1L << 30;
+
+    private CountryLoader()
+    {
+    }
+
+    /**
+     * Loads country-capital data from a folder of `.txt` files in parallel.
+     * - Files are parsed concurrently but merged in file-name order.
+     * - Unreadable files are reported and skipped, as in the text loader.
+     *
+     * @param directoryPath path to the folder containing text files
+     * @return list of Country objects parsed from files
+     * @throws IOException if folder is invalid or unreadable
+     */
+    public static List<Country> loadCountriesFromDirectory(final String directoryPath) throws IOException
+    {
+        return loadCountriesFromDirectory(directoryPath, new NamePool());
+    }
+
+    /**
+     * Loads country-capital data from a folder of `.txt` files in parallel, sharing strings
+     * through a pool that can then report the footprint of the load.
+     *
+     * @param directoryPath path to the folder containing text files
+     * @param pool          the load-scoped pool every name is routed through
+     * @return list of Country objects parsed from files
+     * @throws IOException if folder is invalid or unreadable
+     */
+    public static List<Country> loadCountriesFromDirectory(final String directoryPath,
+                                                           final NamePool pool) throws IOException
+    {
+        final List<Country>[] results = loadFiles(listDataFiles(directoryPath), pool);
+
+        int total = 0;
+        for (List<Country> result : results)
+        {
+            total += result.size();
+        }
+
+        final List<Country> countries = new ArrayList<>(total);
+        for (List<Country> result : results)
+        {
+            countries.addAll(result);
+        }
+
+        return countries;
+    }
+
+    /**
+     * Parses data files in parallel, keeping each file's countries separate.
+     * Unreadable files are reported and yield an empty list.
+     *
+     * @param files the files to parse
+     * @param pool  the load-scoped pool every name is routed through
+     * @return the countries of each file, at the same index as the file
+     */
+    static List<Country>[] loadFiles(final File[] files,
+                                     final NamePool pool)
+    {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final List<Country>[] results = new List[files.length];
+        ForkJoinPool.commonPool().invoke(new LoadTask(files, pool, results, 0, files.length));
+        return results;
+    }
+
+    /**
+     * Returns whether a file name is that of a data file.
+     *
+     * @param fileName the file name, without any directory
+     * @return true if the loader reads files with this name
+     */
+    static boolean isDataFile(final String fileName)
+    {
+        return fileName.endsWith(DATA_FILE_EXTENSION);
+    }
+
+    /**
+     * Lists the `.txt` data files of a folder, sorted by name so load order is deterministic.
+     *
+     * @param directoryPath path to the folder containing text files
+     * @return the data files in name order
+     * @throws IOException if folder is invalid or unreadable
+     */
+    static File[] listDataFiles(final String directoryPath) throws IOException
+    {
+        final File folder = new File(directoryPath);
+        final File[] files = folder.listFiles((dir, name) -> isDataFile(name));
+
+        if (files == null)
+        {
+            throw new IOException("Directory not found or is empty: " + directoryPath);
+        }
+
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        return files;
+    }
+
+    /**
+     * Memory-maps a single data file and parses every valid line into a Country.
+     *
+     * @param file the file to parse
+     * @param pool the load-scoped pool every name is routed through
+     * @return the countries found in the file, in line order
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    static List<Country> parseFile(final Path file,
+                                   final NamePool pool) throws IOException
+    {
+        return parseFile(file, pool, MAX_WINDOW_BYTES);
+    }
+
+    /**
+     * Memory-maps a data file one window at a time and parses every valid line into a Country.
+     *
+     * @param file        the file to parse
+     * @param pool        the load-scoped pool every name is routed through
+     * @param windowBytes the largest part of the file mapped at once, at most Integer.MAX_VALUE
+     * @return the countries found in the file, in line order
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    static List<Country> parseFile(final Path file,
+                                   final NamePool pool,
+                                   final long windowBytes) throws IOException
+    {
+        if (windowBytes < 1 || windowBytes > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Window size out of range: " + windowBytes);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            final long size = channel.size();
+            final List<Country> countries = new ArrayList<>();
+            long position = 0;
+            boolean skippingLine = false;
+
+            while (position < size)
+            {
+                final int length = (int) Math.min(size - position, windowBytes);
+                final boolean last = position + length == size;
+                final ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                if (skippingLine)
+                {
+                    // Drop the rest of an over-long line, then map again from the line after it
+                    final int lineFeed = indexOf(window, LINE_FEED, 0, length);
+                    position += lineFeed == NOT_FOUND ? length : lineFeed + 1;
+                    skippingLine = lineFeed == NOT_FOUND;
+                    continue;
+                }
+
+                if (last)
+                {
+                    parse(window, countries, pool);
+                    break;
+                }
+
+                final int lastLineFeed = lastIndexOf(window, LINE_FEED, length);
+                if (lastLineFeed == NOT_FOUND)
+                {
+                    position += length;
+                    skippingLine = true;
+                    continue;
+                }
+
+                parse(window.slice(0, lastLineFeed + 1), countries, pool);
+                position += lastLineFeed + 1;
+            }
+
+            return countries;
+        }
+    }
+
+    /**
+     * Parses every line of a buffer, appending a Country for each well-formed line.
+     * The buffer's position is left untouched; absolute reads are used throughout.
+     *
+     * @param buffer    the bytes to parse, from index 0 up to the buffer's limit
+     * @param countries the list the parsed countries are appended to
+     * @param pool      the load-scoped pool every name is routed through
+     */
+    static void parse(final ByteBuffer buffer,
+                      final List<Country> countries,
+                      final NamePool pool)
+    {
+        final int limit = buffer.limit();
+        byte[] scratch = new byte[INITIAL_SCRATCH_SIZE];
+        int lineStart = 0;
+
+        while (lineStart < limit)
+        {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != LINE_FEED)
+            {
+                lineEnd++;
+            }
+
+            final int length = lineEnd - lineStart;
+            if (length > scratch.length)
+            {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+
+            final Country country = parseLine(buffer, lineStart, lineEnd, scratch, pool);
+            if (country != null)
+            {
+                countries.add(country);
+            }
+
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    /*
+     * Parses one line using the same rules as String.split(",") with two expected parts:
+     * trailing empty fields are dropped, and exactly one separator must remain.
+     */
+    private static Country parseLine(final ByteBuffer buffer,
+                                     final int start,
+                                     final int lineEnd,
+                                     final byte[] scratch,
+                                     final NamePool pool)
+    {
+        int end = lineEnd;
+
+        if (end > start && buffer.get(end - 1) == CARRIAGE_RETURN)
+        {
+            end--;
+        }
+
+        while (end > start && buffer.get(end - 1) == FIELD_SEPARATOR)
+        {
+            end--;
+        }
+
+        final int separator = indexOf(buffer, FIELD_SEPARATOR, start, end);
+        if (separator == NOT_FOUND || indexOf(buffer, FIELD_SEPARATOR, separator + 1, end) != NOT_FOUND)
+        {
+            return null;
+        }
+
+        final String name = decodeTrimmed(buffer, start, separator, scratch);
+        final String capital = decodeTrimmed(buffer, separator + 1, end, scratch);
+
+        return new Country(name, capital, null, pool);
+    }
+
+    private static int indexOf(final ByteBuffer buffer,
+                               final byte value,
+                               final int from,
+                               final int to)
+    {
+        for (int i = from; i < to; i++)
+        {
+            if (buffer.get(i) == value)
+            {
+                return i;
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    private static int lastIndexOf(final ByteBuffer buffer,
+                                   final byte value,
+                                   final int to)
+    {
+        for (int i = to - 1; i >= 0; i--)
+        {
+            if (buffer.get(i) == value)
+            {
+                return i;
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    /*
+     * Trims bytes up to and including the space character, which matches String.trim because
+     * every byte of a multi-byte UTF-8 sequence is above that range.
+     */
+    private static String decodeTrimmed(final ByteBuffer buffer,
+                                        final int from,
+                                        final int to,
+                                        final byte[] scratch)
+    {
+        int start = from;
+        int end = to;
+
+        while (start < end && (buffer.get(start) & UNSIGNED_BYTE_MASK) <= WHITESPACE_LIMIT)
+        {
+            start++;
+        }
+
+        while (end > start && (buffer.get(end - 1) & UNSIGNED_BYTE_MASK) <= WHITESPACE_LIMIT)
+        {
+            end--;
+        }
+
+        buffer.get(start, scratch, 0, end - start);
+        return new String(scratch, 0, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Splits a range of files in half until a single file remains, then parses that file.
+     * Each file writes into its own slot of the shared results array, so no locking is needed.
+     */
+    private static final class LoadTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        // Tasks only live inside one load and are never serialized
+        private final transient File[] files;
+        private final transient NamePool pool;
+        private final transient List<Country>[] results;
+        private final int from;
+        private final int to;
+
+        LoadTask(final File[] files,
+                 final NamePool pool,
+                 final List<Country>[] results,
+                 final int from,
+                 final int to)
+        {
+            this.files = files;
+            this.pool = pool;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from <= 1)
+            {
+                if (from < to)
+                {
+                    results[from] = load(files[from], pool);
+                }
+                return;
+            }
+
+            final int middle = (from + to) >>> 1;
+            invokeAll(new LoadTask(files, pool, results, from, middle),
+                      new LoadTask(files, pool, results, middle, to));
+        }
+
+        private static List<Country> load(final File file,
+                                          final NamePool pool)
+        {
+            try
+            {
+                return parseFile(file.toPath(), pool);
+            }
+            catch (IOException e)
+            {
+                System.out.println("Failed to read file: " + file.getName() + " -> " + e.getMessage());
+                return new ArrayList<>();
+            }
+        }
+    }
+}
@@ -0,0 +1,409 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores the country dataset as a compact binary snapshot next to the text data files.
+ * Parsing hundreds of CSV files on every launch is wasted work when nothing has changed, so the
+ * first load writes a snapshot and later loads map it and skip parsing entirely.
+ * File layout (big-endian):
+ * - Header: magic, version, source file count, source table size, record count and string table size.
+ * - Source table: for each source file in load order, its name (length-prefixed UTF-8), size and
+ *   modification time.
+ * - Records: one fixed-width entry per Country holding the offset and length of its name and
+ *   capital inside the string table.
+ * - String table: UTF-8 bytes of every distinct name and capital, each stored once.
+ * Staleness:
+ * - The source table stamps every file on its own, so editing one file, or renaming, adding or
+ *   removing one, is noticed even when the totals and the newest timestamp come out the same.
+ * - If any entry differs from the files on disk, the snapshot is ignored and rebuilt.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class CountrySnapshot
+{
+    /**
+     * Name of the snapshot file written inside the data directory.
+     */
+    public static final String SNAPSHOT_FILE_NAME = "countries.snapshot";
+
+    private static final int MAGIC = 0x43545259; // "CTRY"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 6 * 4;
+    private static final int RECORD_SIZE = 4 * 4;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private CountrySnapshot()
+    {
+    }
+
+    /**
+     * Loads the country dataset, preferring a fresh snapshot over the text files.
+     * - If the snapshot matches the source files, it is mapped and decoded without parsing.
+     * - Otherwise the text files are parsed with CountryLoader and a new snapshot is written.
+     * - A snapshot that cannot be written is reported but does not fail the load.
+     *
+     * @param directoryPath path to the folder containing text files
+     * @return list of Country objects in the same order CountryLoader produces
+     * @throws IOException if folder is invalid or unreadable
+     */
+    public static List<Country> load(final String directoryPath) throws IOException
+    {
+        return load(directoryPath, new NamePool());
+    }
+
+    /**
+     * Loads the country dataset like load(String), sharing strings through a pool that can then
+     * report the footprint of the load.
+     *
+     * @param directoryPath path to the folder containing text files
+     * @param pool          the load-scoped pool every name is routed through
+     * @return list of Country objects in the same order CountryLoader produces
+     * @throws IOException if folder is invalid or unreadable
+     */
+    public static List<Country> load(final String directoryPath,
+                                     final NamePool pool) throws IOException
+    {
+        final SourceStamp stamp = SourceStamp.of(CountryLoader.listDataFiles(directoryPath));
+        final Path snapshot = Path.of(directoryPath, SNAPSHOT_FILE_NAME);
+
+        final List<Country> cached = read(snapshot, stamp, pool);
+        if (cached != null)
+        {
+            return cached;
+        }
+
+        final List<Country> countries = CountryLoader.loadCountriesFromDirectory(directoryPath, pool);
+        try
+        {
+            write(snapshot, countries, stamp);
+        }
+        catch (IOException e)
+        {
+            System.out.println("Failed to write country snapshot: " + e.getMessage());
+        }
+
+        return countries;
+    }
+
+    /**
+     * Build step entry point: parses a data directory and writes its snapshot.
+     *
+     * @param args the data directory path
+     * @throws IOException if the directory cannot be read or the snapshot cannot be written
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        if (args.length != 1)
+        {
+            System.out.println("Usage: CountrySnapshot <data directory>");
+            return;
+        }
+
+        final SourceStamp stamp = SourceStamp.of(CountryLoader.listDataFiles(args[0]));
+        final NamePool pool = new NamePool();
+        final List<Country> countries = CountryLoader.loadCountriesFromDirectory(args[0], pool);
+        write(Path.of(args[0], SNAPSHOT_FILE_NAME), countries, stamp);
+        System.out.println("Wrote snapshot of " + countries.size() + " countries.");
+        System.out.println(pool.describeFootprint(countries.size()));
+    }
+
+    /**
+     * Reads a snapshot if it exists, is well-formed and matches the given source stamp.
+     *
+     * @param snapshot the snapshot file
+     * @param stamp    the current state of the source files
+     * @param pool     the load-scoped pool every name is routed through
+     * @return the decoded countries, or null if the snapshot is missing, stale or corrupt
+     */
+    static List<Country> read(final Path snapshot,
+                              final SourceStamp stamp,
+                              final NamePool pool)
+    {
+        if (!Files.isRegularFile(snapshot))
+        {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ))
+        {
+            final long size = channel.size();
+            if (size < HEADER_SIZE)
+            {
+                return null;
+            }
+
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+            {
+                return null;
+            }
+
+            final int fileCount = buffer.getInt();
+            final int stampSize = buffer.getInt();
+            final int recordCount = buffer.getInt();
+            final int stringTableSize = buffer.getInt();
+            if (fileCount < 0 || stampSize < 0 || recordCount < 0 || stringTableSize < 0)
+            {
+                return null;
+            }
+
+            final long recordsStart = (long) HEADER_SIZE + stampSize;
+            final long stringTableStart = recordsStart + (long) recordCount * RECORD_SIZE;
+            if (stringTableStart + stringTableSize != size)
+            {
+                return null;
+            }
+
+            if (!SourceStamp.decode(buffer.slice(HEADER_SIZE, stampSize), fileCount).equals(stamp))
+            {
+                return null;
+            }
+
+            return decode(buffer, (int) recordsStart, recordCount, (int) stringTableStart, stringTableSize, pool);
+        }
+        catch (IOException | IndexOutOfBoundsException | BufferUnderflowException | NegativeArraySizeException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given countries, replacing any previous snapshot atomically.
+     *
+     * @param snapshot  the snapshot file to write
+     * @param countries the countries to store, in load order
+     * @param stamp     the state of the source files the countries were parsed from
+     * @throws IOException if the snapshot cannot be written
+     */
+    static void write(final Path snapshot,
+                      final List<Country> countries,
+                      final SourceStamp stamp) throws IOException
+    {
+        final Map<String, Integer> offsets = new HashMap<>();
+        final List<byte[]> strings = new ArrayList<>();
+        final int[] records = new int[countries.size() * 4];
+        int stringTableSize = 0;
+
+        for (int i = 0; i < countries.size(); i++)
+        {
+            final Country country = countries.get(i);
+            final String[] fields = {country.getName(),
+                    String.join(String.valueOf(Country.CAPITAL_SEPARATOR), country.getCapitalCityNames())};
+
+            for (int f = 0; f < fields.length; f++)
+            {
+                final byte[] bytes = fields[f].getBytes(StandardCharsets.UTF_8);
+                Integer offset = offsets.get(fields[f]);
+                if (offset == null)
+                {
+                    offset = stringTableSize;
+                    offsets.put(fields[f], offset);
+                    strings.add(bytes);
+                    stringTableSize += bytes.length;
+                }
+
+                records[i * 4 + f * 2] = offset;
+                records[i * 4 + f * 2 + 1] = bytes.length;
+            }
+        }
+
+        final byte[] sources = stamp.encode();
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + sources.length
+                + countries.size() * RECORD_SIZE + stringTableSize);
+        buffer.putInt(MAGIC)
+              .putInt(VERSION)
+              .putInt(stamp.fileNames.length)
+              .putInt(sources.length)
+              .putInt(countries.size())
+              .putInt(stringTableSize)
+              .put(sources);
+
+        for (int value : records)
+        {
+            buffer.putInt(value);
+        }
+
+        for (byte[] bytes : strings)
+        {
+            buffer.put(bytes);
+        }
+
+        buffer.flip();
+
+        final Path temp = snapshot.resolveSibling(snapshot.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+        }
+
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static List<Country> decode(final ByteBuffer buffer,
+                                        final int recordsStart,
+                                        final int recordCount,
+                                        final int stringTableStart,
+                                        final int stringTableSize,
+                                        final NamePool pool)
+    {
+        final byte[] table = new byte[stringTableSize];
+        buffer.get(stringTableStart, table);
+
+        // Records share string table entries, so decode each offset only once
+        final Map<Integer, String> decoded = new HashMap<>();
+        final List<Country> countries = new ArrayList<>(recordCount);
+
+        for (int i = 0; i < recordCount; i++)
+        {
+            final int base = recordsStart + i * RECORD_SIZE;
+            final String name = string(table, decoded, buffer.getInt(base), buffer.getInt(base + 4));
+            final String capital = string(table, decoded, buffer.getInt(base + 8), buffer.getInt(base + 12));
+            countries.add(new Country(name, capital, null, pool));
+        }
+
+        return countries;
+    }
+
+    private static String string(final byte[] table,
+                                 final Map<Integer, String> decoded,
+                                 final int offset,
+                                 final int length)
+    {
+        if (offset < 0 || length < 0 || offset + length > table.length)
+        {
+            throw new IndexOutOfBoundsException("String table entry out of range: " + offset);
+        }
+
+        return decoded.computeIfAbsent(offset, o -> new String(table, o, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stamps each source file a snapshot was built from by name, size and modification time,
+     * used to detect stale snapshots.
+     */
+    static final class SourceStamp
+    {
+        private final String[] fileNames;
+        private final long[] sizes;
+        private final long[] modified;
+
+        SourceStamp(final String[] fileNames,
+                    final long[] sizes,
+                    final long[] modified)
+        {
+            this.fileNames = fileNames;
+            this.sizes = sizes;
+            this.modified = modified;
+        }
+
+        /**
+         * Computes the stamp of a set of data files.
+         *
+         * @param files the data files, in load order
+         * @return the stamp of every file
+         */
+        static SourceStamp of(final File[] files)
+        {
+            final String[] fileNames = new String[files.length];
+            final long[] sizes = new long[files.length];
+            final long[] modified = new long[files.length];
+
+            for (int i = 0; i < files.length; i++)
+            {
+                fileNames[i] = files[i].getName();
+                sizes[i] = files[i].length();
+                modified[i] = files[i].lastModified();
+            }
+
+            return new SourceStamp(fileNames, sizes, modified);
+        }
+
+        /**
+         * Reads a stamp written by encode.
+         *
+         * @param buffer    the source table
+         * @param fileCount the number of files it holds
+         * @return the stamp
+         */
+        static SourceStamp decode(final ByteBuffer buffer,
+                                  final int fileCount)
+        {
+            final String[] fileNames = new String[fileCount];
+            final long[] sizes = new long[fileCount];
+            final long[] modified = new long[fileCount];
+
+            for (int i = 0; i < fileCount; i++)
+            {
+                final byte[] name = new byte[buffer.getInt()];
+                buffer.get(name);
+                fileNames[i] = new String(name, StandardCharsets.UTF_8);
+                sizes[i] = buffer.getLong();
+                modified[i] = buffer.getLong();
+            }
+
+            return new SourceStamp(fileNames, sizes, modified);
+        }
+
+        /**
+         * Writes the stamp as the snapshot's source table.
+         *
+         * @return the encoded table
+         */
+        byte[] encode()
+        {
+            final byte[][] names = new byte[fileNames.length][];
+            int size = 0;
+            for (int i = 0; i < fileNames.length; i++)
+            {
+                names[i] = fileNames[i].getBytes(StandardCharsets.UTF_8);
+                size += 4 + names[i].length + 8 + 8;
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocate(size);
+            for (int i = 0; i < fileNames.length; i++)
+            {
+                buffer.putInt(names[i].length).put(names[i]).putLong(sizes[i]).putLong(modified[i]);
+            }
+            return buffer.array();
+        }
+
+        @Override
+        public boolean equals(final Object other)
+        {
+            if (!(other instanceof SourceStamp))
+            {
+                return false;
+            }
+
+            final SourceStamp that = (SourceStamp) other;
+            return Arrays.equals(fileNames, that.fileNames)
+                    && Arrays.equals(sizes, that.sizes)
+                    && Arrays.equals(modified, that.modified);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return (Arrays.hashCode(fileNames) * 31 + Arrays.hashCode(sizes)) * 31 + Arrays.hashCode(modified);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks how well the player knows each country across WordGame sessions.
+ * For every country it counts answers on the first try, answers on the second try and misses,
+ * keyed by the country's normalized name so renamed or re-cased data files keep their history.
+ * The counts are saved to a small CSV file at the end of each session and loaded at the start
+ * of the next one. Each line has the format: normalizedName,firstTry,secondTry,missed
+ * Instances are not thread-safe; each session owns its own copy.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public class CountryStats
+{
+    private static final int FIELD_COUNT = 4;
+    private static final int FIRST_TRY = 0;
+    private static final int SECOND_TRY = 1;
+    private static final int MISSED = 2;
+    private static final int[] NO_HISTORY = new int[3];
+
+    private final Map<String, int[]> counts;
+
+    /**
+     * Constructs an empty set of statistics.
+     */
+    public CountryStats()
+    {
+        counts = new HashMap<>();
+    }
+
+    /**
+     * Records how a question about a country was answered.
+     *
+     * @param country the country that was asked about
+     * @param outcome how the player answered
+     */
+    public void record(final Country country,
+                       final AnswerOutcome outcome)
+    {
+        final int[] entry = counts.computeIfAbsent(country.getNormalizedName(), key -> new int[3]);
+        entry[outcome.ordinal()]++;
+    }
+
+    /**
+     * Computes the sampling weight of a country; the worse it is known, the heavier it is.
+     * Countries never asked weigh 1. Each miss adds 2 and each second-try answer adds 1,
+     * and the sum is divided by one more than the number of first-try answers.
+     *
+     * @param country the country to weigh
+     * @return a positive sampling weight
+     */
+    public double weightOf(final Country country)
+    {
+        final int[] entry = counts.getOrDefault(country.getNormalizedName(), NO_HISTORY);
+        return (1.0 + 2.0 * entry[MISSED] + entry[SECOND_TRY]) / (1.0 + entry[FIRST_TRY]);
+    }
+
+    /**
+     * Returns how often a country was answered with the given outcome.
+     *
+     * @param country the country to look up
+     * @param outcome the outcome to count
+     * @return the recorded count, zero if the country has no history
+     */
+    public int getCount(final Country country,
+                        final AnswerOutcome outcome)
+    {
+        return counts.getOrDefault(country.getNormalizedName(), NO_HISTORY)[outcome.ordinal()];
+    }
+
+    /**
+     * Loads statistics from a file. A missing file yields empty statistics.
+     * Malformed lines are skipped.
+     *
+     * @param filename the file to read
+     * @return the loaded statistics
+     * @throws IOException if the file exists but cannot be read
+     */
+    public static CountryStats readFromFile(final String filename) throws IOException
+    {
+        final CountryStats stats = new CountryStats();
+        final File file = new File(filename);
+
+        if (!file.exists())
+        {
+            return stats;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file)))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                final String[] parts = line.split(",");
+                if (parts.length != FIELD_COUNT)
+                {
+                    continue;
+                }
+
+                try
+                {
+                    stats.counts.put(parts[0], new int[] {
+                            Integer.parseInt(parts[1 + FIRST_TRY]),
+                            Integer.parseInt(parts[1 + SECOND_TRY]),
+                            Integer.parseInt(parts[1 + MISSED])
+                    });
+                }
+                catch (NumberFormatException e)
+                {
+                    System.out.println("Invalid data: " + line);
+                }
+            }
+        }
+
+        return stats;
+    }
+
+    /**
+     * Writes all statistics to a file, replacing its previous content.
+     *
+     * @param filename the file to write
+     * @throws IOException if writing to the file fails
+     */
+    public void writeToFile(final String filename) throws IOException
+    {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename, false)))
+        {
+            for (Map.Entry<String, int[]> entry : counts.entrySet())
+            {
+                final int[] values = entry.getValue();
+                writer.write(entry.getKey() + "," +
+                        values[FIRST_TRY] + "," +
+                        values[SECOND_TRY] + "," +
+                        values[MISSED] + "\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,387 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps the country data of a directory loaded and up to date while the game runs.
+ * Editors can add or fix capitals without a restart: a background thread watches the directory
+ * with a WatchService and applies every change as it happens.
+ * How it works:
+ * - The directory is loaded once with CountryLoader, keeping each file's countries separate.
+ * - When a `.txt` file is created or modified, only that file is parsed again; when one is
+ *   deleted, only its countries are removed.
+ * - Changes are applied copy-on-write: a new World is copied from the current one, the file's old
+ *   countries are swapped for the new ones, and the result is published as a new Snapshot.
+ * - If the WatchService reports lost events, the whole directory is loaded again.
+ * Behavior:
+ * - A Snapshot never changes, so a session that takes one at its start sees the same countries
+ *   until it ends, whatever happens to the files meanwhile.
+ * - If a country is defined in several files, the most recently loaded file wins; removing that
+ *   file brings back the definition from the remaining files.
+ * - A file that cannot be read is reported and its previous countries are kept.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class CountryWatcher implements Closeable
+{
+    private final Path directory;
+    private final WatchService watchService;
+    private final Map<String, List<Country>> files;
+    private volatile Snapshot current;
+
+    private CountryWatcher(final Path directory,
+                           final WatchService watchService)
+    {
+        this.directory = directory;
+        this.watchService = watchService;
+        this.files = new TreeMap<>();
+        this.current = new Snapshot(new World(), 0);
+    }
+
+    /**
+     * Loads a data directory and starts watching it for changes in the background.
+     *
+     * @param directoryPath path to the folder containing text files
+     * @return the running watcher
+     * @throws IOException if folder is invalid or unreadable, or cannot be watched
+     */
+    public static CountryWatcher start(final String directoryPath) throws IOException
+    {
+        final Path directory = Path.of(directoryPath);
+        final WatchService watchService = FileSystems.getDefault().newWatchService();
+        final CountryWatcher watcher = new CountryWatcher(directory, watchService);
+
+        try
+        {
+            // Register before loading so no change made during the load is missed
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            watcher.reloadAll();
+        }
+        catch (IOException e)
+        {
+            watchService.close();
+            throw e;
+        }
+
+        final Thread thread = new Thread(watcher::watchLoop, "country-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        return watcher;
+    }
+
+    /**
+     * Returns the latest snapshot of the countries. It never changes once returned.
+     *
+     * @return the current snapshot
+     */
+    public Snapshot current()
+    {
+        return current;
+    }
+
+    /**
+     * Stops watching the directory. Snapshots already handed out stay usable.
+     *
+     * @throws IOException if the WatchService cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        watchService.close();
+    }
+
+    /**
+     * Parses one data file again and swaps its countries into a new snapshot.
+     * A file that no longer exists has its countries removed.
+     *
+     * @param fileName the file name inside the watched directory
+     */
+    synchronized void reload(final String fileName)
+    {
+        final Path file = directory.resolve(fileName);
+        final List<Country> loaded;
+
+        if (Files.isRegularFile(file))
+        {
+            try
+            {
+                loaded = CountryLoader.parseFile(file, new NamePool());
+            }
+            catch (IOException e)
+            {
+                System.out.println("Failed to read file: " + fileName + " -> " + e.getMessage());
+                return;
+            }
+        }
+        else
+        {
+            loaded = null;
+        }
+
+        final List<Country> previous = loaded == null ? files.remove(fileName) : files.put(fileName, loaded);
+        if (previous == null && loaded == null)
+        {
+            return;
+        }
+
+        final World world = new World(current.getWorld());
+        if (previous != null)
+        {
+            for (Country country : previous)
+            {
+                world.removeCountry(country);
+            }
+        }
+        if (loaded != null)
+        {
+            for (Country country : loaded)
+            {
+                world.addCountry(country);
+            }
+        }
+        if (previous != null)
+        {
+            restoreShadowed(world, previous);
+        }
+
+        current = new Snapshot(world, current.getVersion() + 1);
+    }
+
+    /**
+     * Loads every data file of the directory again and replaces the snapshot.
+     *
+     * @throws IOException if folder is invalid or unreadable
+     */
+    synchronized void reloadAll() throws IOException
+    {
+        final File[] dataFiles = CountryLoader.listDataFiles(directory.toString());
+        final List<Country>[] loaded = CountryLoader.loadFiles(dataFiles, new NamePool());
+
+        files.clear();
+        final World world = new World();
+        for (int i = 0; i < dataFiles.length; i++)
+        {
+            files.put(dataFiles[i].getName(), loaded[i]);
+            for (Country country : loaded[i])
+            {
+                world.addCountry(country);
+            }
+        }
+
+        current = new Snapshot(world, current.getVersion() + 1);
+    }
+
+    /*
+     * Re-adds countries that were removed with a file but are still defined by another file,
+     * taking the definition from the last such file in name order. The other files are scanned
+     * once for all missing names, not once per name.
+     */
+    private void restoreShadowed(final World world,
+                                 final List<Country> removed)
+    {
+        final Map<String, Country> replacements = new LinkedHashMap<>();
+        for (Country country : removed)
+        {
+            if (world.getCountryByNormalizedName(country.getNormalizedName()) == null)
+            {
+                replacements.put(country.getNormalizedName(), null);
+            }
+        }
+        if (replacements.isEmpty())
+        {
+            return;
+        }
+
+        for (List<Country> other : files.values())
+        {
+            for (Country candidate : other)
+            {
+                if (replacements.containsKey(candidate.getNormalizedName()))
+                {
+                    replacements.put(candidate.getNormalizedName(), candidate);
+                }
+            }
+        }
+
+        for (Country replacement : replacements.values())
+        {
+            if (replacement != null)
+            {
+                world.addCountry(replacement);
+            }
+        }
+    }
+
+    private void watchLoop()
+    {
+        while (true)
+        {
+            final WatchKey key;
+            try
+            {
+                key = watchService.take();
+            }
+            catch (ClosedWatchServiceException e)
+            {
+                return;
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            // An editor's save often arrives as several events; parse each file once per batch
+            final Set<String> changed = new LinkedHashSet<>();
+            boolean overflow = false;
+            for (WatchEvent<?> event : key.pollEvents())
+            {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+                {
+                    overflow = true;
+                }
+                else
+                {
+                    final String fileName = event.context().toString();
+                    if (CountryLoader.isDataFile(fileName))
+                    {
+                        changed.add(fileName);
+                    }
+                }
+            }
+
+            try
+            {
+                if (overflow)
+                {
+                    reloadAll();
+                }
+                else
+                {
+                    for (String fileName : changed)
+                    {
+                        reload(fileName);
+                    }
+                }
+            }
+            catch (IOException | RuntimeException e)
+            {
+                System.out.println("Failed to reload country data: " + e.getMessage());
+            }
+
+            if (!key.reset())
+            {
+                System.out.println("Stopped watching country data: " + directory + " is no longer accessible.");
+                return;
+            }
+        }
+    }
+
+    /**
+     * An unchanging view of the countries at one point in time.
+     * The FuzzyMatcher and capital hints are built on first use, so reloads that no session sees
+     * cost nothing extra.
+     */
+    public static final class Snapshot
+    {
+        private final World world;
+        private final List<Country> countries;
+        private final long version;
+        private FuzzyMatcher matcher;
+        private PrefixTrie hints;
+
+        private Snapshot(final World world,
+                         final long version)
+        {
+            this.world = world;
+            this.countries = List.copyOf(world.getCountries());
+            this.version = version;
+        }
+
+        /**
+         * Creates a snapshot of a fixed list of countries, for callers that do not watch a directory.
+         *
+         * @param countries the countries to index
+         * @return the snapshot
+         */
+        public static Snapshot of(final List<Country> countries)
+        {
+            return new Snapshot(new World(countries), 0);
+        }
+
+        /**
+         * Gets the countries in this snapshot.
+         *
+         * @return an unmodifiable list of the countries
+         */
+        public List<Country> getCountries()
+        {
+            return countries;
+        }
+
+        /**
+         * Gets the countries of this snapshot indexed by name and capital.
+         * The World must not be modified.
+         *
+         * @return the World
+         */
+        public World getWorld()
+        {
+            return world;
+        }
+
+        /**
+         * Gets the typo-tolerant matcher over this snapshot's capitals, building it if needed.
+         *
+         * @return the matcher
+         */
+        public synchronized FuzzyMatcher getMatcher()
+        {
+            if (matcher == null)
+            {
+                matcher = new FuzzyMatcher(world, FuzzyMatcher.DEFAULT_MAX_EDIT_DISTANCE);
+            }
+            return matcher;
+        }
+
+        /**
+         * Gets the capital suggestions for this snapshot, building them if needed.
+         *
+         * @return the trie of capital names
+         */
+        public synchronized PrefixTrie getHints()
+        {
+            if (hints == null)
+            {
+                hints = PrefixTrie.ofCapitals(world);
+            }
+            return hints;
+        }
+
+        /**
+         * Gets the number of times the data was reloaded before this snapshot was taken.
+         *
+         * @return the snapshot version
+         */
+        public long getVersion()
+        {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated totals for every session played on one day.
+ * Compacted score history is kept as one summary per day instead of one record per session, so
+ * questions about old history cost one line per day however many sessions were played.
+ * The best session of the day is kept whole, so the all-time high score survives compaction.
+ * Summaries are written one per line as: day,sessions,games,correct1,correct2,incorrect,best
+ * where best is the best session's CSV record (see Score.toCsvLine).
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public class DailySummary
+{
+    private static final int COUNT_FIELDS = 6;
+    private static final char FIELD_SEPARATOR = ',';
+
+    private final LocalDate day;
+    private long sessions;
+    private long games;
+    private long correctFirstAttempt;
+    private long correctSecondAttempt;
+    private long incorrectTwoAttempts;
+    private Score best;
+
+    /**
+     * Creates an empty summary for a day.
+     *
+     * @param day the day summarized
+     */
+    public DailySummary(final LocalDate day)
+    {
+        this.day = day;
+    }
+
+    /**
+     * Adds one session to the summary.
+     *
+     * @param score a session played on this summary's day
+     */
+    public void add(final Score score)
+    {
+        sessions++;
+        games += score.getNumGamesPlayed();
+        correctFirstAttempt += score.getNumCorrectFirstAttempt();
+        correctSecondAttempt += score.getNumCorrectSecondAttempt();
+        incorrectTwoAttempts += score.getNumIncorrectTwoAttempts();
+        if (best == null || score.getAveragePerGame() > best.getAveragePerGame())
+        {
+            best = score;
+        }
+    }
+
+    /**
+     * Adds every session of another summary of the same day to this one.
+     *
+     * @param other the summary to fold in
+     */
+    public void merge(final DailySummary other)
+    {
+        if (!day.equals(other.day))
+        {
+            throw new IllegalArgumentException("Cannot merge " + other.day + " into " + day);
+        }
+
+        sessions += other.sessions;
+        games += other.games;
+        correctFirstAttempt += other.correctFirstAttempt;
+        correctSecondAttempt += other.correctSecondAttempt;
+        incorrectTwoAttempts += other.incorrectTwoAttempts;
+        if (best == null || (other.best != null && other.best.getAveragePerGame() > best.getAveragePerGame()))
+        {
+            best = other.best;
+        }
+    }
+
+    /**
+     * Formats this summary as a single line without a line terminator.
+     *
+     * @return the summary line
+     */
+    public String toCsvLine()
+    {
+        return day + "," + sessions + "," + games + "," + correctFirstAttempt + ","
+                + correctSecondAttempt + "," + incorrectTwoAttempts + "," + best.toCsvLine();
+    }
+
+    /**
+     * Parses a line written by toCsvLine.
+     *
+     * @param line the summary line
+     * @return the parsed summary, or null if the line is not a valid summary
+     */
+    public static DailySummary parseCsvLine(final String line)
+    {
+        final long[] counts = new long[COUNT_FIELDS - 1];
+        int start = 0;
+        LocalDate day = null;
+
+        try
+        {
+            for (int field = 0; field < COUNT_FIELDS; field++)
+            {
+                final int end = line.indexOf(FIELD_SEPARATOR, start);
+                if (end < 0)
+                {
+                    return null;
+                }
+
+                final String value = line.substring(start, end).trim();
+                if (field == 0)
+                {
+                    day = LocalDate.parse(value);
+                }
+                else
+                {
+                    counts[field - 1] = Long.parseLong(value);
+                }
+                start = end + 1;
+            }
+        }
+        catch (DateTimeException | NumberFormatException e)
+        {
+            return null;
+        }
+
+        final Score best = Score.parseCsvLine(line.substring(start));
+        if (best == null)
+        {
+            return null;
+        }
+
+        final DailySummary summary = new DailySummary(day);
+        summary.sessions = counts[0];
+        summary.games = counts[1];
+        summary.correctFirstAttempt = counts[2];
+        summary.correctSecondAttempt = counts[3];
+        summary.incorrectTwoAttempts = counts[4];
+        summary.best = best;
+        return summary;
+    }
+
+    /**
+     * Gets the day this summary covers.
+     *
+     * @return the day
+     */
+    public LocalDate getDay()
+    {
+        return day;
+    }
+
+    /**
+     * Gets the number of sessions played on the day.
+     *
+     * @return the session count
+     */
+    public long getSessions()
+    {
+        return sessions;
+    }
+
+    /**
+     * Gets the number of games played on the day.
+     *
+     * @return the game count
+     */
+    public long getGames()
+    {
+        return games;
+    }
+
+    /**
+     * Gets the number of first-attempt correct answers on the day.
+     *
+     * @return the first-attempt correct count
+     */
+    public long getCorrectFirstAttempt()
+    {
+        return correctFirstAttempt;
+    }
+
+    /**
+     * Gets the number of second-attempt correct answers on the day.
+     *
+     * @return the second-attempt correct count
+     */
+    public long getCorrectSecondAttempt()
+    {
+        return correctSecondAttempt;
+    }
+
+    /**
+     * Gets the number of questions missed after two attempts on the day.
+     *
+     * @return the incorrect count
+     */
+    public long getIncorrectTwoAttempts()
+    {
+        return incorrectTwoAttempts;
+    }
+
+    /**
+     * Gets the session with the best average points per game on the day.
+     *
+     * @return the best session, or null if the summary is empty
+     */
+    public Score getBest()
+    {
+        return best;
+    }
+
+    /**
+     * Gets the best average points per game of any session on the day.
+     *
+     * @return the best average, or 0 if the summary is empty
+     */
+    public double getBestAverage()
+    {
+        return best == null ? 0.0 : best.getAveragePerGame();
+    }
+}
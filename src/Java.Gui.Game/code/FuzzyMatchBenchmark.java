@@ -0,0 +1,153 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how much the BK-tree and the bounded edit distance save when checking near misses.
+ * A synthetic bank of capital-like words is indexed once, and the same random queries are run
+ * three ways:
+ * - BK-tree: BkTree.containsWithin, as FuzzyMatcher uses it.
+ * - Bounded scan: every word with BkTree.boundedDistance, which gives up past the threshold.
+ * - Full scan: every word with the full Levenshtein distance, the baseline.
+ * Each method runs the queries once untimed to warm up the JIT, then once timed.
+ * All three must agree on every query; the benchmark fails otherwise.
+ * Usage: FuzzyMatchBenchmark [words] [queries] [max edit distance]
+ * Prints the time per query of each method and how many queries found a word.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class FuzzyMatchBenchmark
+{
+    private static final int DEFAULT_WORDS = 50_000;
+    private static final int DEFAULT_QUERIES = 2_000;
+    private static final long SEED = 2522L;
+    private static final int MIN_WORD_LENGTH = 4;
+    private static final int MAX_WORD_LENGTH = 14;
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    private FuzzyMatchBenchmark()
+    {
+    }
+
+    /**
+     * Runs the benchmark from the command line and reports the time per query.
+     *
+     * @param args optional word count, query count and edit distance threshold
+     */
+    public static void main(final String[] args)
+    {
+        final int wordCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_WORDS;
+        final int queryCount = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_QUERIES;
+        final int maxDistance = args.length > 2 ? Integer.parseInt(args[2]) : FuzzyMatcher.DEFAULT_MAX_EDIT_DISTANCE;
+
+        final Random random = new Random(SEED);
+        final List<String> words = new ArrayList<>(wordCount);
+        final BkTree tree = new BkTree();
+        for (int i = 0; i < wordCount; i++)
+        {
+            final String word = randomWord(random);
+            words.add(word);
+            tree.add(word);
+        }
+
+        // Half the queries are typos of a bank word, half are unrelated words
+        final String[] queries = new String[queryCount];
+        for (int i = 0; i < queryCount; i++)
+        {
+            queries[i] = i % 2 == 0 ? typo(words.get(random.nextInt(wordCount)), random) : randomWord(random);
+        }
+
+        final boolean[] treeHits = new boolean[queryCount];
+        final long treeNanos = time(() ->
+        {
+            for (int i = 0; i < queryCount; i++)
+            {
+                treeHits[i] = tree.containsWithin(queries[i], maxDistance, (String) null);
+            }
+        });
+
+        final boolean[] boundedHits = new boolean[queryCount];
+        final long boundedNanos = time(() ->
+        {
+            for (int i = 0; i < queryCount; i++)
+            {
+                boundedHits[i] = scan(words, queries[i], maxDistance, true);
+            }
+        });
+
+        final boolean[] fullHits = new boolean[queryCount];
+        final long fullNanos = time(() ->
+        {
+            for (int i = 0; i < queryCount; i++)
+            {
+                fullHits[i] = scan(words, queries[i], maxDistance, false);
+            }
+        });
+
+        int hits = 0;
+        for (int i = 0; i < queryCount; i++)
+        {
+            if (treeHits[i] != fullHits[i] || boundedHits[i] != fullHits[i])
+            {
+                throw new IllegalStateException("Methods disagree on query: " + queries[i]);
+            }
+            hits += fullHits[i] ? 1 : 0;
+        }
+
+        System.out.printf("%d words (%d distinct), %d queries within %d edits, %d hits%n",
+                wordCount, tree.size(), queryCount, maxDistance, hits);
+        System.out.printf("BK-tree:      %.1f us per query%n", treeNanos / NANOS_PER_MICRO / queryCount);
+        System.out.printf("Bounded scan: %.1f us per query%n", boundedNanos / NANOS_PER_MICRO / queryCount);
+        System.out.printf("Full scan:    %.1f us per query%n", fullNanos / NANOS_PER_MICRO / queryCount);
+    }
+
+    private static boolean scan(final List<String> words,
+                                final String query,
+                                final int maxDistance,
+                                final boolean bounded)
+    {
+        for (String word : words)
+        {
+            final int distance = bounded
+                    ? BkTree.boundedDistance(query, word, maxDistance)
+                    : BkTree.distance(query, word);
+            if (distance <= maxDistance)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long time(final Runnable work)
+    {
+        work.run();
+        final long start = System.nanoTime();
+        work.run();
+        return System.nanoTime() - start;
+    }
+
+    private static String randomWord(final Random random)
+    {
+        final int length = MIN_WORD_LENGTH + random.nextInt(MAX_WORD_LENGTH - MIN_WORD_LENGTH + 1);
+        final StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+        {
+            word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return word.toString();
+    }
+
+    /*
+     * Replaces one character, as a player mistyping a capital would.
+     */
+    private static String typo(final String word,
+                               final Random random)
+    {
+        final char[] characters = word.toCharArray();
+        characters[random.nextInt(characters.length)] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        return new String(characters);
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Decides whether a player's guess is close enough to the expected capital to count as correct.
+ * Exact matches are checked first (ignoring case, accents and spacing, as in World). Failing that,
+ * a guess within a small edit distance of the answer is accepted, so "Bogata" or "Ottowa" still
+ * score, unless the guess is at least as close to some other capital in the bank.
+ * All capitals are indexed in a BK-tree when the matcher is built, so rejecting a guess that
+ * names a different capital never runs Levenshtein against every Country.
+ * Reverse questions (see Question) are checked the same way against country names; their BK-tree
+ * is built the first time one is asked, so sessions that only ask for capitals never pay for it.
+ * A country with several capitals accepts a guess close to any of them.
+ * Threshold:
+ * - maxEditDistance caps how many single-character edits are forgiven.
+ * - Short answers are forgiven less: at most one edit per four characters of the answer.
+ * - A threshold of 0 disables typo tolerance entirely.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class FuzzyMatcher
+{
+    /**
+     * The edit distance WordGame forgives by default.
+     */
+    public static final int DEFAULT_MAX_EDIT_DISTANCE = 2;
+
+    private static final int CHARACTERS_PER_EDIT = 4;
+
+    private final World world;
+    private final BkTree capitals;
+    private final int maxEditDistance;
+    private BkTree names;
+
+    /**
+     * Builds a matcher over every capital in the given World.
+     *
+     * @param world           the indexed countries
+     * @param maxEditDistance the largest number of edits forgiven in a guess
+     */
+    public FuzzyMatcher(final World world,
+                        final int maxEditDistance)
+    {
+        if (maxEditDistance < 0)
+        {
+            throw new IllegalArgumentException("Edit distance threshold cannot be negative: " + maxEditDistance);
+        }
+
+        this.world = world;
+        this.maxEditDistance = maxEditDistance;
+        this.capitals = new BkTree();
+
+        for (Country country : world.getCountries())
+        {
+            for (int i = 0; i < country.getCapitalCount(); i++)
+            {
+                capitals.add(country.getNormalizedCapitalCityName(i));
+            }
+        }
+    }
+
+    /**
+     * Checks a guess against the capital of the given country, forgiving small typos.
+     *
+     * @param country the country being asked about
+     * @param guess   the player's answer
+     * @return true if the guess is a capital of the country, or a near miss that matches no other
+     *         capital better
+     */
+    public boolean matches(final Country country,
+                           final String guess)
+    {
+        final String normalizedGuess = NameNormalizer.normalize(guess);
+        if (country.hasNormalizedCapital(normalizedGuess))
+        {
+            return true;
+        }
+
+        int distance = Integer.MAX_VALUE;
+        for (int i = 0; i < country.getCapitalCount(); i++)
+        {
+            distance = Math.min(distance, nearMissDistance(normalizedGuess, country.getNormalizedCapitalCityName(i)));
+        }
+        if (distance == Integer.MAX_VALUE)
+        {
+            return false;
+        }
+
+        // Reject guesses that are as close to another real capital as to an expected one
+        return !capitals.containsWithin(normalizedGuess, distance, country::hasNormalizedCapital);
+    }
+
+    /**
+     * Checks a guess against a question of either direction, forgiving small typos.
+     *
+     * @param question the question being asked
+     * @param guess    the player's answer
+     * @return true if the guess is an accepted answer, or a near miss that matches no other name better
+     */
+    public boolean matches(final Question question,
+                           final String guess)
+    {
+        if (!question.isReverse())
+        {
+            return matches(question.getCountry(), guess);
+        }
+
+        final String capital = question.getNormalizedPrompt();
+        if (world.isCountryWithCapital(capital, guess))
+        {
+            return true;
+        }
+
+        final String normalizedGuess = NameNormalizer.normalize(guess);
+        final int distance = nearMissDistance(normalizedGuess, question.getCountry().getNormalizedName());
+        if (distance == Integer.MAX_VALUE)
+        {
+            return false;
+        }
+
+        // Reject guesses that are as close to a country without that capital as to the expected one
+        return !names().containsWithin(normalizedGuess, distance, name ->
+        {
+            final Country named = world.getCountryByNormalizedName(name);
+            return named != null && named.hasNormalizedCapital(capital);
+        });
+    }
+
+    /**
+     * Returns the World this matcher checks answers against.
+     *
+     * @return the indexed countries
+     */
+    public World getWorld()
+    {
+        return world;
+    }
+
+    /**
+     * Returns the configured edit distance threshold.
+     *
+     * @return the largest number of edits forgiven in a guess
+     */
+    public int getMaxEditDistance()
+    {
+        return maxEditDistance;
+    }
+
+    /*
+     * Returns the edit distance between a guess and an answer if it is small enough to forgive,
+     * or Integer.MAX_VALUE if it is not.
+     */
+    private int nearMissDistance(final String normalizedGuess,
+                                 final String answer)
+    {
+        final int allowed = Math.min(maxEditDistance, answer.length() / CHARACTERS_PER_EDIT);
+        if (allowed == 0)
+        {
+            return Integer.MAX_VALUE;
+        }
+
+        final int distance = BkTree.boundedDistance(normalizedGuess, answer, allowed);
+        return distance > allowed ? Integer.MAX_VALUE : distance;
+    }
+
+    private synchronized BkTree names()
+    {
+        if (names == null)
+        {
+            final BkTree tree = new BkTree();
+            for (Country country : world.getCountries())
+            {
+                tree.add(country.getNormalizedName());
+            }
+            names = tree;
+        }
+        return names;
+    }
+}
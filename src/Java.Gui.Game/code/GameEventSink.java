@@ -0,0 +1,111 @@
+/**
+ * Receives everything that happens during a WordGame session run by WordGameEngine.
+ * The console game prints each event, while automated drivers can count or ignore them.
+ * All methods do nothing by default, so a sink only overrides the events it cares about.
+ * The engine reports each question through the Question overloads; by default they pass the
+ * question's country on to the Country overloads, so sinks written before reverse questions
+ * existed keep working.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public interface GameEventSink
+{
+    /**
+     * Called when a new question is asked.
+     *
+     * @param country the country whose capital is being asked for
+     */
+    default void onQuestion(final Country country)
+    {
+    }
+
+    /**
+     * Called when a guess is accepted.
+     *
+     * @param country the country that was asked about
+     * @param outcome whether it was the first or second attempt
+     */
+    default void onCorrect(final Country country,
+                           final AnswerOutcome outcome)
+    {
+    }
+
+    /**
+     * Called when the first guess is wrong and a second attempt follows.
+     *
+     * @param country the country that was asked about
+     */
+    default void onRetry(final Country country)
+    {
+    }
+
+    /**
+     * Called when both guesses are wrong.
+     *
+     * @param country the country that was asked about
+     */
+    default void onMissed(final Country country)
+    {
+    }
+
+    /**
+     * Called when a new question is asked.
+     *
+     * @param question the question, in either direction
+     */
+    default void onQuestion(final Question question)
+    {
+        onQuestion(question.getCountry());
+    }
+
+    /**
+     * Called when a guess is accepted.
+     *
+     * @param question the question that was asked
+     * @param outcome  whether it was the first or second attempt
+     */
+    default void onCorrect(final Question question,
+                           final AnswerOutcome outcome)
+    {
+        onCorrect(question.getCountry(), outcome);
+    }
+
+    /**
+     * Called when the first guess is wrong and a second attempt follows.
+     *
+     * @param question the question that was asked
+     */
+    default void onRetry(final Question question)
+    {
+        onRetry(question.getCountry());
+    }
+
+    /**
+     * Called when both guesses are wrong.
+     *
+     * @param question the question that was asked
+     */
+    default void onMissed(final Question question)
+    {
+        onMissed(question.getCountry());
+    }
+
+    /**
+     * Called after each completed round with the running totals of the session.
+     *
+     * @param totals the session results so far; its timestamp is the time of the call
+     */
+    default void onRoundComplete(final Score totals)
+    {
+    }
+
+    /**
+     * Called once when the session ends, whether the player quit or went away.
+     *
+     * @param finalScore the session results, or null if no round was completed
+     */
+    default void onSessionEnd(final Score finalScore)
+    {
+    }
+}
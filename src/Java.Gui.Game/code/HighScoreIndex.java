@@ -0,0 +1,200 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the best session of a score file in a small sidecar file, so the high score can be looked
+ * up without re-reading the whole score history.
+ * The sidecar sits next to the score file with a `.best` suffix and holds two lines:
+ * - The length of the score file when the index was last updated.
+ * - The best Score as a CSV record (see Score.toCsvLine), absent while no score exists.
+ * Behavior:
+ * - Callers read getBest, append to the score file as usual, then pass the new score to record.
+ * - The index is read once and then served from memory, so getBest is O(1).
+ * - Every update replaces the sidecar through a temporary file and an atomic move.
+ * - If the sidecar is missing, malformed, or the score file length no longer matches (something
+ *   else appended to it), the index is rebuilt with one full scan of the score file.
+ * - Rebuilds also consider the best sessions kept in the summaries of compacted days
+ *   (see ScoreCompactor), so rolling old sessions out of the score file keeps the high score.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public class HighScoreIndex
+{
+    private static final String INDEX_SUFFIX = ".best";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int LENGTH_LINE = 0;
+    private static final int BEST_LINE = 1;
+
+    private final String scoreFileName;
+    private final Path indexPath;
+    private boolean loaded;
+    private long indexedLength;
+    private Score best;
+
+    /**
+     * Creates an index for the given score file. Nothing is read until it is first needed.
+     *
+     * @param scoreFileName the score file to index
+     */
+    public HighScoreIndex(final String scoreFileName)
+    {
+        this.scoreFileName = scoreFileName;
+        this.indexPath = Path.of(scoreFileName + INDEX_SUFFIX);
+    }
+
+    /**
+     * Returns the session with the highest average points per game.
+     *
+     * @return the best Score, or null if no score has been recorded
+     * @throws IOException if the index has to be rebuilt and the score file cannot be read
+     */
+    public Score getBest() throws IOException
+    {
+        ensureLoaded();
+        return best;
+    }
+
+    /**
+     * Updates the index after a score has been appended to the score file.
+     * Call getBest before appending and this method right after, so that the previous best is
+     * known and the recorded file length stays in step with the score file.
+     *
+     * @param score the finished session that was just saved
+     * @throws IOException if the index cannot be written
+     */
+    public void record(final Score score) throws IOException
+    {
+        final Score previousBest = getBest();
+
+        if (previousBest == null || score.getAveragePerGame() > previousBest.getAveragePerGame())
+        {
+            best = score;
+        }
+        indexedLength = new File(scoreFileName).length();
+        write();
+    }
+
+    /**
+     * Discards the sidecar and recomputes the best score from the full score file and the
+     * summaries of compacted days.
+     *
+     * @throws IOException if the score file cannot be read or the index cannot be written
+     */
+    @SuppressWarnings("try")
+    public void rebuild() throws IOException
+    {
+        final File scoreFile = new File(scoreFileName);
+        final long length = scoreFile.length();
+        Score candidate = null;
+
+        for (DailySummary summary : ScoreCompactor.readSummaries(scoreFileName).values())
+        {
+            final Score score = summary.getBest();
+            if (candidate == null || score.getAveragePerGame() > candidate.getAveragePerGame())
+            {
+                candidate = score;
+            }
+        }
+
+        // Read quietly: rebuilds also run on ScoreCompactor's background thread, and the file's
+        // other readers already report the lines that do not parse
+        final List<Score> scores = new ArrayList<>();
+        if (scoreFile.exists())
+        {
+            try (ScoreFileLock lock = ScoreFileLock.shared(scoreFileName);
+                 Reader reader = new FileReader(scoreFile))
+            {
+                ScoreCsvParser.parse(reader, scores::add, false);
+            }
+        }
+
+        for (Score score : scores)
+        {
+            if (candidate == null || score.getAveragePerGame() > candidate.getAveragePerGame())
+            {
+                candidate = score;
+            }
+        }
+
+        best = candidate;
+        indexedLength = length;
+        loaded = true;
+        write();
+    }
+
+    private void ensureLoaded() throws IOException
+    {
+        if (loaded)
+        {
+            return;
+        }
+
+        if (!read() || indexedLength != new File(scoreFileName).length())
+        {
+            rebuild();
+        }
+        loaded = true;
+    }
+
+    /*
+     * Reads the sidecar into memory; returns false if it is missing or malformed.
+     */
+    private boolean read() throws IOException
+    {
+        if (!Files.isRegularFile(indexPath))
+        {
+            return false;
+        }
+
+        final List<String> lines = Files.readAllLines(indexPath, StandardCharsets.UTF_8);
+        if (lines.isEmpty() || lines.size() > BEST_LINE + 1)
+        {
+            return false;
+        }
+
+        try
+        {
+            indexedLength = Long.parseLong(lines.get(LENGTH_LINE).trim());
+        }
+        catch (NumberFormatException e)
+        {
+            return false;
+        }
+
+        if (lines.size() == BEST_LINE)
+        {
+            best = null;
+            return true;
+        }
+
+        best = Score.parseCsvLine(lines.get(BEST_LINE));
+        return best != null;
+    }
+
+    private void write() throws IOException
+    {
+        final Path temp = Path.of(indexPath + TEMP_SUFFIX);
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8))
+        {
+            writer.write(Long.toString(indexedLength));
+            writer.write("\n");
+            if (best != null)
+            {
+                writer.write(best.toCsvLine());
+                writer.write("\n");
+            }
+        }
+
+        Files.move(temp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
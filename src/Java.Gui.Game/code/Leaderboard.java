@@ -0,0 +1,244 @@
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Keeps the K best sessions seen in a stream of Score records.
+ * Records are offered one at a time, straight from the score store, and only the current top K are
+ * held in a min-heap whose root is the weakest of them. A new record replaces the root only if it
+ * ranks strictly higher, so a ranking costs O(n log K) time and O(K) memory however long the
+ * history is. Each record also carries the order it was offered in, which breaks ties: among equal
+ * values the later session is the weaker, so ties keep the earlier session and are listed in the
+ * order they were offered.
+ * Rankings:
+ * - AVERAGE_PER_GAME: points per game, the figure high scores use.
+ * - TOTAL_SCORE: total points in the session.
+ * - FIRST_TRY_ACCURACY: share of questions answered correctly on the first attempt.
+ * Usage: Leaderboard [score file] [ranking] [k]
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class Leaderboard implements Consumer<Score>
+{
+    /**
+     * The number of sessions kept when none is given.
+     */
+    public static final int DEFAULT_SIZE = 10;
+
+    private static final String DEFAULT_SCORE_FILE_NAME = "score.txt";
+
+    // Lower values first, and among equal values the later session first
+    private static final Comparator<Ranked> WEAKEST_FIRST = Comparator.comparingDouble(Ranked::value)
+            .thenComparing(Comparator.comparingLong(Ranked::sequence).reversed());
+
+    /**
+     * What the sessions are ranked by.
+     */
+    public enum Ranking
+    {
+        AVERAGE_PER_GAME(Score::getAveragePerGame),
+        TOTAL_SCORE(Score::getScore),
+        FIRST_TRY_ACCURACY(Score::getFirstTryAccuracy);
+
+        private final ToDoubleFunction<Score> key;
+
+        Ranking(final ToDoubleFunction<Score> key)
+        {
+            this.key = key;
+        }
+
+        /**
+         * Returns the value a session is ranked by.
+         *
+         * @param score the session
+         * @return the ranking value; higher is better
+         */
+        public double valueOf(final Score score)
+        {
+            return key.applyAsDouble(score);
+        }
+    }
+
+    private final Ranking ranking;
+    private final int size;
+    private final PriorityQueue<Ranked> heap;
+    private long offered;
+
+    /**
+     * Creates an empty leaderboard.
+     *
+     * @param ranking what the sessions are ranked by
+     * @param size    the number of sessions to keep
+     */
+    public Leaderboard(final Ranking ranking,
+                       final int size)
+    {
+        if (size <= 0)
+        {
+            throw new IllegalArgumentException("Leaderboard size must be positive: " + size);
+        }
+
+        this.ranking = ranking;
+        this.size = size;
+        this.heap = new PriorityQueue<>(size, WEAKEST_FIRST);
+    }
+
+    /**
+     * Ranks the full history of a CSV score file: the records still in the file and those that
+     * ScoreCompactor rolled out into segments. The file's shared lock is held while reading.
+     *
+     * @param scoreFileName the CSV score file
+     * @param ranking       what the sessions are ranked by
+     * @param size          the number of sessions to keep
+     * @return the best sessions, best first; empty if the file does not exist
+     * @throws IOException if the file cannot be read
+     */
+    @SuppressWarnings("try")
+    public static List<Score> top(final String scoreFileName,
+                                  final Ranking ranking,
+                                  final int size) throws IOException
+    {
+        final Leaderboard leaderboard = new Leaderboard(ranking, size);
+        if (!Files.isRegularFile(Path.of(scoreFileName)))
+        {
+            return leaderboard.getTop();
+        }
+
+        ScoreCompactor.recover(scoreFileName);
+        try (ScoreFileLock lock = ScoreFileLock.shared(scoreFileName))
+        {
+            for (Path segment : ScoreCompactor.listSegments(scoreFileName))
+            {
+                try (Reader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8))
+                {
+                    ScoreCsvParser.parse(reader, leaderboard);
+                }
+            }
+
+            try (Reader reader = new FileReader(scoreFileName))
+            {
+                ScoreCsvParser.parse(reader, leaderboard);
+            }
+        }
+        return leaderboard.getTop();
+    }
+
+    /**
+     * Ranks every record of a binary score log.
+     *
+     * @param log     the score log
+     * @param ranking what the sessions are ranked by
+     * @param size    the number of sessions to keep
+     * @return the best sessions, best first
+     * @throws IOException if the log cannot be read
+     */
+    public static List<Score> top(final ScoreLog log,
+                                  final Ranking ranking,
+                                  final int size) throws IOException
+    {
+        final Leaderboard leaderboard = new Leaderboard(ranking, size);
+        log.forEach(leaderboard);
+        return leaderboard.getTop();
+    }
+
+    /**
+     * Prints the leaderboard of a score file.
+     *
+     * @param args optional score file, ranking name and leaderboard size
+     * @throws IOException if the score file cannot be read
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        final String fileName = args.length > 0 ? args[0] : DEFAULT_SCORE_FILE_NAME;
+        final Ranking ranking = args.length > 1 ? Ranking.valueOf(args[1]) : Ranking.AVERAGE_PER_GAME;
+        final int size = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SIZE;
+
+        int place = 1;
+        for (Score score : top(fileName, ranking, size))
+        {
+            System.out.printf("%2d. %.2f  %s%n", place++, ranking.valueOf(score), score.toCsvLine());
+        }
+    }
+
+    /**
+     * Offers one session to the leaderboard.
+     *
+     * @param score the session
+     */
+    @Override
+    public void accept(final Score score)
+    {
+        final Ranked entry = new Ranked(score, ranking.valueOf(score), offered++);
+        if (heap.size() < size)
+        {
+            heap.add(entry);
+        }
+        else if (WEAKEST_FIRST.compare(entry, heap.peek()) > 0)
+        {
+            heap.poll();
+            heap.add(entry);
+        }
+    }
+
+    /**
+     * Returns the sessions currently on the leaderboard.
+     *
+     * @return up to size sessions, best first; tied sessions in the order they were offered
+     */
+    public List<Score> getTop()
+    {
+        final List<Ranked> ranked = new ArrayList<>(heap);
+        ranked.sort(WEAKEST_FIRST.reversed());
+
+        final List<Score> scores = new ArrayList<>(ranked.size());
+        for (Ranked entry : ranked)
+        {
+            scores.add(entry.score());
+        }
+        return scores;
+    }
+
+    /**
+     * A session with its ranking value computed once and the order it was offered in.
+     */
+    private static final class Ranked
+    {
+        private final Score score;
+        private final double value;
+        private final long sequence;
+
+        Ranked(final Score score,
+               final double value,
+               final long sequence)
+        {
+            this.score = score;
+            this.value = value;
+            this.sequence = sequence;
+        }
+
+        Score score()
+        {
+            return score;
+        }
+
+        double value()
+        {
+            return value;
+        }
+
+        long sequence()
+        {
+            return sequence;
+        }
+    }
+}
@@ -13,6 +13,7 @@ private static final String COUNTRY_DATA_PATH = "Term_Project_AP/src/bcit.comp25
  * - 1: WordGame (console-based trivia using country-capital data)
  * - 2: NumberGame (JavaFX logic/guessing game)
  * - 3: MyGame (JavaFX combat/stat-based custom game)
+ * - S: Host WordGame for many players over TCP (WordGameServer)
  * - 4: Quit the program
  * Demonstrates:
  * - File I/O for game data
@@ -31,6 +32,7 @@ public static void main(final String[] args) {
         System.out.println("W - Play WordGame");
         System.out.println("N - Play NumberGame");
         System.out.println("M - Play MyGame");
+        System.out.println("S - Host WordGame server");
         System.out.println("Q - Quit");
 
         String input;
@@ -39,18 +41,22 @@ public static void main(final String[] args) {
             input = scanner.nextLine().trim();
 
             if (input.equalsIgnoreCase("W") || input.equalsIgnoreCase("N") ||
-                    input.equalsIgnoreCase("M") || input.equalsIgnoreCase("Q")) {
+                    input.equalsIgnoreCase("M") || input.equalsIgnoreCase("S") ||
+                    input.equalsIgnoreCase("Q")) {
                 break;
             }
 
-            System.out.println("Invalid input. Please enter W, N, M, or Q.");
+            System.out.println("Invalid input. Please enter W, N, M, S, or Q.");
         }
 
         switch (input.toUpperCase()) {
             case "W":
                 try {
-                    final List<Country> countries = WordGame.loadCountriesFromDirectory(COUNTRY_DATA_PATH);
-                    WordGame.playGame(countries);
+                    // Uses the binary snapshot when fresh, otherwise the parallel text loader
+                    final NamePool pool = new NamePool();
+                    final List<Country> countries = CountrySnapshot.load(COUNTRY_DATA_PATH, pool);
+                    // Facts are keyed by the load's country ids and only read once the first is needed
+                    WordGame.playGame(countries, CountryFacts.open(COUNTRY_DATA_PATH, pool));
                 } catch (final IOException e) {
                     // Error occurred while reading files (e.g., file missing or unreadable)
                     System.out.println("Error loading country data: " + e.getMessage());
@@ -68,6 +74,22 @@ public static void main(final String[] args) {
                 running = false;
                 break;
 
+            case "S":
+                // Hosts WordGame over TCP until Enter is pressed; edits to the data files reach new sessions
+                // and finished sessions are saved to the same score file as the console game
+                try (CountryWatcher watcher = CountryWatcher.start(COUNTRY_DATA_PATH);
+                     ScoreWriter scores = new ScoreWriter(Path.of(WordGame.SCORE_FILE_NAME),
+                             ScoreWriter.Durability.BATCHED);
+                     WordGameServer server = WordGameServer.start(watcher, WordGameServer.DEFAULT_PORT, scores)) {
+                    System.out.println("WordGame server listening on port " + server.getPort() +
+                            ". Press Enter to stop.");
+                    scanner.nextLine();
+                    System.out.println("Server stopped after " + server.getCompletedSessions() + " sessions.");
+                } catch (final IOException e) {
+                    System.out.println("Error starting WordGame server: " + e.getMessage());
+                }
+                break;
+
             case "Q":
                 // Exits the menu loop and terminates the program
                 running = false;
@@ -0,0 +1,88 @@
+import java.text.Normalizer;
+
+/**
+ * Converts country and capital names into the canonical form used as lookup keys.
+ * Two names are considered the same answer when their normalized forms are equal.
+ * Normalization rules:
+ * - Letters are case-folded to lower case.
+ * - Accents and other combining marks are stripped ("Bogotá" becomes "bogota").
+ * - Leading and trailing whitespace is removed and inner runs collapse to a single space.
+ * Plain ASCII input takes a fast path that skips Unicode decomposition entirely.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class NameNormalizer
+{
+    private static final char SPACE = ' ';
+    private static final char LAST_ASCII = 0x7F;
+
+    private NameNormalizer()
+    {
+    }
+
+    /**
+     * Returns the normalized lookup key for a name.
+     *
+     * @param name the name as typed by a player or read from a data file
+     * @return the case-folded, accent-free, whitespace-collapsed form, or null if name is null
+     */
+    public static String normalize(final String name)
+    {
+        if (name == null)
+        {
+            return null;
+        }
+
+        final String decomposed = isAscii(name) ? name : Normalizer.normalize(name, Normalizer.Form.NFD);
+        final StringBuilder builder = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < decomposed.length(); i++)
+        {
+            final char c = decomposed.charAt(i);
+
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c))
+            {
+                pendingSpace = builder.length() > 0;
+                continue;
+            }
+
+            if (isCombiningMark(c))
+            {
+                continue;
+            }
+
+            if (pendingSpace)
+            {
+                builder.append(SPACE);
+                pendingSpace = false;
+            }
+
+            builder.append(Character.toLowerCase(c));
+        }
+
+        return builder.toString();
+    }
+
+    private static boolean isAscii(final String name)
+    {
+        for (int i = 0; i < name.length(); i++)
+        {
+            if (name.charAt(i) > LAST_ASCII)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isCombiningMark(final char c)
+    {
+        final int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK
+                || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK;
+    }
+}
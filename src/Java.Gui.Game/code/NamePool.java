@@ -0,0 +1,285 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A load-scoped symbol table that hands out one canonical String per distinct name.
+ * Data files overlap, so the same country and capital names, and their normalized keys, appear
+ * many times in one load. Loaders route every name through a pool so that all Country objects
+ * built in that load share a single copy of each string; the duplicates they parsed become
+ * garbage at once instead of staying on the heap.
+ * - intern returns the canonical instance of a name; idOf gives each distinct name a small id,
+ *   counting up from 0, and nameOf maps it back.
+ * - normalize returns the canonical normalized key of a name, running NameNormalizer only once
+ *   per distinct name.
+ * - The pool estimates how many bytes of strings it saved, for footprint reports.
+ * - Facts passed to the Country constructors of the load are collected in the pool's
+ *   CountryFacts.Builder, keyed by the id of each country's normalized name (see Country.getId).
+ * A pool is meant to live as long as one load, not to grow for the life of the program, and is
+ * safe to share between the threads of a parallel load. The tables are ConcurrentHashMaps, so a
+ * name already in the pool is found without locking, and a new name only locks its own map bin
+ * while it is added; NameNormalizer runs with no pool-wide lock held. The byte counts are
+ * estimates and may be a few names off while a load is still running.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class NamePool
+{
+    /**
+     * The estimated shallow size of a Country with one capital: the object, its capital list and
+     * its key array, assuming compressed references.
+     */
+    public static final int COUNTRY_OBJECT_BYTES = 72;
+
+    /**
+     * The id of a name that is not in the pool.
+     */
+    public static final int NO_ID = -1;
+
+    private static final int STRING_OBJECT_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int OBJECT_ALIGNMENT = 8;
+    private static final int LAST_LATIN1 = 0xFF;
+    private static final double BYTES_PER_KILOBYTE = 1024.0;
+
+    private final ConcurrentHashMap<String, Pooled> pooled;
+    private final List<String> names;
+    private final ConcurrentHashMap<String, String> normalized;
+    private final LongAdder requestedBytes;
+    private final LongAdder retainedBytes;
+    private CountryFacts.Builder facts;
+
+    /**
+     * Creates an empty pool.
+     */
+    public NamePool()
+    {
+        this.pooled = new ConcurrentHashMap<>();
+        this.names = new ArrayList<>();
+        this.normalized = new ConcurrentHashMap<>();
+        this.requestedBytes = new LongAdder();
+        this.retainedBytes = new LongAdder();
+    }
+
+    /**
+     * Returns the canonical instance of a name, adding it to the pool if it is new.
+     *
+     * @param name the name, as parsed
+     * @return the pooled string equal to name, or null if name is null
+     */
+    public String intern(final String name)
+    {
+        return name == null ? null : pool(name).name;
+    }
+
+    /**
+     * Returns the id of a name, adding it to the pool if it is new.
+     *
+     * @param name the name, as parsed
+     * @return the name's id; ids count up from 0 in the order names were first seen
+     */
+    public int idOf(final String name)
+    {
+        return pool(name).id;
+    }
+
+    /**
+     * Returns the id of a name already in the pool, without adding it or counting it as requested.
+     *
+     * @param name the name
+     * @return the name's id, or NO_ID if the name is null or not in the pool
+     */
+    public int findId(final String name)
+    {
+        final Pooled entry = name == null ? null : pooled.get(name);
+        return entry == null ? NO_ID : entry.id;
+    }
+
+    /**
+     * Tells whether an id is the id of this very string in the pool, which holds only when the
+     * string came from this pool.
+     *
+     * @param id   an id, possibly from another pool
+     * @param name the pooled string the id should stand for
+     * @return true if nameOf(id) is name itself
+     */
+    public boolean holds(final int id,
+                         final String name)
+    {
+        final Pooled entry = name == null ? null : pooled.get(name);
+        return entry != null && entry.id == id && entry.name == name;
+    }
+
+    /**
+     * Returns the builder collecting the facts passed to Country constructors during this load,
+     * creating it on first use.
+     *
+     * @return the load's facts builder
+     */
+    public synchronized CountryFacts.Builder getFacts()
+    {
+        if (facts == null)
+        {
+            facts = new CountryFacts.Builder(this);
+        }
+        return facts;
+    }
+
+    /**
+     * Returns the name with a given id.
+     *
+     * @param id an id returned by idOf
+     * @return the canonical name
+     */
+    public String nameOf(final int id)
+    {
+        synchronized (names)
+        {
+            return names.get(id);
+        }
+    }
+
+    /**
+     * Returns the canonical normalized key of a name (see NameNormalizer).
+     *
+     * @param name the name, as parsed
+     * @return the pooled normalized key, or null if name is null
+     */
+    public String normalize(final String name)
+    {
+        if (name == null)
+        {
+            return null;
+        }
+
+        // Keep the pooled instance of the name as the map key, not a parsed duplicate
+        final Pooled entry = pooled.get(name);
+        final String mapKey = entry == null ? name : entry.name;
+        final String key = normalized.get(mapKey);
+        if (key != null)
+        {
+            // Without the pool every Country would keep its own copy of the key
+            requestedBytes.add(estimateBytes(key));
+            return key;
+        }
+
+        // A name normalized by two threads at once is normalized twice; the first result is kept
+        final String added = intern(NameNormalizer.normalize(name));
+        final String previous = normalized.putIfAbsent(mapKey, added);
+        return previous == null ? added : previous;
+    }
+
+    /**
+     * Returns the number of distinct strings in the pool.
+     *
+     * @return the pool size
+     */
+    public int size()
+    {
+        return pooled.size();
+    }
+
+    /**
+     * Returns the estimated bytes of the strings kept by the pool.
+     *
+     * @return the retained bytes
+     */
+    public long getRetainedBytes()
+    {
+        return retainedBytes.sum();
+    }
+
+    /**
+     * Returns the estimated bytes the same strings would take if none were shared.
+     *
+     * @return the bytes requested through the pool
+     */
+    public long getRequestedBytes()
+    {
+        return requestedBytes.sum();
+    }
+
+    /**
+     * Describes the heap footprint of the countries loaded through this pool.
+     *
+     * @param countries the number of countries loaded
+     * @return a one-line report of the string and per-country footprint
+     */
+    public String describeFootprint(final int countries)
+    {
+        final int divisor = Math.max(countries, 1);
+        final long retained = retainedBytes.sum();
+        final long requested = requestedBytes.sum();
+        return String.format("%d countries share %d distinct strings: %.1f KB instead of %.1f KB, "
+                        + "about %d bytes per country (%d without sharing)",
+                countries, pooled.size(), retained / BYTES_PER_KILOBYTE, requested / BYTES_PER_KILOBYTE,
+                COUNTRY_OBJECT_BYTES + retained / divisor, COUNTRY_OBJECT_BYTES + requested / divisor);
+    }
+
+    /*
+     * Finds or adds the pool entry of a name. Only the map bin of a new name is locked while its
+     * id is handed out, and the list behind nameOf only while the name is appended.
+     */
+    private Pooled pool(final String name)
+    {
+        final long bytes = estimateBytes(name);
+        requestedBytes.add(bytes);
+
+        final Pooled entry = pooled.get(name);
+        if (entry != null)
+        {
+            return entry;
+        }
+
+        return pooled.computeIfAbsent(name, added ->
+        {
+            retainedBytes.add(bytes);
+            synchronized (names)
+            {
+                names.add(added);
+                return new Pooled(added, names.size() - 1);
+            }
+        });
+    }
+
+    /**
+     * Estimates the heap size of a String: the object plus its byte array, which holds one byte
+     * per character when every character fits in Latin-1 and two otherwise.
+     *
+     * @param value the string
+     * @return the estimated bytes
+     */
+    static long estimateBytes(final String value)
+    {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++)
+        {
+            if (value.charAt(i) > LAST_LATIN1)
+            {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+
+        final long array = ARRAY_HEADER_BYTES + (long) value.length() * bytesPerChar;
+        return STRING_OBJECT_BYTES + (array + OBJECT_ALIGNMENT - 1) / OBJECT_ALIGNMENT * OBJECT_ALIGNMENT;
+    }
+
+    /**
+     * A pooled name and its id.
+     */
+    private static final class Pooled
+    {
+        private final String name;
+        private final int id;
+
+        Pooled(final String name,
+               final int id)
+        {
+            this.name = name;
+            this.id = id;
+        }
+    }
+}
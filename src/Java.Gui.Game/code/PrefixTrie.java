@@ -0,0 +1,262 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Suggests names that start with what the player has typed so far, for hints and autocomplete.
+ * Names are stored in a radix tree keyed by their normalized form (see NameNormalizer), so "bog"
+ * and "BOGO" both complete to "Bogotá".
+ * How it works:
+ * - Every edge is labelled with a run of characters rather than a single one, and names that
+ *   share a prefix share the nodes of that prefix, so a bank of hundreds of thousands of names
+ *   needs about one node per name.
+ * - Children are kept in arrays sorted by their first character, and a name ends at its own
+ *   node, so a depth-first walk visits names in key order.
+ * - A query walks down the prefix, then collects names below it and stops after the limit, so it
+ *   costs the length of the prefix plus the nodes of the names returned, whatever the bank size.
+ * Names with the same normalized form are stored once, in the form first added.
+ * A trie is built once and then only read, so one trie can be shared by many sessions.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class PrefixTrie
+{
+    /**
+     * The number of suggestions given when none is asked for.
+     */
+    public static final int DEFAULT_SUGGESTIONS = 5;
+
+    private final Node root;
+    private int size;
+
+    /**
+     * Creates an empty trie.
+     */
+    public PrefixTrie()
+    {
+        this.root = new Node("", null);
+    }
+
+    /**
+     * Builds a trie over every capital in a World, including every capital of countries with
+     * several.
+     *
+     * @param world the indexed countries
+     * @return the trie of capital names
+     */
+    public static PrefixTrie ofCapitals(final World world)
+    {
+        final PrefixTrie trie = new PrefixTrie();
+        for (Country country : world.getCountries())
+        {
+            final List<String> capitals = country.getCapitalCityNames();
+            for (int i = 0; i < capitals.size(); i++)
+            {
+                trie.add(country.getNormalizedCapitalCityName(i), capitals.get(i));
+            }
+        }
+        return trie;
+    }
+
+    /**
+     * Adds a name. Adding a name whose normalized form is already present has no effect.
+     *
+     * @param name the name as it should be suggested
+     */
+    public void add(final String name)
+    {
+        add(NameNormalizer.normalize(name), name);
+    }
+
+    /**
+     * Returns the first names, in key order, that start with a prefix.
+     * Matching ignores case, accents and extra spaces.
+     *
+     * @param prefix what the player has typed so far
+     * @param limit  the largest number of names to return
+     * @return the matching names, at most limit of them
+     */
+    public List<String> complete(final String prefix,
+                                 final int limit)
+    {
+        final String key = NameNormalizer.normalize(prefix);
+        if (key == null || limit <= 0)
+        {
+            return Collections.emptyList();
+        }
+
+        Node node = root;
+        int position = 0;
+        while (position < key.length())
+        {
+            final Node child = node.child(key.charAt(position));
+            if (child == null)
+            {
+                return Collections.emptyList();
+            }
+
+            // The prefix can end inside a label, as long as it agrees with the label that far
+            final int compared = Math.min(child.label.length(), key.length() - position);
+            if (!child.label.regionMatches(0, key, position, compared))
+            {
+                return Collections.emptyList();
+            }
+
+            node = child;
+            position += compared;
+        }
+
+        final List<String> names = new ArrayList<>(Math.min(limit, size));
+        collect(node, names, limit);
+        return names;
+    }
+
+    /**
+     * Returns the number of distinct names in the trie.
+     *
+     * @return the name count
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    private void add(final String key,
+                     final String name)
+    {
+        if (key == null || key.isEmpty())
+        {
+            return;
+        }
+
+        Node node = root;
+        int position = 0;
+        while (position < key.length())
+        {
+            final int index = node.indexOf(key.charAt(position));
+            if (index < 0)
+            {
+                node.insertChild(-index - 1, new Node(key.substring(position), name));
+                size++;
+                return;
+            }
+
+            final Node child = node.children[index];
+            final int common = commonPrefix(child.label, key, position);
+            if (common < child.label.length())
+            {
+                // Split the edge where the new key leaves it
+                final Node middle = new Node(child.label.substring(0, common), null);
+                child.label = child.label.substring(common);
+                middle.insertChild(0, child);
+                node.children[index] = middle;
+            }
+
+            node = node.children[index];
+            position += common;
+        }
+
+        if (node.name == null)
+        {
+            node.name = name;
+            size++;
+        }
+    }
+
+    private static int commonPrefix(final String label,
+                                    final String key,
+                                    final int from)
+    {
+        final int length = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(from + i))
+        {
+            i++;
+        }
+        return i;
+    }
+
+    private static void collect(final Node node,
+                                final List<String> names,
+                                final int limit)
+    {
+        if (node.name != null)
+        {
+            names.add(node.name);
+        }
+
+        for (int i = 0; i < node.childCount && names.size() < limit; i++)
+        {
+            collect(node.children[i], names, limit);
+        }
+    }
+
+    /**
+     * A tree node; children are kept in an array sorted by the first character of their label.
+     */
+    private static final class Node
+    {
+        private static final int INITIAL_CHILDREN = 2;
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private String label;
+        private String name;
+        private Node[] children;
+        private int childCount;
+
+        Node(final String label,
+             final String name)
+        {
+            this.label = label;
+            this.name = name;
+            this.children = NO_CHILDREN;
+        }
+
+        Node child(final char first)
+        {
+            final int index = indexOf(first);
+            return index < 0 ? null : children[index];
+        }
+
+        /*
+         * Returns the index of the child starting with the character, or -(insertion point) - 1.
+         */
+        int indexOf(final char first)
+        {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high)
+            {
+                final int middle = (low + high) >>> 1;
+                final char key = children[middle].label.charAt(0);
+                if (key < first)
+                {
+                    low = middle + 1;
+                }
+                else if (key > first)
+                {
+                    high = middle - 1;
+                }
+                else
+                {
+                    return middle;
+                }
+            }
+            return -low - 1;
+        }
+
+        void insertChild(final int index,
+                         final Node child)
+        {
+            if (childCount == children.length)
+            {
+                children = Arrays.copyOf(children, Math.max(INITIAL_CHILDREN, childCount * 2));
+            }
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            children[index] = child;
+            childCount++;
+        }
+    }
+}
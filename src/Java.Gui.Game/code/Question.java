@@ -0,0 +1,126 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One WordGame question: a prompt about a country and the answers that count as correct.
+ * A question either asks for the capital of a country or, reversed, for the country that has a
+ * given capital. Every accepted answer is looked up once when the question is built, through the
+ * World's name and capital indexes, so asking and checking never search the question bank.
+ * - Capital questions accept any of the country's capitals.
+ * - Reverse questions accept any country that has the prompted capital.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class Question
+{
+    private final Country country;
+    private final boolean reverse;
+    private final String prompt;
+    private final String normalizedPrompt;
+    private final List<String> answers;
+
+    private Question(final Country country,
+                     final boolean reverse,
+                     final String prompt,
+                     final String normalizedPrompt,
+                     final List<String> answers)
+    {
+        this.country = country;
+        this.reverse = reverse;
+        this.prompt = prompt;
+        this.normalizedPrompt = normalizedPrompt;
+        this.answers = answers;
+    }
+
+    /**
+     * Builds a question asking for the capital of a country.
+     *
+     * @param country the country asked about
+     * @return the question
+     */
+    public static Question capitalOf(final Country country)
+    {
+        return new Question(country, false, country.getName(), country.getNormalizedName(),
+                country.getCapitalCityNames());
+    }
+
+    /**
+     * Builds a question asking which country has one of a country's capitals.
+     *
+     * @param world        the indexed question bank, used to find every country with that capital
+     * @param country      the country the question is about
+     * @param capitalIndex which of the country's capitals to name, 0 for the primary capital
+     * @return the question
+     */
+    public static Question countryOf(final World world,
+                                     final Country country,
+                                     final int capitalIndex)
+    {
+        final String normalizedCapital = country.getNormalizedCapitalCityName(capitalIndex);
+        final List<Country> owners = world.getCountriesByNormalizedCapital(normalizedCapital);
+
+        final List<String> names = new ArrayList<>(Math.max(owners.size(), 1));
+        if (owners.isEmpty())
+        {
+            names.add(country.getName());
+        }
+        for (Country owner : owners)
+        {
+            names.add(owner.getName());
+        }
+
+        return new Question(country, true, country.getCapitalCityNames().get(capitalIndex), normalizedCapital,
+                List.copyOf(names));
+    }
+
+    /**
+     * Gets the country this question is about.
+     *
+     * @return the country
+     */
+    public Country getCountry()
+    {
+        return country;
+    }
+
+    /**
+     * Tells whether this question names a capital and asks for the country.
+     *
+     * @return true for a reverse question
+     */
+    public boolean isReverse()
+    {
+        return reverse;
+    }
+
+    /**
+     * Gets the name shown to the player: a country name, or a capital for a reverse question.
+     *
+     * @return the prompt
+     */
+    public String getPrompt()
+    {
+        return prompt;
+    }
+
+    /**
+     * Gets the normalized form of the prompt, used as a lookup key.
+     *
+     * @return the normalized prompt
+     */
+    public String getNormalizedPrompt()
+    {
+        return normalizedPrompt;
+    }
+
+    /**
+     * Gets every answer that counts as correct, in display form.
+     *
+     * @return an unmodifiable list of the accepted answers
+     */
+    public List<String> getAnswers()
+    {
+        return answers;
+    }
+}
@@ -0,0 +1,136 @@
+import java.util.List;
+
+/**
+ * The questions a WordGameEngine draws from, addressed by the indexes a QuestionSampler returns.
+ * A bank may hold every country on the heap or fetch them as they are asked for, so each question
+ * also comes with the matcher that checks its answers; a bank that is only partly loaded can
+ * then check answers against the part the question came from.
+ * Implementations must allow several engines to read the same bank from different threads.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public interface QuestionBank
+{
+    /**
+     * Returns the number of questions in the bank.
+     *
+     * @return the bank size; valid indexes run from 0 to size - 1
+     */
+    int size();
+
+    /**
+     * Returns the country of a question.
+     *
+     * @param index the question index
+     * @return the country
+     */
+    Country get(int index);
+
+    /**
+     * Returns the matcher that checks answers to a question.
+     *
+     * @param index the question index
+     * @return a matcher whose World contains the question's country
+     */
+    FuzzyMatcher matcherFor(int index);
+
+    /**
+     * Returns a question's country together with the matcher that checks it, from one lookup.
+     * Banks that load their countries lazily override this, so the two always come from the same
+     * load and the bank is looked up once per question.
+     *
+     * @param index the question index
+     * @return the country and its matcher
+     */
+    default Item item(final int index)
+    {
+        return new Item(get(index), matcherFor(index));
+    }
+
+    /**
+     * Creates a sampler suited to how this bank stores its questions. The default deals every
+     * question from one QuestionDeck.
+     *
+     * @param seed the seed to replay
+     * @return a new sampler over this bank
+     */
+    default QuestionSampler newDeck(final long seed)
+    {
+        return new QuestionDeck(size(), seed);
+    }
+
+    /**
+     * Wraps a list of countries held on the heap, checked by one matcher built over all of them.
+     *
+     * @param countries the countries, in index order
+     * @param matcher   the answer checker built over the same countries
+     * @return the bank
+     */
+    static QuestionBank of(final List<Country> countries,
+                           final FuzzyMatcher matcher)
+    {
+        return new QuestionBank()
+        {
+            @Override
+            public int size()
+            {
+                return countries.size();
+            }
+
+            @Override
+            public Country get(final int index)
+            {
+                return countries.get(index);
+            }
+
+            @Override
+            public FuzzyMatcher matcherFor(final int index)
+            {
+                return matcher;
+            }
+        };
+    }
+
+    /**
+     * A question's country and the matcher that checks its answers.
+     */
+    final class Item
+    {
+        private final Country country;
+        private final FuzzyMatcher matcher;
+
+        /**
+         * Pairs a country with its matcher.
+         *
+         * @param country the country asked about
+         * @param matcher a matcher whose World contains the country
+         */
+        public Item(final Country country,
+                    final FuzzyMatcher matcher)
+        {
+            this.country = country;
+            this.matcher = matcher;
+        }
+
+        /**
+         * Returns the country asked about.
+         *
+         * @return the country
+         */
+        public Country getCountry()
+        {
+            return country;
+        }
+
+        /**
+         * Returns the matcher that checks answers about the country.
+         *
+         * @return the matcher
+         */
+        public FuzzyMatcher getMatcher()
+        {
+            return matcher;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import java.util.Random;
+
+/**
+ * Deals question indexes without repeats, like drawing cards from a shuffled deck.
+ * The deck holds the indexes 0..size-1 and shuffles them incrementally with Fisher-Yates:
+ * each draw swaps one random remaining index to the end of the undealt region and returns it.
+ * - Every draw is O(1) and allocates nothing.
+ * - No index repeats until all of them have been dealt; the deck then starts a new pass.
+ * - A fixed seed makes the whole sequence of draws reproducible, so sessions can be replayed.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class QuestionDeck implements QuestionSampler
+{
+    private final int[] indexes;
+    private final Random random;
+    private int remaining;
+
+    /**
+     * Creates a deck over size questions, shuffled from a random seed.
+     *
+     * @param size the number of questions in the bank
+     */
+    public QuestionDeck(final int size)
+    {
+        this(size, new Random());
+    }
+
+    /**
+     * Creates a deck over size questions whose draws are fully determined by the seed.
+     *
+     * @param size the number of questions in the bank
+     * @param seed the seed to replay
+     */
+    public QuestionDeck(final int size,
+                        final long seed)
+    {
+        this(size, new Random(seed));
+    }
+
+    private QuestionDeck(final int size,
+                         final Random random)
+    {
+        if (size <= 0)
+        {
+            throw new IllegalArgumentException("A question deck needs at least one question.");
+        }
+
+        this.indexes = new int[size];
+        this.random = random;
+        this.remaining = size;
+
+        for (int i = 0; i < size; i++)
+        {
+            indexes[i] = i;
+        }
+    }
+
+    /**
+     * Deals the next question index.
+     * When every index has been dealt, a new pass begins over the same indexes.
+     *
+     * @return an index in the range [0, size)
+     */
+    @Override
+    public int next()
+    {
+        if (remaining == 0)
+        {
+            remaining = indexes.length;
+        }
+
+        final int pick = random.nextInt(remaining);
+        remaining--;
+
+        final int index = indexes[pick];
+        indexes[pick] = indexes[remaining];
+        indexes[remaining] = index;
+
+        return index;
+    }
+
+    /**
+     * Returns how many indexes are left before the current pass is exhausted.
+     *
+     * @return the number of undealt indexes in this pass
+     */
+    public int remaining()
+    {
+        return remaining;
+    }
+
+    /**
+     * Returns the number of questions in the deck.
+     *
+     * @return the deck size
+     */
+    public int size()
+    {
+        return indexes.length;
+    }
+}
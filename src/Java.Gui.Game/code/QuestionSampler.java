@@ -0,0 +1,37 @@
+/**
+ * Chooses which question of a bank to ask next.
+ * Implementations work on indexes into the question list so that drawing never allocates.
+ * The game reports each answer back through record, and calls endRound between rounds, so that
+ * samplers which adapt to the player can update their state outside the per-question path.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public interface QuestionSampler
+{
+    /**
+     * Chooses the next question.
+     *
+     * @return an index into the question list
+     */
+    int next();
+
+    /**
+     * Reports how the player did on a question previously returned by next.
+     * The default implementation ignores the outcome.
+     *
+     * @param index   the question index
+     * @param outcome how the question was answered
+     */
+    default void record(final int index,
+                        final AnswerOutcome outcome)
+    {
+    }
+
+    /**
+     * Signals that a round has finished. The default implementation does nothing.
+     */
+    default void endRound()
+    {
+    }
+}
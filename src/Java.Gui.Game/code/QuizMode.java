@@ -0,0 +1,43 @@
+/**
+ * The kinds of question a WordGame session asks.
+ * - CAPITAL_OF_COUNTRY: "What is the capital of Canada?", the original game.
+ * - COUNTRY_OF_CAPITAL: "Which country has the capital Ottawa?"
+ * - MIXED: alternates between the two, starting with a capital question.
+ * Reverse questions about a country with several capitals take turns naming each of them.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public enum QuizMode
+{
+    CAPITAL_OF_COUNTRY,
+    COUNTRY_OF_CAPITAL,
+    MIXED;
+
+    /**
+     * Builds the question asked about a country.
+     *
+     * @param world          the indexed question bank, used to find every accepted answer
+     * @param country        the country chosen for the question
+     * @param questionNumber the number of questions asked before this one in the session
+     * @return the question
+     */
+    public Question questionFor(final World world,
+                                final Country country,
+                                final int questionNumber)
+    {
+        switch (this)
+        {
+            case COUNTRY_OF_CAPITAL:
+                return Question.countryOf(world, country, questionNumber % country.getCapitalCount());
+            case MIXED:
+                if (questionNumber % 2 == 0)
+                {
+                    return Question.capitalOf(country);
+                }
+                return Question.countryOf(world, country, (questionNumber / 2) % country.getCapitalCount());
+            default:
+                return Question.capitalOf(country);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 import java.io.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,7 +14,10 @@ import java.util.List;
  * This class supports the functionality of:
  * - Storing the session's results.
  * - Writing session data to a file in CSV and user-friendly formats.
+ *   The CSV format is the canonical machine format; the user-friendly format is for reports only.
  * - Loading session data from a file.
+ * Appends take an exclusive ScoreFileLock and reads a shared one, so several game processes can
+ * use the same score file without interleaving records.
  *
  * @author Aleksandar Panich
  * @version 1.0
@@ -85,6 +87,28 @@ public class Score
         return (2 * numCorrectFirstAttempt) + numCorrectSecondAttempt;
     }
 
+    /**
+     * Calculates the average number of points earned per game in the session.
+     * This is the figure high scores are ranked by.
+     *
+     * @return the score divided by the number of games, or 0 if no games were played.
+     */
+    public double getAveragePerGame()
+    {
+        return numGamesPlayed == 0 ? 0.0 : (double) getScore() / numGamesPlayed;
+    }
+
+    /**
+     * Calculates the share of questions in the session answered correctly on the first attempt.
+     *
+     * @return first-attempt correct answers divided by all questions asked, or 0 if none were asked.
+     */
+    public double getFirstTryAccuracy()
+    {
+        final int questions = numCorrectFirstAttempt + numCorrectSecondAttempt + numIncorrectTwoAttempts;
+        return questions == 0 ? 0.0 : (double) numCorrectFirstAttempt / questions;
+    }
+
     /**
      * Returns a user-friendly formatted string summarizing the session.
      * This includes the date played, number of games, number of attempts (correct and incorrect), and the total score.
@@ -113,37 +137,66 @@ public class Score
     /**
      * Writes this Score object to the specified file in CSV format.
      * The format follows: dateTime, games, correct1, correct2, incorrect.
-     * This method appends the new score to the existing file content.
+     * This method appends the new score to the existing file content while holding the file's
+     * exclusive lock.
      *
      * @param score    The score object to save.
      * @param filename The file to write the score to.
      * @throws IOException if writing to the file fails.
      */
+    @SuppressWarnings("try")
     public static void appendScoreToFile(final Score score,
                                          final String filename) throws IOException
     {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename, true)))
+        try (ScoreFileLock lock = ScoreFileLock.exclusive(filename);
+             BufferedWriter writer = new BufferedWriter(new FileWriter(filename, true)))
         {
-            writer.write(score.dateTimePlayed.format(formatter) + "," +
-                    score.numGamesPlayed + "," +
-                    score.numCorrectFirstAttempt + "," +
-                    score.numCorrectSecondAttempt + "," +
-                    score.numIncorrectTwoAttempts + "\n");
+            writer.write(score.toCsvLine() + "\n");
         }
     }
 
+    /**
+     * Formats this score as a single CSV record without a line terminator.
+     * The format follows: dateTime, games, correct1, correct2, incorrect.
+     *
+     * @return the CSV form of this score
+     */
+    public String toCsvLine()
+    {
+        return dateTimePlayed.format(formatter) + "," +
+                numGamesPlayed + "," +
+                numCorrectFirstAttempt + "," +
+                numCorrectSecondAttempt + "," +
+                numIncorrectTwoAttempts;
+    }
+
+    /**
+     * Parses a single CSV record written by toCsvLine.
+     *
+     * @param line the record, with or without surrounding whitespace
+     * @return the parsed Score, or null if the line is not a valid record
+     */
+    public static Score parseCsvLine(final String line)
+    {
+        final char[] chars = line.toCharArray();
+        return ScoreCsvParser.parseLine(chars, 0, chars.length, false);
+    }
+
     /**
      * Writes this Score object to the specified file in a user-friendly format.
-     * Each score is saved with labels and line breaks for easy readability.
+     * Each score is saved with labels and line breaks for easy readability, under the file's
+     * exclusive lock so concurrent reports do not interleave.
      *
      * @param score    The score object to append in readable format.
      * @param filename The file to write to.
      * @throws IOException if writing to the file fails.
      */
+    @SuppressWarnings("try")
     public static void appendFormattedScoreToFile(final Score score,
                                                   final String filename) throws IOException
     {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename, true)))
+        try (ScoreFileLock lock = ScoreFileLock.exclusive(filename);
+             BufferedWriter writer = new BufferedWriter(new FileWriter(filename, true)))
         {
             writer.write(score.toString());
             writer.write("\n");
@@ -155,13 +208,15 @@ public class Score
      * word game session data. Each line in the file contains the results of a single game session,
      * including the date played, number of games, and performance statistics.
      *
-     * This method uses a BufferedReader to efficiently process each line and load the data into
-     * Score objects. Each record in the file represents a completed game session.
+     * The file is parsed in a single pass over a reusable char buffer by ScoreCsvParser, without
+     * splitting or trimming strings. Each record in the file represents a completed game session.
+     * The file's shared lock is held while reading, so a concurrent append is never seen half-written.
      *
      * @param filename The file to read Score data from.
      * @return A list of Score objects parsed from the valid lines in the file.
      * @throws IOException if the file does not exist or cannot be read.
      */
+    @SuppressWarnings("try")
     public static List<Score> readScoresFromFile(final String filename) throws IOException
     {
         List<Score> scores = new ArrayList<>();
@@ -172,39 +227,10 @@ public class Score
             return scores; // Return an empty list if the file doesn't exist
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file)))
+        try (ScoreFileLock lock = ScoreFileLock.shared(filename);
+             Reader reader = new FileReader(file))
         {
-            String line;
-
-            while ((line = reader.readLine()) != null)
-            {
-                line = line.trim();
-                if (line.isEmpty()) // Skip empty lines
-                {
-                    continue;
-                }
-
-                String[] parts = line.split(",");
-                if (parts.length != 5) { // Skip invalid lines
-                    continue;
-                }
-
-                try
-                {
-                    LocalDateTime dateTime = LocalDateTime.parse(parts[0], formatter);
-                    final int games = Integer.parseInt(parts[1]);
-                    final int correct1 = Integer.parseInt(parts[2]);
-                    final int correct2 = Integer.parseInt(parts[3]);
-                    final int incorrect = Integer.parseInt(parts[4]);
-
-                    Score score = new Score(dateTime, games, correct1, correct2, incorrect);
-                    scores.add(score); // Add the parsed score to the list
-                }
-                catch (NumberFormatException | DateTimeParseException e)
-                {
-                    System.out.println("Invalid data: " + line); // Log invalid data and skip
-                }
-            }
+            ScoreCsvParser.parse(reader, scores::add);
         }
 
         return scores; // Return the list of scores loaded from the file
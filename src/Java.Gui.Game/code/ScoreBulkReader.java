@@ -0,0 +1,345 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * Loads very large CSV score files for offline analysis using memory-mapped chunks and a fork-join
+ * pool. It accepts the same records as Score.readScoresFromFile, but is built for histories that
+ * are gigabytes in size.
+ * How it works:
+ * - The file is split into chunks of about CHUNK_BYTES, each ending just after a line feed, so no
+ *   record straddles two chunks.
+ * - Each chunk is memory-mapped and parsed on the common fork-join pool with ScoreCsvParser's
+ *   field parser, straight into primitive columns; no Score or String is created per record.
+ * - Chunk results are joined in file order, so rows come out in the same order as the file.
+ * - Invalid records are skipped silently rather than printed.
+ * - The score file's shared ScoreFileLock is held while reading.
+ * Usage (benchmark): ScoreBulkReader [score file] [records to generate if the file is missing]
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class ScoreBulkReader
+{
+    /**
+     * The target size of each parallel chunk, in bytes.
+     */
+    public static final int CHUNK_BYTES = 8 * 1024 * 1024;
+
+    private static final byte LINE_FEED = '\n';
+    private static final int UNSIGNED_BYTE_MASK = 0xFF;
+    private static final int BOUNDARY_PROBE_BYTES = 4096;
+    private static final int INITIAL_SCRATCH_SIZE = 64;
+    private static final String DEFAULT_BENCHMARK_FILE = "score_benchmark.txt";
+    private static final int BENCHMARK_RUNS = 5;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    private ScoreBulkReader()
+    {
+    }
+
+    /**
+     * Reads every valid record of a CSV score file into primitive columns.
+     *
+     * @param file the CSV score file
+     * @return the records in file order; empty if the file does not exist
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static ScoreTable readColumns(final Path file) throws IOException
+    {
+        return readColumns(file, CHUNK_BYTES);
+    }
+
+    /**
+     * Reads every valid record of a CSV score file into primitive columns using a given chunk size.
+     *
+     * @param file       the CSV score file
+     * @param chunkBytes the target size of each parallel chunk, in bytes
+     * @return the records in file order; empty if the file does not exist
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    @SuppressWarnings("try")
+    static ScoreTable readColumns(final Path file,
+                                  final int chunkBytes) throws IOException
+    {
+        if (!Files.isRegularFile(file))
+        {
+            return new ScoreTable.Builder(0).build();
+        }
+
+        try (ScoreFileLock lock = ScoreFileLock.shared(file.toString());
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            final long[] bounds = chunkBounds(channel, chunkBytes);
+            final ScoreTable[] results = new ScoreTable[bounds.length - 1];
+            final ChunkTask task = new ChunkTask(channel, bounds, results, 0, results.length);
+            ForkJoinPool.commonPool().invoke(task);
+
+            if (task.failure != null)
+            {
+                throw task.failure;
+            }
+            return ScoreTable.concat(results);
+        }
+    }
+
+    /**
+     * Reads every valid record of a CSV score file as Score objects.
+     * The file is parsed in parallel into columns first; Score objects are created as the stream
+     * is consumed.
+     *
+     * @param file the CSV score file
+     * @return the records in file order
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static Stream<Score> stream(final Path file) throws IOException
+    {
+        return readColumns(file).stream();
+    }
+
+    /**
+     * Benchmarks the bulk reader against Score.readScoresFromFile and prints the throughput of each.
+     *
+     * @param args optional score file and number of records to generate if it is missing
+     * @throws IOException if the file cannot be generated or read
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        final Path file = Path.of(args.length > 0 ? args[0] : DEFAULT_BENCHMARK_FILE);
+        if (!Files.isRegularFile(file))
+        {
+            final int records = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+            generate(file, records);
+            System.out.println("Generated " + records + " records in " + file);
+        }
+
+        final double megabytes = Files.size(file) / BYTES_PER_MEGABYTE;
+        for (int run = 1; run <= BENCHMARK_RUNS; run++)
+        {
+            long start = System.nanoTime();
+            final int bulkRows = readColumns(file).size();
+            final double bulkSeconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+
+            start = System.nanoTime();
+            final int listRows = Score.readScoresFromFile(file.toString()).size();
+            final double listSeconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+
+            System.out.printf("Run %d: bulk %d rows in %.3f s (%.0f MB/s, %.0f rows/s); "
+                            + "sequential %d rows in %.3f s (%.0f MB/s, %.0f rows/s)%n",
+                    run, bulkRows, bulkSeconds, megabytes / bulkSeconds, bulkRows / bulkSeconds,
+                    listRows, listSeconds, megabytes / listSeconds, listRows / listSeconds);
+        }
+    }
+
+    /*
+     * Splits the file at line feeds into chunks of about chunkBytes.
+     * Returns the chunk start offsets followed by the file size.
+     */
+    private static long[] chunkBounds(final FileChannel channel,
+                                      final int chunkBytes) throws IOException
+    {
+        final long size = channel.size();
+        final List<Long> bounds = new ArrayList<>();
+        final ByteBuffer probe = ByteBuffer.allocate(BOUNDARY_PROBE_BYTES);
+        bounds.add(0L);
+
+        long next = chunkBytes;
+        while (next < size)
+        {
+            final long boundary = nextLineStart(channel, next, probe);
+            if (boundary >= size)
+            {
+                break;
+            }
+            bounds.add(boundary);
+            next = boundary + chunkBytes;
+        }
+
+        bounds.add(size);
+        final long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /*
+     * Returns the offset just past the first line feed at or after the given offset,
+     * or the file size if there is none.
+     */
+    private static long nextLineStart(final FileChannel channel,
+                                      final long from,
+                                      final ByteBuffer probe) throws IOException
+    {
+        long position = from;
+        while (true)
+        {
+            probe.clear();
+            final int read = channel.read(probe, position);
+            if (read <= 0)
+            {
+                return channel.size();
+            }
+
+            for (int i = 0; i < read; i++)
+            {
+                if (probe.get(i) == LINE_FEED)
+                {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Parses every line of a buffer into the builder, skipping blank and invalid records.
+     *
+     * @param buffer  the bytes to parse, from index 0 up to the buffer's limit
+     * @param builder receives each valid record
+     */
+    static void parse(final ByteBuffer buffer,
+                      final ScoreTable.Builder builder)
+    {
+        final int limit = buffer.limit();
+        final int[] fields = new int[ScoreCsvParser.FIELDS];
+        char[] scratch = new char[INITIAL_SCRATCH_SIZE];
+        int lineStart = 0;
+
+        while (lineStart < limit)
+        {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != LINE_FEED)
+            {
+                lineEnd++;
+            }
+
+            final int length = lineEnd - lineStart;
+            if (length > scratch.length)
+            {
+                scratch = new char[Math.max(length, scratch.length * 2)];
+            }
+
+            // Records are ASCII; widening each byte keeps any other byte invalid for the parser
+            for (int i = 0; i < length; i++)
+            {
+                scratch[i] = (char) (buffer.get(lineStart + i) & UNSIGNED_BYTE_MASK);
+            }
+
+            if (ScoreCsvParser.parseFields(scratch, 0, length, fields) == ScoreCsvParser.PARSED)
+            {
+                final long timestamp = ScoreCsvParser.toEpochSecond(fields);
+                if (timestamp != ScoreCsvParser.NO_TIME)
+                {
+                    builder.add(timestamp, fields[ScoreCsvParser.FIELD_GAMES],
+                            fields[ScoreCsvParser.FIELD_CORRECT1], fields[ScoreCsvParser.FIELD_CORRECT2],
+                            fields[ScoreCsvParser.FIELD_INCORRECT]);
+                }
+            }
+
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private static void generate(final Path file,
+                                 final int records) throws IOException
+    {
+        final Random random = new Random(records);
+        LocalDateTime played = LocalDateTime.of(2020, 1, 1, 0, 0);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8))
+        {
+            for (int i = 0; i < records; i++)
+            {
+                played = played.plusSeconds(1 + random.nextInt(600));
+                final int games = 1 + random.nextInt(3);
+                final int correct1 = random.nextInt(games * 10 + 1);
+                final int correct2 = random.nextInt(games * 10 - correct1 + 1);
+                final Score score = new Score(played, games, correct1, correct2, games * 10 - correct1 - correct2);
+                writer.write(score.toCsvLine());
+                writer.write("\n");
+            }
+        }
+    }
+
+    /**
+     * Splits a range of chunks in half until a single chunk remains, then maps and parses it.
+     * Each chunk writes into its own slot of the shared results array, so no locking is needed.
+     */
+    private static final class ChunkTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        // Tasks only live inside one read and are never serialized
+        private final transient FileChannel channel;
+        private final transient long[] bounds;
+        private final transient ScoreTable[] results;
+        private final int from;
+        private final int to;
+        private volatile IOException failure;
+
+        ChunkTask(final FileChannel channel,
+                  final long[] bounds,
+                  final ScoreTable[] results,
+                  final int from,
+                  final int to)
+        {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from <= 1)
+            {
+                if (from < to)
+                {
+                    load(from);
+                }
+                return;
+            }
+
+            final int middle = (from + to) >>> 1;
+            final ChunkTask left = new ChunkTask(channel, bounds, results, from, middle);
+            final ChunkTask right = new ChunkTask(channel, bounds, results, middle, to);
+            invokeAll(left, right);
+            failure = left.failure != null ? left.failure : right.failure;
+        }
+
+        private void load(final int chunk)
+        {
+            final long start = bounds[chunk];
+            final long length = bounds[chunk + 1] - start;
+            final ScoreTable.Builder builder = new ScoreTable.Builder();
+            try
+            {
+                if (length > 0)
+                {
+                    parse(channel.map(FileChannel.MapMode.READ_ONLY, start, length), builder);
+                }
+            }
+            catch (IOException e)
+            {
+                failure = e;
+            }
+            results[chunk] = builder.build();
+        }
+    }
+}
@@ -0,0 +1,455 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the live score file short by rolling old sessions out of it.
+ * Compaction moves every session played before a cutoff day out of the live score file:
+ * - The raw records are appended to a dated segment, `<score file>.<cutoff>.segment`, for archiving.
+ * - Each day's totals and best session are merged into `<score file>.summary` (see DailySummary).
+ * - The live file is rewritten with only the newer sessions.
+ * - Lines that are not a valid record, such as the multi-line reports older versions wrote to the
+ *   score file, are never rolled out or dropped: they stay in the live file byte for byte.
+ * Crash safety:
+ * - The new live file, segment and summaries are first written to temporary files.
+ * - A journal, `<score file>.compact`, then names the files to replace; writing it is the commit
+ *   point. The temporary files are moved into place with atomic moves and the journal is deleted.
+ * - If a run dies before the journal is written nothing has changed; if it dies after, the next
+ *   run (or recover) finishes the moves. Either way no day is counted twice and none is lost.
+ * Everything that reads the live file, including HighScoreIndex rebuilds, then only scans recent
+ * sessions. Full-history questions combine the live file with dailySummaries or with the
+ * segments listed by listSegments, as Leaderboard.top does. Compaction holds the score file's
+ * exclusive ScoreFileLock throughout; the swapped-in live file is a new file, which ScoreWriter
+ * notices before its next commit.
+ * A compactor can also run in the background, compacting once on start and then periodically.
+ * Background runs print nothing when they succeed and hand any failure to the compactor's failure
+ * reporter, so a game in progress can keep its console to itself.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public class ScoreCompactor implements Closeable
+{
+    /**
+     * The number of most recent days left in the live file when none is given.
+     */
+    public static final int DEFAULT_RETAIN_DAYS = 30;
+
+    /**
+     * The suffix added to the score file name to name its summary file.
+     */
+    public static final String SUMMARY_SUFFIX = ".summary";
+
+    /**
+     * The suffix of the dated segment files that hold rolled-out records.
+     */
+    public static final String SEGMENT_SUFFIX = ".segment";
+
+    /**
+     * The suffix of the journal that marks a compaction as committed until its files are in place.
+     */
+    public static final String JOURNAL_SUFFIX = ".compact";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long PERIOD_HOURS = 24;
+    private static final long SHUTDOWN_WAIT_SECONDS = 60;
+
+    private final String scoreFileName;
+    private final int retainDays;
+    private final Consumer<String> failures;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a compactor for a score file that prints background failures to the console.
+     * Nothing runs until start or compactNow is called.
+     *
+     * @param scoreFileName the live CSV score file
+     * @param retainDays    how many of the most recent days stay in the live file
+     */
+    public ScoreCompactor(final String scoreFileName,
+                          final int retainDays)
+    {
+        this(scoreFileName, retainDays, System.out::println);
+    }
+
+    /**
+     * Creates a compactor for a score file. Nothing runs until start or compactNow is called.
+     *
+     * @param scoreFileName the live CSV score file
+     * @param retainDays    how many of the most recent days stay in the live file
+     * @param failures      receives a message for each background run that fails
+     */
+    public ScoreCompactor(final String scoreFileName,
+                          final int retainDays,
+                          final Consumer<String> failures)
+    {
+        if (retainDays < 0)
+        {
+            throw new IllegalArgumentException("Retained days must not be negative: " + retainDays);
+        }
+
+        this.scoreFileName = scoreFileName;
+        this.retainDays = retainDays;
+        this.failures = failures;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task ->
+        {
+            final Thread thread = new Thread(task, "score-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Compacts in the background right away and then once a day until closed.
+     * Failures go to the failure reporter and the next run tries again.
+     */
+    public void start()
+    {
+        scheduler.scheduleAtFixedRate(this::compactQuietly, 0, PERIOD_HOURS, TimeUnit.HOURS);
+    }
+
+    /**
+     * Compacts on the calling thread, rolling out every session older than the retained days.
+     *
+     * @return the number of sessions rolled out of the live file
+     * @throws IOException if any of the files cannot be read or written
+     */
+    public long compactNow() throws IOException
+    {
+        return compact(scoreFileName, LocalDate.now().minusDays(retainDays));
+    }
+
+    /**
+     * Stops background compaction, letting a run in progress finish.
+     */
+    @Override
+    public void close()
+    {
+        scheduler.shutdown();
+        try
+        {
+            scheduler.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Rolls every session played before the cutoff day out of a live score file.
+     *
+     * @param scoreFileName the live CSV score file
+     * @param cutoff        sessions played before this day are rolled out
+     * @return the number of sessions rolled out
+     * @throws IOException if any of the files cannot be read or written
+     */
+    @SuppressWarnings("try")
+    public static long compact(final String scoreFileName,
+                               final LocalDate cutoff) throws IOException
+    {
+        if (!new File(scoreFileName).exists())
+        {
+            return 0;
+        }
+
+        try (ScoreFileLock lock = ScoreFileLock.exclusive(scoreFileName))
+        {
+            // A run that died after its commit point is finished before anything is read again
+            rollForward(scoreFileName);
+
+            final Path live = Path.of(scoreFileName);
+            final Path segment = Path.of(scoreFileName + "." + cutoff + SEGMENT_SUFFIX);
+            final Path summary = Path.of(scoreFileName + SUMMARY_SUFFIX);
+            final SortedMap<LocalDate, DailySummary> rolled = new TreeMap<>();
+
+            // Every new file is prepared next to its target; nothing visible changes until the commit
+            Files.deleteIfExists(tempOf(segment));
+            if (Files.isRegularFile(segment))
+            {
+                Files.copy(segment, tempOf(segment));
+            }
+
+            // Records are ASCII; ISO-8859-1 maps every byte to one char and back, so lines that are
+            // not records are copied exactly, whatever encoding they were written in
+            try (BufferedReader reader = Files.newBufferedReader(live, StandardCharsets.ISO_8859_1);
+                 BufferedWriter tail = Files.newBufferedWriter(tempOf(live), StandardCharsets.ISO_8859_1);
+                 BufferedWriter archive = Files.newBufferedWriter(tempOf(segment), StandardCharsets.ISO_8859_1,
+                         StandardOpenOption.CREATE, StandardOpenOption.APPEND))
+            {
+                String line;
+                while ((line = reader.readLine()) != null)
+                {
+                    if (line.isBlank())
+                    {
+                        continue;
+                    }
+
+                    final Score score = ScoreCsvParser.parseLine(line.toCharArray(), 0, line.length(), false);
+                    if (score == null)
+                    {
+                        // Compaction cannot tell when this was played, so it stays live as it is
+                        tail.write(line);
+                        tail.write("\n");
+                        continue;
+                    }
+
+                    final LocalDate day = score.getDateTimePlayed().toLocalDate();
+                    final BufferedWriter target = day.isBefore(cutoff) ? archive : tail;
+                    target.write(score.toCsvLine());
+                    target.write("\n");
+                    if (target == archive)
+                    {
+                        rolled.computeIfAbsent(day, DailySummary::new).add(score);
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                discard(live, segment);
+                throw e;
+            }
+
+            if (rolled.isEmpty())
+            {
+                discard(live, segment);
+                return 0;
+            }
+
+            final SortedMap<LocalDate, DailySummary> summaries = readSummaries(scoreFileName);
+            for (DailySummary added : rolled.values())
+            {
+                summaries.merge(added.getDay(), added, (stored, extra) ->
+                {
+                    stored.merge(extra);
+                    return stored;
+                });
+            }
+            writeSummaries(tempOf(summary), summaries);
+
+            // The commit point: once the journal exists, a rerun moves the prepared files into
+            // place instead of rolling the same sessions into the summaries a second time
+            writeJournal(scoreFileName, List.of(summary, segment, live));
+            rollForward(scoreFileName);
+
+            long sessions = 0;
+            for (DailySummary added : rolled.values())
+            {
+                sessions += added.getSessions();
+            }
+            return sessions;
+        }
+    }
+
+    /**
+     * Finishes a compaction that was interrupted after its commit point, if there is one.
+     * Readers that combine the summaries with the live file call this first, so they never count
+     * a session both in a summary and in the live file.
+     *
+     * @param scoreFileName the live CSV score file
+     * @return true if an interrupted compaction was finished
+     * @throws IOException if the prepared files cannot be moved into place
+     */
+    @SuppressWarnings("try")
+    public static boolean recover(final String scoreFileName) throws IOException
+    {
+        if (!Files.exists(Path.of(scoreFileName + JOURNAL_SUFFIX)))
+        {
+            return false;
+        }
+
+        try (ScoreFileLock lock = ScoreFileLock.exclusive(scoreFileName))
+        {
+            return rollForward(scoreFileName);
+        }
+    }
+
+    /**
+     * Lists the segments of rolled-out records of a score file, oldest cutoff first.
+     * Together with the live file they hold every session ever saved, each exactly once.
+     *
+     * @param scoreFileName the live CSV score file
+     * @return the segment files; empty if nothing has been compacted
+     * @throws IOException if the directory cannot be listed
+     */
+    public static List<Path> listSegments(final String scoreFileName) throws IOException
+    {
+        final Path live = Path.of(scoreFileName).toAbsolutePath();
+        final String prefix = live.getFileName() + ".";
+        final List<Path> segments = new ArrayList<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(live.getParent(), prefix + "*" + SEGMENT_SUFFIX))
+        {
+            for (Path file : files)
+            {
+                segments.add(file);
+            }
+        }
+
+        // Cutoffs are ISO dates, so name order is date order
+        segments.sort(Comparator.comparing(Path::toString));
+        return segments;
+    }
+
+    /**
+     * Reads the stored summaries of compacted days.
+     *
+     * @param scoreFileName the live CSV score file
+     * @return the summaries by day; empty if nothing has been compacted
+     * @throws IOException if the summary file cannot be read
+     */
+    public static SortedMap<LocalDate, DailySummary> readSummaries(final String scoreFileName) throws IOException
+    {
+        final SortedMap<LocalDate, DailySummary> summaries = new TreeMap<>();
+        final Path path = Path.of(scoreFileName + SUMMARY_SUFFIX);
+        if (!Files.isRegularFile(path))
+        {
+            return summaries;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                final DailySummary summary = DailySummary.parseCsvLine(line);
+                if (summary != null)
+                {
+                    summaries.put(summary.getDay(), summary);
+                }
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Summarizes the full history of a score file by day: the stored summaries of compacted days
+     * combined with the sessions still in the live file.
+     *
+     * @param scoreFileName the live CSV score file
+     * @return the summaries by day
+     * @throws IOException if the files cannot be read
+     */
+    @SuppressWarnings("try")
+    public static SortedMap<LocalDate, DailySummary> dailySummaries(final String scoreFileName) throws IOException
+    {
+        recover(scoreFileName);
+        try (ScoreFileLock lock = ScoreFileLock.shared(scoreFileName))
+        {
+            final SortedMap<LocalDate, DailySummary> summaries = readSummaries(scoreFileName);
+            for (Score score : Score.readScoresFromFile(scoreFileName))
+            {
+                summaries.computeIfAbsent(score.getDateTimePlayed().toLocalDate(), DailySummary::new).add(score);
+            }
+            return summaries;
+        }
+    }
+
+    private void compactQuietly()
+    {
+        try
+        {
+            compactNow();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            failures.accept("Failed to compact " + scoreFileName + ": " + e.getMessage());
+        }
+    }
+
+    private static void writeSummaries(final Path path,
+                                       final Map<LocalDate, DailySummary> summaries) throws IOException
+    {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8))
+        {
+            for (DailySummary summary : summaries.values())
+            {
+                writer.write(summary.toCsvLine());
+                writer.write("\n");
+            }
+        }
+    }
+
+    /*
+     * Records the files a compaction is about to replace. The journal itself is swapped in
+     * atomically, so it is either absent or complete.
+     */
+    private static void writeJournal(final String scoreFileName,
+                                     final List<Path> targets) throws IOException
+    {
+        final Path journal = Path.of(scoreFileName + JOURNAL_SUFFIX);
+        try (BufferedWriter writer = Files.newBufferedWriter(tempOf(journal), StandardCharsets.UTF_8))
+        {
+            for (Path target : targets)
+            {
+                writer.write(target.toString());
+                writer.write("\n");
+            }
+        }
+        Files.move(tempOf(journal), journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /*
+     * Moves every prepared file named in the journal over its target, then drops the journal.
+     * Targets whose file was already moved are skipped, so this can be repeated after a crash.
+     * The caller must hold the exclusive lock.
+     */
+    private static boolean rollForward(final String scoreFileName) throws IOException
+    {
+        final Path journal = Path.of(scoreFileName + JOURNAL_SUFFIX);
+        if (!Files.isRegularFile(journal))
+        {
+            return false;
+        }
+
+        for (String target : Files.readAllLines(journal, StandardCharsets.UTF_8))
+        {
+            if (target.isBlank())
+            {
+                continue;
+            }
+
+            final Path path = Path.of(target);
+            if (Files.exists(tempOf(path)))
+            {
+                Files.move(tempOf(path), path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        Files.delete(journal);
+
+        // The live file changed length; refresh the high-score sidecar from the short tail
+        new HighScoreIndex(scoreFileName).rebuild();
+        return true;
+    }
+
+    private static void discard(final Path live,
+                                final Path segment) throws IOException
+    {
+        Files.deleteIfExists(tempOf(live));
+        Files.deleteIfExists(tempOf(segment));
+    }
+
+    private static Path tempOf(final Path path)
+    {
+        return Path.of(path + TEMP_SUFFIX);
+    }
+}
@@ -0,0 +1,381 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Parses the canonical score record format in a single pass over a reusable char buffer.
+ * Each record is one line: yyyy-MM-dd HH:mm:ss,games,correct1,correct2,incorrect
+ * The parser reads fixed-size chunks from a Reader and scans them in place. It never calls
+ * String.split, String.trim or LocalDateTime.parse and creates no per-line String, so the only
+ * allocations per record are the Score and its LocalDateTime.
+ * parseFields and toEpochSecond expose the same rules without creating a Score at all, for bulk
+ * readers that store records in primitive columns (see ScoreBulkReader).
+ * Validation:
+ * - Blank lines and lines without exactly five fields are skipped silently.
+ * - Lines with five fields that do not parse are reported as "Invalid data" and skipped.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class ScoreCsvParser
+{
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FIELD_COUNT = 5;
+    private static final int DATE_TIME_LENGTH = 19;
+    private static final char FIELD_SEPARATOR = ',';
+    private static final char LINE_FEED = '\n';
+    private static final char WHITESPACE_LIMIT = ' ';
+    private static final int INVALID = -1;
+    private static final int MAX_HOUR = 23;
+    private static final int MAX_MINUTE = 59;
+    private static final int MAX_SECOND = 59;
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final int SECONDS_PER_HOUR = 3_600;
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    // Results of parseFields
+    static final int PARSED = 0;
+    static final int BLANK = 1;
+    static final int INVALID_RECORD = 2;
+
+    // Indexes into the fields array filled by parseFields
+    static final int FIELD_YEAR = 0;
+    static final int FIELD_MONTH = 1;
+    static final int FIELD_DAY = 2;
+    static final int FIELD_HOUR = 3;
+    static final int FIELD_MINUTE = 4;
+    static final int FIELD_SECOND = 5;
+    static final int FIELD_GAMES = 6;
+    static final int FIELD_CORRECT1 = 7;
+    static final int FIELD_CORRECT2 = 8;
+    static final int FIELD_INCORRECT = 9;
+    static final int FIELDS = 10;
+
+    /**
+     * Returned by toEpochSecond for fields that are not a real date and time.
+     */
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    // Offsets of the fixed-width parts of "yyyy-MM-dd HH:mm:ss"
+    private static final int YEAR = 0;
+    private static final int MONTH = 5;
+    private static final int DAY = 8;
+    private static final int HOUR = 11;
+    private static final int MINUTE = 14;
+    private static final int SECOND = 17;
+    private static final String DATE_TIME_SEPARATORS = "--  ::";
+    private static final int[] SEPARATOR_OFFSETS = {4, 7, 10, 10, 13, 16};
+
+    private ScoreCsvParser()
+    {
+    }
+
+    /**
+     * Parses every record of a stream, passing each valid Score to the action in file order.
+     *
+     * @param reader the records to parse; it is read to the end but not closed
+     * @param action receives each parsed Score
+     * @throws IOException if reading fails
+     */
+    public static void parse(final Reader reader,
+                             final Consumer<Score> action) throws IOException
+    {
+        parse(reader, action, true);
+    }
+
+    /**
+     * Parses every record of a stream, passing each valid Score to the action in file order.
+     *
+     * @param reader the records to parse; it is read to the end but not closed
+     * @param action receives each parsed Score
+     * @param report whether to print records that have five fields but do not parse
+     * @throws IOException if reading fails
+     */
+    public static void parse(final Reader reader,
+                             final Consumer<Score> action,
+                             final boolean report) throws IOException
+    {
+        char[] buffer = new char[BUFFER_SIZE];
+        final int[] fields = new int[FIELDS];
+        int length = 0;
+        boolean endOfInput = false;
+
+        while (!endOfInput || length > 0)
+        {
+            if (!endOfInput)
+            {
+                if (length == buffer.length)
+                {
+                    // A single line longer than the buffer; grow to fit it
+                    final char[] larger = new char[buffer.length * 2];
+                    System.arraycopy(buffer, 0, larger, 0, length);
+                    buffer = larger;
+                }
+
+                final int read = reader.read(buffer, length, buffer.length - length);
+                if (read < 0)
+                {
+                    endOfInput = true;
+                }
+                else
+                {
+                    length += read;
+                }
+            }
+
+            int lineStart = 0;
+            for (int i = 0; i < length; i++)
+            {
+                if (buffer[i] == LINE_FEED)
+                {
+                    emit(buffer, lineStart, i, fields, report, action);
+                    lineStart = i + 1;
+                }
+            }
+
+            if (endOfInput && lineStart < length)
+            {
+                // Last line without a terminator
+                emit(buffer, lineStart, length, fields, report, action);
+                lineStart = length;
+            }
+
+            // Keep the unfinished line at the front of the buffer for the next chunk
+            System.arraycopy(buffer, lineStart, buffer, 0, length - lineStart);
+            length -= lineStart;
+        }
+    }
+
+    /**
+     * Parses a single record.
+     *
+     * @param line   the buffer holding the record
+     * @param from   the index of the first character of the record
+     * @param to     the index just past the last character of the record
+     * @param report whether to print records that have five fields but do not parse
+     * @return the parsed Score, or null if the record is blank or invalid
+     */
+    public static Score parseLine(final char[] line,
+                                  final int from,
+                                  final int to,
+                                  final boolean report)
+    {
+        return parseLine(line, from, to, report, new int[FIELDS]);
+    }
+
+    /**
+     * Parses a single record into its numeric fields without creating any object.
+     * On success the fields array holds, at the FIELD_ indexes, the date and time parts and the
+     * four counts. The date itself is not validated; see toEpochSecond.
+     *
+     * @param line   the buffer holding the record
+     * @param from   the index of the first character of the record
+     * @param to     the index just past the last character of the record
+     * @param fields receives the parsed fields; must have at least FIELDS elements
+     * @return PARSED, BLANK for blank lines or lines without five fields, or INVALID_RECORD
+     */
+    static int parseFields(final char[] line,
+                           final int from,
+                           final int to,
+                           final int[] fields)
+    {
+        int start = from;
+        int end = to;
+
+        while (start < end && line[start] <= WHITESPACE_LIMIT)
+        {
+            start++;
+        }
+        while (end > start && line[end - 1] <= WHITESPACE_LIMIT)
+        {
+            end--;
+        }
+
+        if (start == end || countFields(line, start, end) != FIELD_COUNT)
+        {
+            return BLANK;
+        }
+
+        return parseTrimmed(line, start, end, fields) ? PARSED : INVALID_RECORD;
+    }
+
+    /**
+     * Converts parsed date and time fields to epoch seconds, reading them as UTC local time.
+     *
+     * @param fields fields filled by parseFields
+     * @return the epoch second, or NO_TIME if the fields are not a real date and time
+     */
+    static long toEpochSecond(final int[] fields)
+    {
+        final int hour = fields[FIELD_HOUR];
+        final int minute = fields[FIELD_MINUTE];
+        final int second = fields[FIELD_SECOND];
+        if (hour > MAX_HOUR || minute > MAX_MINUTE || second > MAX_SECOND)
+        {
+            return NO_TIME;
+        }
+
+        try
+        {
+            final long day = LocalDate.of(fields[FIELD_YEAR], fields[FIELD_MONTH], fields[FIELD_DAY]).toEpochDay();
+            return day * SECONDS_PER_DAY + hour * SECONDS_PER_HOUR + minute * SECONDS_PER_MINUTE + second;
+        }
+        catch (DateTimeException e)
+        {
+            return NO_TIME;
+        }
+    }
+
+    private static Score parseLine(final char[] line,
+                                   final int from,
+                                   final int to,
+                                   final boolean report,
+                                   final int[] fields)
+    {
+        final int status = parseFields(line, from, to, fields);
+        if (status == BLANK)
+        {
+            return null;
+        }
+
+        final Score score = status == PARSED ? toScore(fields) : null;
+        if (score == null && report)
+        {
+            System.out.println("Invalid data: " + new String(line, from, to - from).trim());
+        }
+        return score;
+    }
+
+    private static void emit(final char[] buffer,
+                             final int from,
+                             final int to,
+                             final int[] fields,
+                             final boolean report,
+                             final Consumer<Score> action)
+    {
+        final Score score = parseLine(buffer, from, to, report, fields);
+        if (score != null)
+        {
+            action.accept(score);
+        }
+    }
+
+    private static int countFields(final char[] line,
+                                   final int from,
+                                   final int to)
+    {
+        int fields = 1;
+        for (int i = from; i < to; i++)
+        {
+            if (line[i] == FIELD_SEPARATOR)
+            {
+                fields++;
+            }
+        }
+        return fields;
+    }
+
+    private static boolean parseTrimmed(final char[] line,
+                                        final int from,
+                                        final int to,
+                                        final int[] fields)
+    {
+        if (from + DATE_TIME_LENGTH >= to || line[from + DATE_TIME_LENGTH] != FIELD_SEPARATOR)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < SEPARATOR_OFFSETS.length; i++)
+        {
+            if (line[from + SEPARATOR_OFFSETS[i]] != DATE_TIME_SEPARATORS.charAt(i))
+            {
+                return false;
+            }
+        }
+
+        fields[FIELD_YEAR] = parseDigits(line, from + YEAR, from + YEAR + 4);
+        fields[FIELD_MONTH] = parseDigits(line, from + MONTH, from + MONTH + 2);
+        fields[FIELD_DAY] = parseDigits(line, from + DAY, from + DAY + 2);
+        fields[FIELD_HOUR] = parseDigits(line, from + HOUR, from + HOUR + 2);
+        fields[FIELD_MINUTE] = parseDigits(line, from + MINUTE, from + MINUTE + 2);
+        fields[FIELD_SECOND] = parseDigits(line, from + SECOND, from + SECOND + 2);
+
+        final int gamesStart = from + DATE_TIME_LENGTH + 1;
+        final int gamesEnd = fieldEnd(line, gamesStart, to);
+        final int correct1End = fieldEnd(line, gamesEnd + 1, to);
+        final int correct2End = fieldEnd(line, correct1End + 1, to);
+
+        fields[FIELD_GAMES] = parseDigits(line, gamesStart, gamesEnd);
+        fields[FIELD_CORRECT1] = parseDigits(line, gamesEnd + 1, correct1End);
+        fields[FIELD_CORRECT2] = parseDigits(line, correct1End + 1, correct2End);
+        fields[FIELD_INCORRECT] = parseDigits(line, correct2End + 1, to);
+
+        for (int i = 0; i < FIELDS; i++)
+        {
+            if (fields[i] == INVALID)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Score toScore(final int[] fields)
+    {
+        try
+        {
+            return new Score(LocalDateTime.of(fields[FIELD_YEAR], fields[FIELD_MONTH], fields[FIELD_DAY],
+                    fields[FIELD_HOUR], fields[FIELD_MINUTE], fields[FIELD_SECOND]),
+                    fields[FIELD_GAMES], fields[FIELD_CORRECT1], fields[FIELD_CORRECT2], fields[FIELD_INCORRECT]);
+        }
+        catch (DateTimeException e)
+        {
+            return null;
+        }
+    }
+
+    private static int fieldEnd(final char[] line,
+                                final int from,
+                                final int to)
+    {
+        int end = from;
+        while (end < to && line[end] != FIELD_SEPARATOR)
+        {
+            end++;
+        }
+        return end;
+    }
+
+    /*
+     * Parses a non-empty run of decimal digits; returns INVALID for anything else or on overflow.
+     */
+    private static int parseDigits(final char[] line,
+                                   final int from,
+                                   final int to)
+    {
+        if (from >= to)
+        {
+            return INVALID;
+        }
+
+        long value = 0;
+        for (int i = from; i < to; i++)
+        {
+            final char c = line[i];
+            if (c < '0' || c > '9')
+            {
+                return INVALID;
+            }
+
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE)
+            {
+                return INVALID;
+            }
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,174 @@
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Guards a score file against concurrent access from other threads and other processes.
+ * Appends and read-modify-write sequences take the lock exclusively; plain reads take it shared,
+ * so any number of readers can scan the file together while writers wait their turn.
+ * Locking works in two layers:
+ * - In-process: each score file has its own read-write lock, so threads of one JVM never touch the
+ *   operating system lock while another thread of the same JVM already holds it.
+ * - Cross-process: the first holder in the JVM takes a FileChannel lock on a `.lock` sidecar next
+ *   to the score file and the last one to leave releases it. Concurrent in-process readers share
+ *   that single OS lock.
+ * The sidecar is locked instead of the score file itself because closing any other channel on a
+ * locked file can silently drop the lock on some platforms.
+ * Locks are reentrant: a thread holding the exclusive lock may take it again, or take the shared
+ * lock, without deadlocking (for example, rebuilding the high-score index inside an append).
+ * A thread holding only the shared lock must release it before asking for the exclusive one.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class ScoreFileLock implements AutoCloseable
+{
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final Map<Path, FileEntry> FILES = new ConcurrentHashMap<>();
+
+    private final FileEntry entry;
+    private final Lock lock;
+    private final boolean nested;
+    private boolean released;
+
+    private ScoreFileLock(final FileEntry entry,
+                          final boolean shared) throws IOException
+    {
+        this.entry = entry;
+        this.nested = entry.readWriteLock.isWriteLockedByCurrentThread();
+        this.lock = shared ? entry.readWriteLock.readLock() : entry.readWriteLock.writeLock();
+
+        lock.lock();
+        if (!nested)
+        {
+            try
+            {
+                entry.acquire(shared);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                lock.unlock();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Locks a score file for appending or for a read-modify-write sequence.
+     * Blocks until no other thread or process holds the file.
+     *
+     * @param fileName the score file to lock
+     * @return the held lock; close it to release
+     * @throws IOException if the lock file cannot be opened or locked
+     */
+    public static ScoreFileLock exclusive(final String fileName) throws IOException
+    {
+        return new ScoreFileLock(entryFor(fileName), false);
+    }
+
+    /**
+     * Locks a score file for reading. Blocks only while a writer holds the file.
+     *
+     * @param fileName the score file to lock
+     * @return the held lock; close it to release
+     * @throws IOException if the lock file cannot be opened or locked
+     */
+    public static ScoreFileLock shared(final String fileName) throws IOException
+    {
+        return new ScoreFileLock(entryFor(fileName), true);
+    }
+
+    /**
+     * Releases the lock. Calling this more than once has no effect.
+     *
+     * @throws IOException if the operating system lock cannot be released
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (released)
+        {
+            return;
+        }
+
+        released = true;
+        try
+        {
+            if (!nested)
+            {
+                entry.release();
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private static FileEntry entryFor(final String fileName)
+    {
+        final Path path = Path.of(fileName).toAbsolutePath().normalize();
+        return FILES.computeIfAbsent(path, key -> new FileEntry(Path.of(key + LOCK_SUFFIX)));
+    }
+
+    /**
+     * The in-process lock of one score file and the OS lock shared by everyone holding it.
+     */
+    private static final class FileEntry
+    {
+        private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+        private final Path lockPath;
+        private FileChannel channel;
+        private FileLock fileLock;
+        private int holders;
+
+        FileEntry(final Path lockPath)
+        {
+            this.lockPath = lockPath;
+        }
+
+        synchronized void acquire(final boolean shared) throws IOException
+        {
+            if (holders == 0)
+            {
+                final FileChannel opened = FileChannel.open(lockPath,
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                try
+                {
+                    fileLock = opened.lock(0, Long.MAX_VALUE, shared);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    opened.close();
+                    throw e;
+                }
+                channel = opened;
+            }
+            holders++;
+        }
+
+        synchronized void release() throws IOException
+        {
+            holders--;
+            if (holders == 0)
+            {
+                try
+                {
+                    fileLock.release();
+                }
+                finally
+                {
+                    channel.close();
+                    fileLock = null;
+                    channel = null;
+                }
+            }
+        }
+    }
+}
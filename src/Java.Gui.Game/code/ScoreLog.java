@@ -0,0 +1,541 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * An append-only log of Score records stored as fixed-width binary entries.
+ * It is an alternative to the CSV score file for long histories: because every record has the
+ * same size, the log can be indexed, counted and scanned backward without parsing any text.
+ * File layout (big-endian):
+ * - Header: magic and version.
+ * - Records: epoch seconds of dateTimePlayed (as UTC local time), then games, correct1, correct2
+ *   and incorrect as four ints.
+ * Behavior:
+ * - size is computed from the file length, so counting is O(1).
+ * - get reads one record by number with a single positional read.
+ * - last reads the newest records in blocks, walking backward from the end of the file.
+ * - A partial record left by an interrupted append is ignored and overwritten by the next append.
+ * - importCsv converts an existing CSV history (see ScoreCsvParser) into the log. How many records
+ *   of each CSV file have been imported is kept in `<log>.imports`, so running the same import
+ *   again, or after the CSV file has grown, appends only what is new. Progress is saved after each
+ *   block of records is appended and forced, so an interrupted import repeats at most the block it
+ *   was writing.
+ * - ScoreTimeIndex adds time-range queries on top of the log.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public class ScoreLog implements Closeable
+{
+    /**
+     * Size in bytes of one record.
+     */
+    public static final int RECORD_SIZE = 8 + 4 * 4;
+
+    static final int HEADER_SIZE = 4 + 4;
+
+    /**
+     * The suffix added to the log file name to name its sidecar of import progress.
+     */
+    public static final String IMPORTS_SUFFIX = ".imports";
+
+    private static final int MAGIC = 0x53434f52; // "SCOR"
+    private static final int VERSION = 1;
+    private static final int BLOCK_RECORDS = 1024;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final char FIELD_SEPARATOR = ',';
+    private static final int MARK_FIELDS = 7;
+    private static final int MARK_RECORD_FIELDS = 5;
+
+    private final FileChannel channel;
+    private final Path importsPath;
+    private long count;
+
+    /**
+     * Opens a score log, creating it with an empty header if it does not exist.
+     *
+     * @param path the log file
+     * @throws IOException if the file cannot be opened or is not a score log
+     */
+    public ScoreLog(final Path path) throws IOException
+    {
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.importsPath = Path.of(path + IMPORTS_SUFFIX);
+
+        try
+        {
+            if (channel.size() == 0)
+            {
+                writeHeader();
+                // Progress left by an earlier log of the same name would skip records this one lacks
+                Files.deleteIfExists(importsPath);
+            }
+            else
+            {
+                checkHeader(path);
+            }
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+
+        this.count = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    /**
+     * Converter entry point: imports a CSV score file into a binary score log.
+     *
+     * @param args the CSV score file and the log file
+     * @throws IOException if either file cannot be read or written
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            System.out.println("Usage: ScoreLog <csv score file> <score log>");
+            return;
+        }
+
+        try (ScoreLog log = new ScoreLog(Path.of(args[1])))
+        {
+            final long imported = log.importCsv(args[0]);
+            System.out.println("Imported " + imported + " scores; the log now holds " + log.size() + ".");
+        }
+    }
+
+    /**
+     * Returns the number of complete records in the log.
+     *
+     * @return the record count
+     */
+    public synchronized long size()
+    {
+        return count;
+    }
+
+    /**
+     * Appends a single score to the end of the log.
+     *
+     * @param score the score to append
+     * @throws IOException if the record cannot be written
+     */
+    public synchronized void append(final Score score) throws IOException
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        encode(score, buffer);
+        buffer.flip();
+        writeFully(buffer, offsetOf(count));
+        count++;
+    }
+
+    /**
+     * Appends several scores with a single write.
+     *
+     * @param scores the scores to append, in order
+     * @throws IOException if the records cannot be written
+     */
+    public synchronized void appendAll(final List<Score> scores) throws IOException
+    {
+        if (scores.isEmpty())
+        {
+            return;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(scores.size() * RECORD_SIZE);
+        for (Score score : scores)
+        {
+            encode(score, buffer);
+        }
+        buffer.flip();
+        writeFully(buffer, offsetOf(count));
+        count += scores.size();
+    }
+
+    /**
+     * Reads one record by its position in the log.
+     *
+     * @param index the record number, starting at 0 for the oldest record
+     * @return the score stored at that position
+     * @throws IOException if the record cannot be read
+     */
+    public synchronized Score get(final long index) throws IOException
+    {
+        if (index < 0 || index >= count)
+        {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + count);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        readFully(buffer, offsetOf(index));
+        buffer.flip();
+        return decode(buffer);
+    }
+
+    /**
+     * Reads the most recent records, newest first.
+     *
+     * @param n the maximum number of records to return
+     * @return up to n scores, starting with the last one appended
+     * @throws IOException if the log cannot be read
+     */
+    public synchronized List<Score> last(final int n) throws IOException
+    {
+        final int wanted = (int) Math.min(Math.max(n, 0), count);
+        final List<Score> scores = new ArrayList<>(wanted);
+        final ByteBuffer buffer = ByteBuffer.allocate(Math.min(wanted, BLOCK_RECORDS) * RECORD_SIZE);
+
+        long end = count;
+        while (scores.size() < wanted)
+        {
+            final int records = Math.min(BLOCK_RECORDS, wanted - scores.size());
+            final long start = end - records;
+
+            buffer.clear().limit(records * RECORD_SIZE);
+            readFully(buffer, offsetOf(start));
+
+            // Walk the block from its last record to its first
+            for (int i = records - 1; i >= 0; i--)
+            {
+                buffer.position(i * RECORD_SIZE);
+                scores.add(decode(buffer));
+            }
+            end = start;
+        }
+
+        return scores;
+    }
+
+    /**
+     * Passes every record to the action, oldest first, reading the log in blocks.
+     *
+     * @param action receives each score
+     * @throws IOException if the log cannot be read
+     */
+    public synchronized void forEach(final Consumer<Score> action) throws IOException
+    {
+        forEach(0, count, action);
+    }
+
+    /**
+     * Passes a range of records to the action, oldest first, reading the log in blocks.
+     *
+     * @param from   the first record number to read
+     * @param to     the record number just past the last one to read
+     * @param action receives each score
+     * @throws IOException if the log cannot be read
+     */
+    public synchronized void forEach(final long from,
+                                     final long to,
+                                     final Consumer<Score> action) throws IOException
+    {
+        if (from < 0 || to > count || from > to)
+        {
+            throw new IndexOutOfBoundsException("Records " + from + " to " + to + " of " + count);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BLOCK_RECORDS, to - from) * RECORD_SIZE);
+        long next = from;
+        while (next < to)
+        {
+            final int records = (int) Math.min(BLOCK_RECORDS, to - next);
+            buffer.clear().limit(records * RECORD_SIZE);
+            readFully(buffer, offsetOf(next));
+            buffer.flip();
+
+            for (int i = 0; i < records; i++)
+            {
+                action.accept(decode(buffer));
+            }
+            next += records;
+        }
+    }
+
+    /**
+     * Appends the valid records of a CSV score file that earlier imports have not consumed, in file order.
+     * Progress is kept per CSV file in the imports sidecar, so importing the same file again, or
+     * after it has grown, appends only the records added since, using constant memory.
+     *
+     * @param csvFileName the CSV score file to import
+     * @return the number of records imported
+     * @throws IOException if the CSV file cannot be read, no longer starts with the records already
+     *                     imported from it, or the log cannot be written
+     */
+    public synchronized long importCsv(final String csvFileName) throws IOException
+    {
+        final Map<String, ImportMark> marks = readImports();
+        final String source = Path.of(csvFileName).toAbsolutePath().normalize().toString();
+        final ImportMark mark = marks.computeIfAbsent(source, ImportMark::new);
+        final long alreadyConsumed = mark.consumed;
+        final String alreadyLast = mark.lastRecord;
+
+        final long before = count;
+        final List<Score> batch = new ArrayList<>(BLOCK_RECORDS);
+        final long[] seen = new long[1];
+        final IOException[] failure = new IOException[1];
+
+        try (Reader reader = new FileReader(csvFileName))
+        {
+            ScoreCsvParser.parse(reader, score ->
+            {
+                if (failure[0] != null)
+                {
+                    return;
+                }
+
+                seen[0]++;
+                if (seen[0] <= alreadyConsumed)
+                {
+                    // Already in the log; the last one of them must still be the record imported then
+                    if (seen[0] == alreadyConsumed && !score.toCsvLine().equals(alreadyLast))
+                    {
+                        failure[0] = changedSince(csvFileName);
+                    }
+                    return;
+                }
+
+                batch.add(score);
+                if (batch.size() == BLOCK_RECORDS)
+                {
+                    try
+                    {
+                        commitImport(batch, seen[0], mark, marks);
+                    }
+                    catch (IOException e)
+                    {
+                        failure[0] = e;
+                    }
+                }
+            });
+        }
+
+        if (failure[0] != null)
+        {
+            throw failure[0];
+        }
+        if (seen[0] < alreadyConsumed)
+        {
+            throw changedSince(csvFileName);
+        }
+        commitImport(batch, seen[0], mark, marks);
+
+        return count - before;
+    }
+
+    /**
+     * Forces every appended record to the storage device.
+     *
+     * @throws IOException if the log cannot be synced
+     */
+    public void force() throws IOException
+    {
+        channel.force(false);
+    }
+
+    /**
+     * Closes the underlying file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+
+    /**
+     * Writes one score as a fixed-width record at the buffer's position.
+     *
+     * @param score  the score to encode
+     * @param buffer the destination, with at least RECORD_SIZE bytes remaining
+     */
+    static void encode(final Score score,
+                       final ByteBuffer buffer)
+    {
+        buffer.putLong(score.getDateTimePlayed().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(score.getNumGamesPlayed());
+        buffer.putInt(score.getNumCorrectFirstAttempt());
+        buffer.putInt(score.getNumCorrectSecondAttempt());
+        buffer.putInt(score.getNumIncorrectTwoAttempts());
+    }
+
+    /**
+     * Reads one fixed-width record from the buffer's position.
+     *
+     * @param buffer the source, with at least RECORD_SIZE bytes remaining
+     * @return the decoded score
+     */
+    static Score decode(final ByteBuffer buffer)
+    {
+        final long epochSecond = buffer.getLong();
+        return new Score(LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC),
+                buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+    }
+
+    /*
+     * Appends an import batch, forces it, and only then records how far into the CSV file the log now reaches.
+     */
+    private void commitImport(final List<Score> batch,
+                              final long consumed,
+                              final ImportMark mark,
+                              final Map<String, ImportMark> marks) throws IOException
+    {
+        if (batch.isEmpty())
+        {
+            return;
+        }
+
+        appendAll(batch);
+        force();
+        mark.consumed = consumed;
+        mark.lastRecord = batch.get(batch.size() - 1).toCsvLine();
+        writeImports(marks);
+        batch.clear();
+    }
+
+    private static IOException changedSince(final String csvFileName)
+    {
+        return new IOException(csvFileName + " no longer starts with the records already imported from it; "
+                + "import it into a new log.");
+    }
+
+    /*
+     * Each line is: records consumed, the last consumed record (five fields), the CSV file path.
+     * The path comes last because it may itself contain commas.
+     */
+    private Map<String, ImportMark> readImports() throws IOException
+    {
+        final Map<String, ImportMark> marks = new LinkedHashMap<>();
+        if (!Files.isRegularFile(importsPath))
+        {
+            return marks;
+        }
+
+        for (String line : Files.readAllLines(importsPath, StandardCharsets.UTF_8))
+        {
+            final String[] fields = line.split(String.valueOf(FIELD_SEPARATOR), MARK_FIELDS);
+            if (fields.length != MARK_FIELDS)
+            {
+                continue;
+            }
+
+            try
+            {
+                final ImportMark mark = new ImportMark(fields[MARK_FIELDS - 1]);
+                mark.consumed = Long.parseLong(fields[0]);
+                mark.lastRecord = String.join(String.valueOf(FIELD_SEPARATOR),
+                        Arrays.copyOfRange(fields, 1, 1 + MARK_RECORD_FIELDS));
+                marks.put(mark.source, mark);
+            }
+            catch (NumberFormatException e)
+            {
+                throw new IOException("Malformed import progress in " + importsPath + ": " + line, e);
+            }
+        }
+        return marks;
+    }
+
+    private void writeImports(final Map<String, ImportMark> marks) throws IOException
+    {
+        final Path temp = Path.of(importsPath + TEMP_SUFFIX);
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8))
+        {
+            for (ImportMark mark : marks.values())
+            {
+                if (mark.consumed > 0)
+                {
+                    writer.write(mark.consumed + "," + mark.lastRecord + "," + mark.source);
+                    writer.write("\n");
+                }
+            }
+        }
+        Files.move(temp, importsPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long offsetOf(final long index)
+    {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private void writeHeader() throws IOException
+    {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        writeFully(header, 0);
+    }
+
+    private void checkHeader(final Path path) throws IOException
+    {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (channel.size() < HEADER_SIZE)
+        {
+            throw new IOException("Not a score log: " + path);
+        }
+
+        readFully(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION)
+        {
+            throw new IOException("Not a score log: " + path);
+        }
+    }
+
+    private void writeFully(final ByteBuffer buffer,
+                            final long position) throws IOException
+    {
+        long at = position;
+        while (buffer.hasRemaining())
+        {
+            at += channel.write(buffer, at);
+        }
+    }
+
+    private void readFully(final ByteBuffer buffer,
+                           final long position) throws IOException
+    {
+        long at = position;
+        while (buffer.hasRemaining())
+        {
+            final int read = channel.read(buffer, at);
+            if (read < 0)
+            {
+                throw new IOException("Unexpected end of score log at byte " + at);
+            }
+            at += read;
+        }
+    }
+
+    /**
+     * How far importCsv has read into one CSV file.
+     */
+    private static final class ImportMark
+    {
+        private final String source;
+        private long consumed;
+        private String lastRecord;
+
+        ImportMark(final String source)
+        {
+            this.source = source;
+        }
+    }
+}
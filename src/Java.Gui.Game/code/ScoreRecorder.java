@@ -0,0 +1,194 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves finished sessions in the background and answers high-score questions from memory.
+ * The best score so far is loaded from the HighScoreIndex once, ideally while the player is still
+ * playing (see warmUp), and kept in memory afterwards. When a session ends, the caller compares it
+ * with the cached best right away and hands it to record, which queues the slow part on a
+ * background thread:
+ * - Under the score file's exclusive lock: append to the score file and update the index.
+ * - Append the readable report.
+ * Problems found by other background work, such as score compaction, can be written to the same
+ * report through reportProblem instead of the console, where they would land in the middle of a question.
+ * Behavior:
+ * - record updates the cached best immediately, so the next session in this process sees it.
+ * - Saves run one at a time, in the order sessions ended.
+ * - The background thread is not a daemon, so pending saves finish before the JVM exits; it stops
+ *   on its own once idle.
+ * - The cached best reflects this process only; the save itself still compares against the
+ *   index under the lock, so scores from other processes are never overwritten.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class ScoreRecorder
+{
+    private static final long IDLE_SECONDS = 1;
+
+    private final String scoreFileName;
+    private final String reportFileName;
+    private final ExecutorService saver;
+    private CompletableFuture<Score> best;
+
+    /**
+     * Creates a recorder for a score file and its readable report. Nothing is read yet.
+     *
+     * @param scoreFileName  the CSV score file
+     * @param reportFileName the readable report file
+     */
+    public ScoreRecorder(final String scoreFileName,
+                         final String reportFileName)
+    {
+        this.scoreFileName = scoreFileName;
+        this.reportFileName = reportFileName;
+
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, IDLE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), task -> new Thread(task, "score-recorder"));
+        executor.allowCoreThreadTimeOut(true);
+        this.saver = executor;
+    }
+
+    /**
+     * Starts loading the best score in the background if it has not been loaded yet.
+     * Call this when a session starts so the result is ready by the time it ends.
+     */
+    public synchronized void warmUp()
+    {
+        if (best == null)
+        {
+            best = CompletableFuture.supplyAsync(this::loadBest, saver);
+        }
+    }
+
+    /**
+     * Returns the best score so far, waiting for the warm-up only if it has not finished.
+     *
+     * @return the best score, or null if none has been recorded
+     * @throws IOException if the best score could not be loaded
+     */
+    public Score getBest() throws IOException
+    {
+        final CompletableFuture<Score> loading;
+        synchronized (this)
+        {
+            warmUp();
+            loading = best;
+        }
+
+        try
+        {
+            return loading.join();
+        }
+        catch (CompletionException e)
+        {
+            synchronized (this)
+            {
+                // Let the next call try loading again
+                if (best == loading)
+                {
+                    best = null;
+                }
+            }
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Makes a finished session the cached best if it beats it, and saves it in the background.
+     *
+     * @param score the session that just ended
+     * @return a future that completes when the session is saved, or exceptionally if the save fails
+     * @throws IOException if the best score could not be loaded
+     */
+    public CompletableFuture<Void> record(final Score score) throws IOException
+    {
+        final Score previous = getBest();
+        synchronized (this)
+        {
+            if (previous == null || score.getAveragePerGame() > previous.getAveragePerGame())
+            {
+                best = CompletableFuture.completedFuture(score);
+            }
+        }
+
+        return CompletableFuture.runAsync(() -> save(score), saver);
+    }
+
+    /**
+     * Appends a problem found by background work to the readable report, on the background thread.
+     *
+     * @param message what went wrong
+     * @return a future that completes when the message is written, or exceptionally if it is not
+     */
+    public CompletableFuture<Void> reportProblem(final String message)
+    {
+        return CompletableFuture.runAsync(() -> appendProblem(message), saver);
+    }
+
+    private Score loadBest()
+    {
+        try
+        {
+            return new HighScoreIndex(scoreFileName).getBest();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @SuppressWarnings("try")
+    private void save(final Score score)
+    {
+        try
+        {
+            // The index needs the previous best read before the append, all under one lock
+            try (ScoreFileLock lock = ScoreFileLock.exclusive(scoreFileName))
+            {
+                final HighScoreIndex index = new HighScoreIndex(scoreFileName);
+                index.getBest();
+                Score.appendScoreToFile(score, scoreFileName);
+                index.record(score);
+            }
+            Score.appendFormattedScoreToFile(score, reportFileName);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @SuppressWarnings("try")
+    private void appendProblem(final String message)
+    {
+        try (ScoreFileLock lock = ScoreFileLock.exclusive(reportFileName);
+             BufferedWriter writer = new BufferedWriter(new FileWriter(reportFileName, true)))
+        {
+            writer.write("Problem at " + LocalDateTime.now().withNano(0) + ": " + message);
+            writer.write("\n");
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static IOException unwrap(final CompletionException e)
+    {
+        if (e.getCause() instanceof UncheckedIOException)
+        {
+            return ((UncheckedIOException) e.getCause()).getCause();
+        }
+        return new IOException(e.getCause());
+    }
+}
@@ -0,0 +1,643 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Holds score history as primitive columns instead of one Score object per session.
+ * Row i of the table is the session made of timestamps[i], games[i], correct1[i], correct2[i]
+ * and incorrect[i]. Timestamps are the epoch seconds of dateTimePlayed read as UTC local time,
+ * the same convention as ScoreLog. Score objects are only created at the edges, by fromScores,
+ * get, stream and toScores.
+ * Aggregates (sum, mean, totalScore, maxAveragePerGame, groupBy) are plain loops over the
+ * primitive columns, which the JIT can vectorize, so analytics over millions of sessions create
+ * almost no garbage.
+ * The column arrays are exactly size elements long and are shared, not copied; callers must not
+ * modify them.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class ScoreTable
+{
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int EPOCH_DAY_SINCE_MONDAY = 3;
+    private static final int NO_ROW = -1;
+
+    /**
+     * A count column that can be summed or averaged.
+     */
+    public enum Column
+    {
+        GAMES,
+        CORRECT_FIRST_ATTEMPT,
+        CORRECT_SECOND_ATTEMPT,
+        INCORRECT_TWO_ATTEMPTS
+    }
+
+    /**
+     * The length of the periods sessions are grouped by.
+     */
+    public enum Period
+    {
+        DAY,
+        WEEK
+    }
+
+    private final long[] timestamps;
+    private final int[] games;
+    private final int[] correct1;
+    private final int[] correct2;
+    private final int[] incorrect;
+
+    private ScoreTable(final long[] timestamps,
+                       final int[] games,
+                       final int[] correct1,
+                       final int[] correct2,
+                       final int[] incorrect)
+    {
+        this.timestamps = timestamps;
+        this.games = games;
+        this.correct1 = correct1;
+        this.correct2 = correct2;
+        this.incorrect = incorrect;
+    }
+
+    /**
+     * Converts Score objects into a table, keeping their order.
+     *
+     * @param scores the sessions to store
+     * @return a table with one row per session
+     */
+    public static ScoreTable fromScores(final Collection<Score> scores)
+    {
+        final Builder builder = new Builder(scores.size());
+        for (Score score : scores)
+        {
+            builder.add(score);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Joins several tables into one, keeping their rows in the order given.
+     *
+     * @param parts the tables to join
+     * @return a table holding every row of every part
+     */
+    public static ScoreTable concat(final ScoreTable... parts)
+    {
+        int total = 0;
+        for (ScoreTable part : parts)
+        {
+            total += part.size();
+        }
+
+        final Builder builder = new Builder(total);
+        for (ScoreTable part : parts)
+        {
+            final int size = part.size();
+            System.arraycopy(part.timestamps, 0, builder.timestamps, builder.size, size);
+            System.arraycopy(part.games, 0, builder.games, builder.size, size);
+            System.arraycopy(part.correct1, 0, builder.correct1, builder.size, size);
+            System.arraycopy(part.correct2, 0, builder.correct2, builder.size, size);
+            System.arraycopy(part.incorrect, 0, builder.incorrect, builder.size, size);
+            builder.size += size;
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of sessions in the table.
+     *
+     * @return the row count
+     */
+    public int size()
+    {
+        return timestamps.length;
+    }
+
+    /**
+     * Creates the Score object for one row.
+     *
+     * @param row the row number
+     * @return the session stored in that row
+     */
+    public Score get(final int row)
+    {
+        return new Score(LocalDateTime.ofEpochSecond(timestamps[row], 0, ZoneOffset.UTC),
+                games[row], correct1[row], correct2[row], incorrect[row]);
+    }
+
+    /**
+     * Streams the rows as Score objects, creating each one only when it is consumed.
+     * The stream can be made parallel.
+     *
+     * @return the sessions in row order
+     */
+    public Stream<Score> stream()
+    {
+        return IntStream.range(0, size()).mapToObj(this::get);
+    }
+
+    /**
+     * Creates a Score object for every row.
+     *
+     * @return the sessions in row order
+     */
+    public List<Score> toScores()
+    {
+        final List<Score> scores = new ArrayList<>(size());
+        for (int row = 0; row < size(); row++)
+        {
+            scores.add(get(row));
+        }
+        return scores;
+    }
+
+    /**
+     * Adds up a count column over every session.
+     *
+     * @param column the column to add up
+     * @return the total
+     */
+    public long sum(final Column column)
+    {
+        final int[] values = columnOf(column);
+        long total = 0;
+        for (int i = 0; i < values.length; i++)
+        {
+            total += values[i];
+        }
+        return total;
+    }
+
+    /**
+     * Averages a count column over every session.
+     *
+     * @param column the column to average
+     * @return the mean per session, or 0 if the table is empty
+     */
+    public double mean(final Column column)
+    {
+        return size() == 0 ? 0.0 : (double) sum(column) / size();
+    }
+
+    /**
+     * Adds up the points of every session (see Score.getScore).
+     *
+     * @return the total points
+     */
+    public long totalScore()
+    {
+        long total = 0;
+        for (int i = 0; i < correct1.length; i++)
+        {
+            total += 2L * correct1[i] + correct2[i];
+        }
+        return total;
+    }
+
+    /**
+     * Finds the best average points per game of any session, the figure high scores use.
+     *
+     * @return the best average, or 0 if the table is empty
+     */
+    public double maxAveragePerGame()
+    {
+        final int row = bestRow();
+        return row == NO_ROW ? 0.0 : averagePerGame(row);
+    }
+
+    /**
+     * Finds the session with the best average points per game. Ties keep the earlier row.
+     *
+     * @return the row of the best session, or -1 if the table is empty
+     */
+    public int bestRow()
+    {
+        int best = NO_ROW;
+        double bestAverage = 0.0;
+        for (int row = 0; row < games.length; row++)
+        {
+            final double average = averagePerGame(row);
+            if (best == NO_ROW || average > bestAverage)
+            {
+                best = row;
+                bestAverage = average;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Totals the sessions of each day or week.
+     * Weeks start on Monday. Rows do not have to be sorted, but sorted rows are grouped fastest
+     * because the group only has to be looked up when the period changes.
+     *
+     * @param period the length of each group
+     * @return the totals of every period with at least one session, in time order
+     */
+    public Grouped groupBy(final Period period)
+    {
+        final TreeMap<Long, Integer> groupOfStart = new TreeMap<>();
+        final int[] groupOfRow = new int[size()];
+        long previousStart = Long.MIN_VALUE;
+        int previousGroup = NO_ROW;
+
+        for (int row = 0; row < timestamps.length; row++)
+        {
+            final long start = periodStart(timestamps[row], period);
+            if (start != previousStart)
+            {
+                final Integer group = groupOfStart.get(start);
+                previousGroup = group != null ? group : groupOfStart.size();
+                if (group == null)
+                {
+                    groupOfStart.put(start, previousGroup);
+                }
+                previousStart = start;
+            }
+            groupOfRow[row] = previousGroup;
+        }
+
+        final int groups = groupOfStart.size();
+        final Grouped grouped = new Grouped(groups);
+        for (int row = 0; row < groupOfRow.length; row++)
+        {
+            grouped.add(groupOfRow[row], this, row);
+        }
+        return grouped.sortedBy(groupOfStart);
+    }
+
+    /**
+     * Gets the timestamp column.
+     *
+     * @return the epoch seconds of every session
+     */
+    public long[] getTimestamps()
+    {
+        return timestamps;
+    }
+
+    /**
+     * Gets the games played column.
+     *
+     * @return the number of games of every session
+     */
+    public int[] getGames()
+    {
+        return games;
+    }
+
+    /**
+     * Gets the first-attempt correct column.
+     *
+     * @return the first-attempt correct answers of every session
+     */
+    public int[] getCorrect1()
+    {
+        return correct1;
+    }
+
+    /**
+     * Gets the second-attempt correct column.
+     *
+     * @return the second-attempt correct answers of every session
+     */
+    public int[] getCorrect2()
+    {
+        return correct2;
+    }
+
+    /**
+     * Gets the incorrect column.
+     *
+     * @return the questions missed after two attempts in every session
+     */
+    public int[] getIncorrect()
+    {
+        return incorrect;
+    }
+
+    private double averagePerGame(final int row)
+    {
+        return games[row] == 0 ? 0.0 : (double) (2 * correct1[row] + correct2[row]) / games[row];
+    }
+
+    private int[] columnOf(final Column column)
+    {
+        switch (column)
+        {
+            case GAMES:
+                return games;
+            case CORRECT_FIRST_ATTEMPT:
+                return correct1;
+            case CORRECT_SECOND_ATTEMPT:
+                return correct2;
+            default:
+                return incorrect;
+        }
+    }
+
+    /*
+     * Returns the epoch day on which the period holding the given timestamp starts.
+     */
+    private static long periodStart(final long timestamp,
+                                    final Period period)
+    {
+        final long day = Math.floorDiv(timestamp, SECONDS_PER_DAY);
+        if (period == Period.DAY)
+        {
+            return day;
+        }
+
+        // Epoch day 0 was a Thursday, three days after the Monday that starts its week
+        return day - Math.floorMod(day + EPOCH_DAY_SINCE_MONDAY, DAYS_PER_WEEK);
+    }
+
+    /**
+     * Per-period totals produced by groupBy, stored as primitive columns with one row per period.
+     */
+    public static final class Grouped
+    {
+        private final long[] startDays;
+        private final int[] sessions;
+        private final long[] games;
+        private final long[] correct1;
+        private final long[] correct2;
+        private final long[] incorrect;
+        private final double[] bestAverage;
+
+        private Grouped(final int groups)
+        {
+            startDays = new long[groups];
+            sessions = new int[groups];
+            games = new long[groups];
+            correct1 = new long[groups];
+            correct2 = new long[groups];
+            incorrect = new long[groups];
+            bestAverage = new double[groups];
+        }
+
+        private void add(final int group,
+                         final ScoreTable table,
+                         final int row)
+        {
+            sessions[group]++;
+            games[group] += table.games[row];
+            correct1[group] += table.correct1[row];
+            correct2[group] += table.correct2[row];
+            incorrect[group] += table.incorrect[row];
+            bestAverage[group] = Math.max(bestAverage[group], table.averagePerGame(row));
+        }
+
+        /*
+         * Groups are numbered in order of first appearance; reorder them by start day.
+         */
+        private Grouped sortedBy(final TreeMap<Long, Integer> groupOfStart)
+        {
+            final Grouped sorted = new Grouped(startDays.length);
+            int target = 0;
+            for (Map.Entry<Long, Integer> entry : groupOfStart.entrySet())
+            {
+                final int source = entry.getValue();
+                sorted.startDays[target] = entry.getKey();
+                sorted.sessions[target] = sessions[source];
+                sorted.games[target] = games[source];
+                sorted.correct1[target] = correct1[source];
+                sorted.correct2[target] = correct2[source];
+                sorted.incorrect[target] = incorrect[source];
+                sorted.bestAverage[target] = bestAverage[source];
+                target++;
+            }
+            return sorted;
+        }
+
+        /**
+         * Returns the number of periods.
+         *
+         * @return the group count
+         */
+        public int size()
+        {
+            return startDays.length;
+        }
+
+        /**
+         * Gets the first day of a period.
+         *
+         * @param group the group number, in time order
+         * @return the day the period starts
+         */
+        public LocalDate getStart(final int group)
+        {
+            return LocalDate.ofEpochDay(startDays[group]);
+        }
+
+        /**
+         * Gets the number of sessions played in a period.
+         *
+         * @param group the group number, in time order
+         * @return the session count
+         */
+        public int getSessions(final int group)
+        {
+            return sessions[group];
+        }
+
+        /**
+         * Gets the number of games played in a period.
+         *
+         * @param group the group number, in time order
+         * @return the game count
+         */
+        public long getGames(final int group)
+        {
+            return games[group];
+        }
+
+        /**
+         * Gets the number of first-attempt correct answers in a period.
+         *
+         * @param group the group number, in time order
+         * @return the first-attempt correct count
+         */
+        public long getCorrectFirstAttempt(final int group)
+        {
+            return correct1[group];
+        }
+
+        /**
+         * Gets the number of second-attempt correct answers in a period.
+         *
+         * @param group the group number, in time order
+         * @return the second-attempt correct count
+         */
+        public long getCorrectSecondAttempt(final int group)
+        {
+            return correct2[group];
+        }
+
+        /**
+         * Gets the number of questions missed after two attempts in a period.
+         *
+         * @param group the group number, in time order
+         * @return the incorrect count
+         */
+        public long getIncorrectTwoAttempts(final int group)
+        {
+            return incorrect[group];
+        }
+
+        /**
+         * Gets the points scored in a period (see Score.getScore).
+         *
+         * @param group the group number, in time order
+         * @return the total points
+         */
+        public long getScore(final int group)
+        {
+            return 2 * correct1[group] + correct2[group];
+        }
+
+        /**
+         * Gets the best average points per game of any session in a period.
+         *
+         * @param group the group number, in time order
+         * @return the best average
+         */
+        public double getBestAverage(final int group)
+        {
+            return bestAverage[group];
+        }
+    }
+
+    /**
+     * Collects rows into growable columns and trims them into a ScoreTable.
+     */
+    public static final class Builder
+    {
+        private long[] timestamps;
+        private int[] games;
+        private int[] correct1;
+        private int[] correct2;
+        private int[] incorrect;
+        private int size;
+
+        /**
+         * Creates an empty builder with a default capacity.
+         */
+        public Builder()
+        {
+            this(INITIAL_CAPACITY);
+        }
+
+        /**
+         * Creates an empty builder.
+         *
+         * @param capacity the number of rows to allocate up front
+         */
+        public Builder(final int capacity)
+        {
+            timestamps = new long[capacity];
+            games = new int[capacity];
+            correct1 = new int[capacity];
+            correct2 = new int[capacity];
+            incorrect = new int[capacity];
+        }
+
+        /**
+         * Appends one session.
+         *
+         * @param timestamp  the epoch second the session was played, as UTC local time
+         * @param gameCount  the number of games played
+         * @param correct1st the first-attempt correct answers
+         * @param correct2nd the second-attempt correct answers
+         * @param missed     the questions missed after two attempts
+         * @return this builder
+         */
+        public Builder add(final long timestamp,
+                           final int gameCount,
+                           final int correct1st,
+                           final int correct2nd,
+                           final int missed)
+        {
+            if (size == timestamps.length)
+            {
+                grow();
+            }
+
+            timestamps[size] = timestamp;
+            games[size] = gameCount;
+            correct1[size] = correct1st;
+            correct2[size] = correct2nd;
+            incorrect[size] = missed;
+            size++;
+            return this;
+        }
+
+        /**
+         * Appends one session from a Score object.
+         *
+         * @param score the session
+         * @return this builder
+         */
+        public Builder add(final Score score)
+        {
+            return add(score.getDateTimePlayed().toEpochSecond(ZoneOffset.UTC), score.getNumGamesPlayed(),
+                    score.getNumCorrectFirstAttempt(), score.getNumCorrectSecondAttempt(),
+                    score.getNumIncorrectTwoAttempts());
+        }
+
+        /**
+         * Returns the number of rows added so far.
+         *
+         * @return the row count
+         */
+        public int size()
+        {
+            return size;
+        }
+
+        /**
+         * Trims the columns to the rows added and creates the table.
+         * The builder must not be used afterwards.
+         *
+         * @return the table
+         */
+        public ScoreTable build()
+        {
+            return new ScoreTable(trim(timestamps), trim(games), trim(correct1), trim(correct2), trim(incorrect));
+        }
+
+        private void grow()
+        {
+            final int capacity = Math.max(INITIAL_CAPACITY, timestamps.length * 2);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            games = Arrays.copyOf(games, capacity);
+            correct1 = Arrays.copyOf(correct1, capacity);
+            correct2 = Arrays.copyOf(correct2, capacity);
+            incorrect = Arrays.copyOf(incorrect, capacity);
+        }
+
+        private long[] trim(final long[] column)
+        {
+            return column.length == size ? column : Arrays.copyOf(column, size);
+        }
+
+        private int[] trim(final int[] column)
+        {
+            return column.length == size ? column : Arrays.copyOf(column, size);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A sparse time index over a ScoreLog, so range queries read only the blocks they need.
+ * The log is divided into blocks of BLOCK_RECORDS records and the index stores the dateTimePlayed
+ * of the first record of each block. A query binary-searches the block where its range starts,
+ * then streams records until it reaches a block that starts after the range ends.
+ * File layout (big-endian), kept next to the log with a `.tidx` suffix:
+ * - Header: magic, version and block size.
+ * - Entries: the first record's epoch seconds (as UTC local time) for each block, in log order.
+ * Behavior:
+ * - Sessions are appended to the log when they end, so timestamps are expected to be in order;
+ *   records that break the order may be missed by range queries.
+ * - refresh extends the index to cover records appended since it was last brought up to date.
+ * - A missing, malformed or mismatched index file is rebuilt from the log on open.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public class ScoreTimeIndex
+{
+    /**
+     * The number of log records covered by each index entry.
+     */
+    public static final int BLOCK_RECORDS = 1024;
+
+    /**
+     * The suffix added to the log file name to name its index.
+     */
+    public static final String INDEX_SUFFIX = ".tidx";
+
+    private static final int MAGIC = 0x54494458; // "TIDX"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 4;
+    private static final int ENTRY_SIZE = 8;
+
+    private final ScoreLog log;
+    private final Path indexPath;
+    private long[] blockStarts;
+    private int blockCount;
+
+    /**
+     * Opens the index of a score log, building or extending it as needed.
+     *
+     * @param log     the score log to index
+     * @param logPath the file the log was opened from; the index is kept next to it
+     * @throws IOException if the log cannot be read or the index cannot be written
+     */
+    public ScoreTimeIndex(final ScoreLog log,
+                          final Path logPath) throws IOException
+    {
+        this.log = log;
+        this.indexPath = Path.of(logPath + INDEX_SUFFIX);
+        this.blockStarts = new long[16];
+
+        if (!read())
+        {
+            blockCount = 0;
+            writeHeader();
+        }
+        indexNewBlocks();
+    }
+
+    /**
+     * Adds index entries for any blocks the log has gained since the last refresh.
+     *
+     * @throws IOException if the log cannot be read or the index cannot be written
+     */
+    public synchronized void refresh() throws IOException
+    {
+        indexNewBlocks();
+    }
+
+    /*
+     * Does the work of refresh; the constructor calls it directly, since a subclass could override refresh.
+     */
+    private void indexNewBlocks() throws IOException
+    {
+        final long records = log.size();
+        final int needed = (int) ((records + BLOCK_RECORDS - 1) / BLOCK_RECORDS);
+        if (needed <= blockCount)
+        {
+            return;
+        }
+
+        final ByteBuffer entries = ByteBuffer.allocate((needed - blockCount) * ENTRY_SIZE);
+        for (int block = blockCount; block < needed; block++)
+        {
+            final long first = epochSecondOf(log.get((long) block * BLOCK_RECORDS));
+            entries.putLong(first);
+            add(first);
+        }
+        entries.flip();
+
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND))
+        {
+            while (entries.hasRemaining())
+            {
+                channel.write(entries);
+            }
+        }
+    }
+
+    /**
+     * Passes every session played in a time range to the action, oldest first.
+     *
+     * @param from   the start of the range, inclusive
+     * @param to     the end of the range, exclusive
+     * @param action receives each matching score
+     * @throws IOException if the log cannot be read
+     */
+    public synchronized void forEachBetween(final LocalDateTime from,
+                                            final LocalDateTime to,
+                                            final Consumer<Score> action) throws IOException
+    {
+        refresh();
+        if (!from.isBefore(to) || blockCount == 0)
+        {
+            return;
+        }
+
+        final long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+        final long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+
+        // The range can only start in the last block that begins at or before "from"
+        final int firstBlock = Math.max(0, lastBlockStartingAtOrBefore(fromSecond));
+        // Blocks that begin at or after "to" hold nothing in the range
+        final int endBlock = lastBlockStartingAtOrBefore(toSecond - 1) + 1;
+        if (endBlock <= firstBlock)
+        {
+            return;
+        }
+
+        final long start = (long) firstBlock * BLOCK_RECORDS;
+        final long end = Math.min((long) endBlock * BLOCK_RECORDS, log.size());
+        log.forEach(start, end, score ->
+        {
+            final long second = epochSecondOf(score);
+            if (second >= fromSecond && second < toSecond)
+            {
+                action.accept(score);
+            }
+        });
+    }
+
+    /**
+     * Returns every session played in a time range, oldest first.
+     *
+     * @param from the start of the range, inclusive
+     * @param to   the end of the range, exclusive
+     * @return the matching scores
+     * @throws IOException if the log cannot be read
+     */
+    public List<Score> between(final LocalDateTime from,
+                               final LocalDateTime to) throws IOException
+    {
+        final List<Score> scores = new ArrayList<>();
+        forEachBetween(from, to, scores::add);
+        return scores;
+    }
+
+    /**
+     * Returns the session with the best average points per game in a time range.
+     *
+     * @param from the start of the range, inclusive
+     * @param to   the end of the range, exclusive
+     * @return the best score, or null if no session was played in the range
+     * @throws IOException if the log cannot be read
+     */
+    public Score bestBetween(final LocalDateTime from,
+                             final LocalDateTime to) throws IOException
+    {
+        final Leaderboard leaderboard = new Leaderboard(Leaderboard.Ranking.AVERAGE_PER_GAME, 1);
+        forEachBetween(from, to, leaderboard);
+        final List<Score> top = leaderboard.getTop();
+        return top.isEmpty() ? null : top.get(0);
+    }
+
+    /*
+     * Binary search over block starts; returns -1 if every block starts after the given second.
+     */
+    private int lastBlockStartingAtOrBefore(final long second)
+    {
+        int low = 0;
+        int high = blockCount - 1;
+        int found = -1;
+        while (low <= high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (blockStarts[mid] <= second)
+            {
+                found = mid;
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private static long epochSecondOf(final Score score)
+    {
+        return score.getDateTimePlayed().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private void add(final long first)
+    {
+        if (blockCount == blockStarts.length)
+        {
+            blockStarts = Arrays.copyOf(blockStarts, blockStarts.length * 2);
+        }
+        blockStarts[blockCount++] = first;
+    }
+
+    /*
+     * Loads the index file; returns false if it is missing, malformed or describes another log.
+     */
+    private boolean read() throws IOException
+    {
+        if (!Files.isRegularFile(indexPath))
+        {
+            return false;
+        }
+
+        final ByteBuffer contents = ByteBuffer.wrap(Files.readAllBytes(indexPath));
+        if (contents.remaining() < HEADER_SIZE
+                || contents.getInt() != MAGIC
+                || contents.getInt() != VERSION
+                || contents.getInt() != BLOCK_RECORDS
+                || contents.remaining() % ENTRY_SIZE != 0)
+        {
+            return false;
+        }
+
+        final int entries = contents.remaining() / ENTRY_SIZE;
+        final long records = log.size();
+        if ((long) entries * BLOCK_RECORDS >= records + BLOCK_RECORDS)
+        {
+            // More blocks than the log has records for; the log was replaced
+            return false;
+        }
+
+        while (contents.hasRemaining())
+        {
+            add(contents.getLong());
+        }
+
+        // Spot-check the newest entry against the log in case the log was rewritten in place
+        return blockCount == 0
+                || blockStarts[blockCount - 1] == epochSecondOf(log.get((long) (blockCount - 1) * BLOCK_RECORDS));
+    }
+
+    private void writeHeader() throws IOException
+    {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(BLOCK_RECORDS).flip();
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            while (header.hasRemaining())
+            {
+                channel.write(header);
+            }
+        }
+    }
+}
@@ -0,0 +1,412 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists Score records from any number of threads through a single background writer.
+ * Scores are queued and written to the canonical CSV score file (see Score.toCsvLine) in group
+ * commits: everything that arrives within one commit window is appended with one write and, if
+ * the durability mode asks for it, made durable with one force.
+ * Durability modes:
+ * - PER_RECORD: every score is written and forced on its own, like the original per-call append.
+ * - BATCHED: scores are grouped per commit window; a submit completes once its batch is forced.
+ * - ASYNC: scores are grouped per commit window but never forced until close; a submit completes
+ *   once its batch has been handed to the operating system.
+ * Behavior:
+ * - submit never blocks on I/O; callers that need durability wait on the returned future.
+ * - A failed commit completes every future in that batch exceptionally; later batches still run.
+ * - Each commit holds the file's exclusive ScoreFileLock, so other writers never interleave.
+ * - Under that lock each commit first checks that the path still names the file it has open, and
+ *   reopens it if not: ScoreCompactor swaps in a rewritten score file, and appending to the old,
+ *   unlinked one would lose every later score.
+ * - After each commit the high-score sidecar (HighScoreIndex) is brought up to date under the same
+ *   lock, so the next high-score check does not have to rescan the file. A failed index update
+ *   is reported but does not fail the commit; the index is rebuilt on its next use instead.
+ * - close stops accepting scores, commits everything already queued, forces and closes the file.
+ *   A shutdown hook does the same if the program exits without closing the writer, so queued
+ *   scores are not lost with the JVM.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class ScoreWriter implements Closeable
+{
+    /**
+     * How strongly each submitted score is persisted before its future completes.
+     */
+    public enum Durability
+    {
+        PER_RECORD,
+        BATCHED,
+        ASYNC
+    }
+
+    /**
+     * The commit window used when none is given, in milliseconds.
+     */
+    public static final long DEFAULT_COMMIT_WINDOW_MILLIS = 5;
+
+    private static final int MAX_BATCH = 4096;
+    private static final char LINE_FEED = '\n';
+
+    private final Path scoreFile;
+    private final String scoreFileName;
+    private FileChannel channel;
+    private Object fileKey;
+    private final Durability durability;
+    private final long commitWindowNanos;
+    private final BlockingQueue<Pending> queue;
+    private final Thread writerThread;
+    private final Thread shutdownHook;
+    private boolean closed;
+
+    /**
+     * Opens a score writer that appends to the given file with the default commit window.
+     *
+     * @param scoreFile  the CSV score file, created if missing
+     * @param durability how strongly each score is persisted
+     * @throws IOException if the file cannot be opened
+     */
+    public ScoreWriter(final Path scoreFile,
+                       final Durability durability) throws IOException
+    {
+        this(scoreFile, durability, DEFAULT_COMMIT_WINDOW_MILLIS);
+    }
+
+    /**
+     * Opens a score writer that appends to the given file.
+     *
+     * @param scoreFile          the CSV score file, created if missing
+     * @param durability         how strongly each score is persisted
+     * @param commitWindowMillis how long a batch waits for more scores after its first one arrives
+     * @throws IOException if the file cannot be opened
+     */
+    public ScoreWriter(final Path scoreFile,
+                       final Durability durability,
+                       final long commitWindowMillis) throws IOException
+    {
+        if (commitWindowMillis < 0)
+        {
+            throw new IllegalArgumentException("Commit window must not be negative: " + commitWindowMillis);
+        }
+
+        this.scoreFile = scoreFile;
+        this.scoreFileName = scoreFile.toString();
+        openChannel();
+        this.durability = durability;
+        this.commitWindowNanos = TimeUnit.MILLISECONDS.toNanos(commitWindowMillis);
+        this.queue = new LinkedBlockingQueue<>();
+        this.writerThread = new Thread(this::writeLoop, "score-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        this.shutdownHook = new Thread(this::closeQuietly, "score-writer-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Queues a score for writing.
+     *
+     * @param score the finished session to persist
+     * @return a future that completes when the score is persisted as the durability mode promises
+     * @throws IllegalStateException if the writer has been closed
+     */
+    public synchronized CompletableFuture<Void> submit(final Score score)
+    {
+        if (closed)
+        {
+            throw new IllegalStateException("Score writer is closed.");
+        }
+
+        final Pending pending = new Pending(score);
+        queue.add(pending);
+        return pending.done;
+    }
+
+    /**
+     * Returns the durability mode this writer was opened with.
+     *
+     * @return the durability mode
+     */
+    public Durability getDurability()
+    {
+        return durability;
+    }
+
+    /**
+     * Commits every queued score, forces the file and closes it.
+     *
+     * @throws IOException if the final force or close fails
+     */
+    @Override
+    public void close() throws IOException
+    {
+        synchronized (this)
+        {
+            if (closed)
+            {
+                return;
+            }
+
+            // The end marker is the last thing ever queued, so everything before it gets committed
+            closed = true;
+            queue.add(Pending.END);
+        }
+
+        if (Thread.currentThread() != shutdownHook)
+        {
+            try
+            {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            }
+            catch (IllegalStateException e)
+            {
+                // The JVM is already shutting down; the hook will find the writer closed
+            }
+        }
+
+        try
+        {
+            writerThread.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        try
+        {
+            channel.force(false);
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+
+    private void closeQuietly()
+    {
+        try
+        {
+            close();
+        }
+        catch (IOException e)
+        {
+            System.out.println("Failed to close the score writer: " + e.getMessage());
+        }
+    }
+
+    private void writeLoop()
+    {
+        final List<Pending> batch = new ArrayList<>();
+        boolean ended = false;
+
+        while (!ended)
+        {
+            try
+            {
+                collect(batch);
+            }
+            catch (InterruptedException e)
+            {
+                // Nothing interrupts this thread on purpose; keep going until the end marker
+                Thread.interrupted();
+            }
+
+            ended = batch.remove(Pending.END);
+            if (!batch.isEmpty())
+            {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /*
+     * Waits for the first score, then keeps gathering scores until the commit window ends
+     * or the end marker arrives.
+     */
+    private void collect(final List<Pending> batch) throws InterruptedException
+    {
+        final Pending first = queue.take();
+        batch.add(first);
+        if (durability == Durability.PER_RECORD || first == Pending.END)
+        {
+            return;
+        }
+
+        final long deadline = System.nanoTime() + commitWindowNanos;
+        long remaining = commitWindowNanos;
+        while (batch.size() < MAX_BATCH && remaining > 0)
+        {
+            queue.drainTo(batch, MAX_BATCH - batch.size());
+            if (batch.size() == MAX_BATCH || batch.contains(Pending.END))
+            {
+                return;
+            }
+
+            final Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null)
+            {
+                return;
+            }
+            batch.add(next);
+            if (next == Pending.END)
+            {
+                return;
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    private void commit(final List<Pending> batch)
+    {
+        if (durability == Durability.PER_RECORD)
+        {
+            for (Pending pending : batch)
+            {
+                write(List.of(pending));
+            }
+        }
+        else
+        {
+            write(batch);
+        }
+    }
+
+    @SuppressWarnings("try")
+    private void write(final List<Pending> batch)
+    {
+        final StringBuilder records = new StringBuilder(batch.size() * 32);
+        for (Pending pending : batch)
+        {
+            records.append(pending.score.toCsvLine()).append(LINE_FEED);
+        }
+
+        try (ScoreFileLock lock = ScoreFileLock.exclusive(scoreFileName))
+        {
+            if (fileKey == null || !fileKey.equals(currentFileKey()))
+            {
+                channel.close();
+                openChannel();
+            }
+
+            // The index needs the previous best read before the append
+            final HighScoreIndex index = new HighScoreIndex(scoreFileName);
+            final boolean indexed = loadIndex(index);
+
+            final ByteBuffer buffer = ByteBuffer.wrap(records.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+            if (durability != Durability.ASYNC)
+            {
+                channel.force(false);
+            }
+            if (indexed)
+            {
+                updateIndex(index, batch);
+            }
+
+            for (Pending pending : batch)
+            {
+                pending.done.complete(null);
+            }
+        }
+        catch (IOException e)
+        {
+            for (Pending pending : batch)
+            {
+                pending.done.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static boolean loadIndex(final HighScoreIndex index)
+    {
+        try
+        {
+            index.getBest();
+            return true;
+        }
+        catch (IOException e)
+        {
+            System.out.println("Failed to read the high-score index: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void updateIndex(final HighScoreIndex index,
+                                    final List<Pending> batch)
+    {
+        Score best = null;
+        for (Pending pending : batch)
+        {
+            if (best == null || pending.score.getAveragePerGame() > best.getAveragePerGame())
+            {
+                best = pending.score;
+            }
+        }
+
+        try
+        {
+            index.record(best);
+        }
+        catch (IOException e)
+        {
+            System.out.println("Failed to update the high-score index: " + e.getMessage());
+        }
+    }
+
+    private void openChannel() throws IOException
+    {
+        channel = FileChannel.open(scoreFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileKey = currentFileKey();
+    }
+
+    /*
+     * Identifies the file the path names now, or returns null if it is missing or the platform
+     * has no file keys; the channel is then reopened before every commit.
+     */
+    private Object currentFileKey()
+    {
+        try
+        {
+            return Files.readAttributes(scoreFile, BasicFileAttributes.class).fileKey();
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * A queued score and the future its submitter is waiting on.
+     */
+    private static final class Pending
+    {
+        private static final Pending END = new Pending(null);
+
+        private final Score score;
+        private final CompletableFuture<Void> done;
+
+        Pending(final Score score)
+        {
+            this.score = score;
+            this.done = new CompletableFuture<>();
+        }
+    }
+}
@@ -0,0 +1,504 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A question bank that keeps only the data files being played on the heap.
+ * Each `.txt` file of the data directory is a shard; to shard by region, keep one file per region.
+ * How it works:
+ * - A manifest next to the data files records how many countries each file holds, so opening the
+ *   bank reads one small file instead of every shard. Entries are checked against each file's
+ *   size and modification time, and stale or missing ones are recounted and written back.
+ * - Question indexes are numbered shard after shard, in file-name order as in CountryLoader; a
+ *   binary search over the shard start indexes finds the shard of a question.
+ * - A shard is parsed the first time a question from it is drawn, with its own NamePool, World
+ *   and FuzzyMatcher, so answers are checked against the capitals of the question's shard.
+ * - Resident shards are kept in least-recently-used order. After a load, the oldest shards are
+ *   evicted until the estimated bytes of the rest fit the budget; the shard just loaded and shards
+ *   still loading always stay, even if that leaves the bank over the budget.
+ * - newDeck deals one shard at a time (see ShardedDeck), so a session does not need every shard
+ *   resident at once; a uniform deck over a bank larger than the budget would load a shard on
+ *   almost every question.
+ * - Each shard is deduplicated on its own, like a World built from that one file. A country
+ *   defined in several files is therefore a question in each of them, unlike CountryLoader,
+ *   where the last file wins.
+ * Behavior:
+ * - The bank's lock only guards the table of resident shards. A shard is parsed outside it: the
+ *   first session to need a shard installs a future for it and loads it, and sessions that need
+ *   the same shard meanwhile wait on that future instead of parsing it twice. Waiting parks
+ *   rather than blocking on a monitor, so virtual threads are not pinned.
+ * - Each question is looked up once (see item), so its country and matcher come from one load.
+ * - If a file changes after the bank is opened, its indexes wrap around its new countries; open
+ *   the bank again to pick up the new sizes. A shard that can no longer be read fails the
+ *   question with an UncheckedIOException.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class ShardedBank implements QuestionBank
+{
+    /**
+     * Name of the manifest file kept in the data directory.
+     */
+    public static final String MANIFEST_FILE_NAME = "bank.manifest";
+
+    /**
+     * The memory budget used when none is given: 64 MB.
+     */
+    public static final long DEFAULT_BUDGET_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * The estimated bytes a shard's World and FuzzyMatcher add per country: the entries of the
+     * name and capital indexes and a BK-tree node.
+     */
+    static final int INDEX_BYTES_PER_COUNTRY = 160;
+
+    private static final String FIELD_SEPARATOR = ",";
+    private static final int MANIFEST_FIELDS = 4;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final double BYTES_PER_KILOBYTE = 1024.0;
+
+    private final Path directory;
+    private final String[] fileNames;
+    private final int[] starts;
+    private final long budgetBytes;
+    private final LinkedHashMap<Integer, CompletableFuture<Shard>> resident;
+    private long residentBytes;
+    private long loads;
+
+    private ShardedBank(final Path directory,
+                        final String[] fileNames,
+                        final int[] starts,
+                        final long budgetBytes)
+    {
+        this.directory = directory;
+        this.fileNames = fileNames;
+        this.starts = starts;
+        this.budgetBytes = budgetBytes;
+        this.resident = new LinkedHashMap<>(fileNames.length, 0.75f, true);
+    }
+
+    /**
+     * Opens the data files of a directory as a sharded bank. No shard is loaded until a question
+     * is drawn from it; the manifest is brought up to date first.
+     *
+     * @param directoryPath path to the folder containing text files
+     * @param budgetBytes   the estimated bytes the resident shards may take
+     * @return the bank
+     * @throws IOException if folder is invalid or unreadable, or a file needs counting and cannot
+     *                     be read
+     */
+    public static ShardedBank open(final String directoryPath,
+                                   final long budgetBytes) throws IOException
+    {
+        final Path directory = Path.of(directoryPath);
+        final File[] dataFiles = CountryLoader.listDataFiles(directoryPath);
+        final Path manifest = directory.resolve(MANIFEST_FILE_NAME);
+        final Map<String, Entry> recorded = readManifest(manifest);
+
+        final Entry[] entries = new Entry[dataFiles.length];
+        boolean stale = recorded.size() != dataFiles.length;
+        for (int i = 0; i < dataFiles.length; i++)
+        {
+            final File file = dataFiles[i];
+            final Entry entry = recorded.get(file.getName());
+            if (entry != null && entry.bytes == file.length() && entry.lastModified == file.lastModified())
+            {
+                entries[i] = entry;
+            }
+            else
+            {
+                final int countries = new World(CountryLoader.parseFile(file.toPath(), new NamePool())).size();
+                entries[i] = new Entry(file.getName(), countries, file.length(), file.lastModified());
+                stale = true;
+            }
+        }
+
+        if (stale)
+        {
+            try
+            {
+                writeManifest(manifest, entries);
+            }
+            catch (IOException e)
+            {
+                // The bank works without it; the files are just counted again next time
+                System.out.println("Failed to write bank manifest: " + e.getMessage());
+            }
+        }
+
+        // Empty files get no shard, so every shard start index is distinct
+        int shards = 0;
+        for (Entry entry : entries)
+        {
+            if (entry.countries > 0)
+            {
+                shards++;
+            }
+        }
+
+        final String[] fileNames = new String[shards];
+        final int[] starts = new int[shards + 1];
+        int shard = 0;
+        for (Entry entry : entries)
+        {
+            if (entry.countries > 0)
+            {
+                fileNames[shard] = entry.fileName;
+                starts[shard + 1] = starts[shard] + entry.countries;
+                shard++;
+            }
+        }
+
+        return new ShardedBank(directory, fileNames, starts, budgetBytes);
+    }
+
+    /**
+     * Returns the number of questions in every shard together, loaded or not.
+     *
+     * @return the bank size
+     */
+    @Override
+    public int size()
+    {
+        return starts[fileNames.length];
+    }
+
+    /**
+     * Returns the country of a question, loading its shard if it is not resident.
+     *
+     * @param index the question index
+     * @return the country
+     */
+    @Override
+    public Country get(final int index)
+    {
+        final Shard shard = shardOf(index);
+        return shard.countries.get(shard.local(index));
+    }
+
+    /**
+     * Returns the matcher over the question's shard, loading the shard if it is not resident.
+     *
+     * @param index the question index
+     * @return the shard's matcher
+     */
+    @Override
+    public FuzzyMatcher matcherFor(final int index)
+    {
+        return shardOf(index).matcher;
+    }
+
+    /**
+     * Returns the country of a question and the matcher over its shard, looking the shard up once.
+     *
+     * @param index the question index
+     * @return the country and its shard's matcher
+     */
+    @Override
+    public Item item(final int index)
+    {
+        final Shard shard = shardOf(index);
+        return new Item(shard.countries.get(shard.local(index)), shard.matcher);
+    }
+
+    /**
+     * Creates a deck that deals the questions of one shard before moving on to the next.
+     *
+     * @param seed the seed to replay
+     * @return a new ShardedDeck over this bank's shards
+     */
+    @Override
+    public QuestionSampler newDeck(final long seed)
+    {
+        return new ShardedDeck(starts, seed);
+    }
+
+    /**
+     * Returns the number of shards, loaded or not.
+     *
+     * @return the shard count
+     */
+    public int getShardCount()
+    {
+        return fileNames.length;
+    }
+
+    /**
+     * Returns the number of shards currently on the heap or being loaded.
+     *
+     * @return the resident shard count
+     */
+    public synchronized int getResidentShardCount()
+    {
+        return resident.size();
+    }
+
+    /**
+     * Returns the estimated bytes of the shards currently on the heap.
+     *
+     * @return the resident bytes
+     */
+    public synchronized long getResidentBytes()
+    {
+        return residentBytes;
+    }
+
+    /**
+     * Returns how many times a shard has been loaded, counting reloads after eviction.
+     *
+     * @return the load count
+     */
+    public synchronized long getLoadCount()
+    {
+        return loads;
+    }
+
+    /**
+     * Describes how much of the bank is on the heap.
+     *
+     * @return a one-line report of the resident shards and the budget
+     */
+    public synchronized String describeResidency()
+    {
+        return String.format("%d questions in %d shards: %d resident, %.1f KB of a %.1f KB budget, %d loads",
+                size(), fileNames.length, resident.size(), residentBytes / BYTES_PER_KILOBYTE,
+                budgetBytes / BYTES_PER_KILOBYTE, loads);
+    }
+
+    private Shard shardOf(final int index)
+    {
+        if (index < 0 || index >= size())
+        {
+            throw new IndexOutOfBoundsException("Question " + index + " is not in a bank of " + size());
+        }
+
+        final int found = Arrays.binarySearch(starts, 0, fileNames.length, index);
+        final int shardIndex = found >= 0 ? found : -found - 2;
+
+        final CompletableFuture<Shard> shard;
+        final boolean loading;
+        synchronized (this)
+        {
+            final CompletableFuture<Shard> existing = resident.get(shardIndex);
+            loading = existing == null;
+            shard = loading ? new CompletableFuture<>() : existing;
+            if (loading)
+            {
+                resident.put(shardIndex, shard);
+            }
+        }
+
+        return loading ? load(shardIndex, shard) : await(shard);
+    }
+
+    /*
+     * Parses a shard with no lock held, then publishes it and evicts what no longer fits.
+     */
+    private Shard load(final int shardIndex,
+                       final CompletableFuture<Shard> pending)
+    {
+        final Shard shard;
+        try
+        {
+            shard = parse(shardIndex);
+        }
+        catch (RuntimeException e)
+        {
+            // Forget the failed load, so the next question from this shard tries again
+            synchronized (this)
+            {
+                resident.remove(shardIndex, pending);
+            }
+            pending.completeExceptionally(e);
+            throw e;
+        }
+
+        synchronized (this)
+        {
+            residentBytes += shard.bytes;
+            loads++;
+            pending.complete(shard);
+            evict(pending);
+        }
+        return shard;
+    }
+
+    private static Shard await(final CompletableFuture<Shard> pending)
+    {
+        try
+        {
+            return pending.join();
+        }
+        catch (CompletionException e)
+        {
+            // Rethrow what the loading session saw, not a wrapper around it
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private Shard parse(final int shardIndex)
+    {
+        final NamePool pool = new NamePool();
+        final World world;
+        try
+        {
+            world = new World(CountryLoader.parseFile(directory.resolve(fileNames[shardIndex]), pool));
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        // Questions come from the World, so a country repeated within the file is asked once
+        final List<Country> countries = world.getCountries();
+        if (countries.isEmpty())
+        {
+            throw new UncheckedIOException(new IOException("Shard is now empty: " + fileNames[shardIndex]));
+        }
+
+        final FuzzyMatcher matcher = new FuzzyMatcher(world, FuzzyMatcher.DEFAULT_MAX_EDIT_DISTANCE);
+        final long bytes = pool.getRetainedBytes()
+                + (long) countries.size() * (NamePool.COUNTRY_OBJECT_BYTES + INDEX_BYTES_PER_COUNTRY);
+        return new Shard(starts[shardIndex], countries, matcher, bytes);
+    }
+
+    /*
+     * Drops the least recently used loaded shards until the rest fit the budget, keeping the
+     * shard just loaded and any still being loaded.
+     */
+    private void evict(final CompletableFuture<Shard> keep)
+    {
+        final Iterator<CompletableFuture<Shard>> oldestFirst = resident.values().iterator();
+        while (residentBytes > budgetBytes && oldestFirst.hasNext())
+        {
+            final CompletableFuture<Shard> shard = oldestFirst.next();
+            if (shard != keep && shard.isDone())
+            {
+                residentBytes -= shard.join().bytes;
+                oldestFirst.remove();
+            }
+        }
+    }
+
+    private static Map<String, Entry> readManifest(final Path manifest) throws IOException
+    {
+        final Map<String, Entry> entries = new HashMap<>();
+        if (!Files.isRegularFile(manifest))
+        {
+            return entries;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                // The file name comes last, so it may itself contain commas
+                final String[] parts = line.split(FIELD_SEPARATOR, MANIFEST_FIELDS);
+                if (parts.length < MANIFEST_FIELDS)
+                {
+                    continue;
+                }
+
+                try
+                {
+                    entries.put(parts[3], new Entry(parts[3], Integer.parseInt(parts[0]),
+                            Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+                }
+                catch (NumberFormatException e)
+                {
+                    // A damaged entry is simply counted again
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static void writeManifest(final Path manifest,
+                                      final Entry[] entries) throws IOException
+    {
+        final Path temp = manifest.resolveSibling(manifest.getFileName() + TEMP_SUFFIX);
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8))
+        {
+            for (Entry entry : entries)
+            {
+                writer.write(entry.countries + FIELD_SEPARATOR + entry.bytes + FIELD_SEPARATOR
+                        + entry.lastModified + FIELD_SEPARATOR + entry.fileName);
+                writer.newLine();
+            }
+        }
+
+        Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * One line of the manifest: countries,bytes,lastModified,fileName.
+     */
+    private static final class Entry
+    {
+        private final String fileName;
+        private final int countries;
+        private final long bytes;
+        private final long lastModified;
+
+        Entry(final String fileName,
+              final int countries,
+              final long bytes,
+              final long lastModified)
+        {
+            this.fileName = fileName;
+            this.countries = countries;
+            this.bytes = bytes;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * A loaded shard; never changed once built.
+     */
+    private static final class Shard
+    {
+        private final int start;
+        private final List<Country> countries;
+        private final FuzzyMatcher matcher;
+        private final long bytes;
+
+        Shard(final int start,
+              final List<Country> countries,
+              final FuzzyMatcher matcher,
+              final long bytes)
+        {
+            this.start = start;
+            this.countries = countries;
+            this.matcher = matcher;
+            this.bytes = bytes;
+        }
+
+        /*
+         * Maps a bank index to a position in this shard, wrapping if the file has shrunk.
+         */
+        int local(final int index)
+        {
+            return (index - start) % countries.size();
+        }
+    }
+}
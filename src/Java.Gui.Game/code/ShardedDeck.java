@@ -0,0 +1,62 @@
+import java.util.Random;
+
+/**
+ * Deals the questions of a sharded bank one shard at a time, so a session keeps drawing from the
+ * shard it already has loaded instead of touching every shard in turn.
+ * Shards are dealt from a QuestionDeck over the shards, and each shard's questions from a
+ * QuestionDeck over that shard; once a shard is used up the next one is dealt.
+ * - Every draw is O(1) and allocates nothing except when a new shard's deck is started.
+ * - No index repeats until every question of every shard has been dealt, as with a QuestionDeck.
+ * - A session switches shards once per shard per pass, so with a budget smaller than the bank it
+ *   loads each shard once per pass instead of on almost every question.
+ * - A fixed seed makes the whole sequence of draws reproducible, so sessions can be replayed.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class ShardedDeck implements QuestionSampler
+{
+    private final int[] starts;
+    private final Random random;
+    private final QuestionDeck shards;
+    private QuestionDeck current;
+    private int currentStart;
+
+    /**
+     * Creates a deck over the shards of a bank whose draws are fully determined by the seed.
+     *
+     * @param starts the first question index of each shard, followed by the bank size; every
+     *               shard must hold at least one question
+     * @param seed   the seed to replay
+     */
+    public ShardedDeck(final int[] starts,
+                       final long seed)
+    {
+        if (starts.length < 2)
+        {
+            throw new IllegalArgumentException("A sharded deck needs at least one shard.");
+        }
+
+        this.starts = starts.clone();
+        this.random = new Random(seed);
+        this.shards = new QuestionDeck(starts.length - 1, random.nextLong());
+    }
+
+    /**
+     * Deals the next question index, staying in the current shard until it is used up.
+     *
+     * @return an index in the range [0, bank size)
+     */
+    @Override
+    public int next()
+    {
+        if (current == null || current.remaining() == 0)
+        {
+            final int shard = shards.next();
+            currentStart = starts[shard];
+            current = new QuestionDeck(starts[shard + 1] - currentStart, random.nextLong());
+        }
+
+        return currentStart + current.next();
+    }
+}
@@ -0,0 +1,118 @@
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Reads a player's answers from a line-based text stream, prompting before each one.
+ * Used for both the console game and network sessions; only the line supplier differs.
+ * Input Handling:
+ * - Every line is trimmed before it is used.
+ * - Play-again answers are case-insensitive and re-prompted until they are Yes or No.
+ * - A null line means the stream has ended, which ends the session.
+ * - When hints are available, a guess ending in HINT_SUFFIX (for example "Ott?") lists the capitals
+ *   starting with it and asks again; asking for a hint does not use up the attempt.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public class TextAnswerSource implements AnswerSource
+{
+    /**
+     * Ends a guess that asks for suggestions instead of being an answer.
+     */
+    public static final String HINT_SUFFIX = "?";
+
+    private final Supplier<String> lines;
+    private final PrintWriter out;
+    private final PrefixTrie hints;
+
+    /**
+     * Creates a source over a stream of lines.
+     *
+     * @param lines supplies the next line typed by the player, or null at end of input
+     * @param out   where prompts are printed
+     */
+    public TextAnswerSource(final Supplier<String> lines,
+                            final PrintWriter out)
+    {
+        this(lines, out, null);
+    }
+
+    /**
+     * Creates a source over a stream of lines that can suggest capitals.
+     *
+     * @param lines supplies the next line typed by the player, or null at end of input
+     * @param out   where prompts are printed
+     * @param hints the capitals suggested for capital questions, or null to give no hints
+     */
+    public TextAnswerSource(final Supplier<String> lines,
+                            final PrintWriter out,
+                            final PrefixTrie hints)
+    {
+        this.lines = lines;
+        this.out = out;
+        this.hints = hints;
+    }
+
+    @Override
+    public String nextGuess(final Country country,
+                            final int attempt)
+    {
+        prompt(attempt == 1 ? "Your guess: " : "Second guess: ");
+        return readLine();
+    }
+
+    @Override
+    public String nextGuess(final Question question,
+                            final int attempt)
+    {
+        while (true)
+        {
+            final String guess = nextGuess(question.getCountry(), attempt);
+            if (guess == null || hints == null || !guess.endsWith(HINT_SUFFIX))
+            {
+                return guess;
+            }
+
+            if (question.isReverse())
+            {
+                out.println("Hints are only given for capitals.");
+                continue;
+            }
+
+            final String typed = guess.substring(0, guess.length() - HINT_SUFFIX.length());
+            final List<String> suggestions = hints.complete(typed, PrefixTrie.DEFAULT_SUGGESTIONS);
+            out.println(suggestions.isEmpty()
+                    ? "No capitals start with \"" + typed.trim() + "\"."
+                    : "Capitals starting with \"" + typed.trim() + "\": " + String.join(", ", suggestions));
+        }
+    }
+
+    @Override
+    public boolean playAgain()
+    {
+        prompt("Do you want to play again? (Yes/No): ");
+        String input = readLine();
+
+        while (input != null && !input.equalsIgnoreCase("yes") && !input.equalsIgnoreCase("no"))
+        {
+            out.println("Invalid response. Please enter Yes or No.");
+            prompt("Do you want to play again? ");
+            input = readLine();
+        }
+
+        return input != null && input.equalsIgnoreCase("yes");
+    }
+
+    private void prompt(final String text)
+    {
+        out.print(text);
+        out.flush();
+    }
+
+    private String readLine()
+    {
+        final String line = lines.get();
+        return line == null ? null : line.trim();
+    }
+}
@@ -0,0 +1,142 @@
+import java.io.PrintWriter;
+import java.util.List;
+
+/**
+ * Prints the progress of a WordGame session as plain text.
+ * Used for both the console game and network sessions.
+ * When given CountryFacts, each answered question is followed by a fact about its country; the
+ * facts are read the first time one is shown.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public class TextEventSink implements GameEventSink
+{
+    private final PrintWriter out;
+    private final CountryFacts facts;
+    private int factsShown;
+
+    /**
+     * Creates a sink printing to the given writer.
+     *
+     * @param out where game messages are printed
+     */
+    public TextEventSink(final PrintWriter out)
+    {
+        this(out, null);
+    }
+
+    /**
+     * Creates a sink printing to the given writer that shares facts about each country.
+     *
+     * @param out   where game messages are printed
+     * @param facts the facts to share, or null to share none
+     */
+    public TextEventSink(final PrintWriter out,
+                         final CountryFacts facts)
+    {
+        this.out = out;
+        this.facts = facts;
+    }
+
+    @Override
+    public void onQuestion(final Country country)
+    {
+        out.println("What is the capital of " + country.getName() + "?");
+    }
+
+    @Override
+    public void onQuestion(final Question question)
+    {
+        if (question.isReverse())
+        {
+            out.println("Which country has the capital " + question.getPrompt() + "?");
+        }
+        else
+        {
+            onQuestion(question.getCountry());
+        }
+    }
+
+    @Override
+    public void onCorrect(final Country country,
+                          final AnswerOutcome outcome)
+    {
+        out.println("CORRECT");
+        printFact(country);
+    }
+
+    @Override
+    public void onRetry(final Country country)
+    {
+        out.println("INCORRECT. Try again.");
+    }
+
+    @Override
+    public void onMissed(final Country country)
+    {
+        onMissed(Question.capitalOf(country));
+    }
+
+    @Override
+    public void onMissed(final Question question)
+    {
+        out.println("INCORRECT. The correct answer was " + String.join(" or ", question.getAnswers()));
+        printFact(question.getCountry());
+    }
+
+    @Override
+    public void onRoundComplete(final Score totals)
+    {
+        final int totalGames = totals.getNumGamesPlayed();
+
+        out.println();
+        out.println("- " + totalGames + (totalGames == 1 ? " word game played" : " word games played"));
+        out.println("- " + totals.getNumCorrectFirstAttempt() + " correct answers on the first attempt");
+        out.println("- " + totals.getNumCorrectSecondAttempt() + " correct answers on the second attempt");
+        out.println("- " + totals.getNumIncorrectTwoAttempts() + " incorrect answers on two attempts each");
+        out.println();
+        out.flush();
+    }
+
+    /*
+     * Prints one fact about a country, taking turns through its trivia lines, or a summary of its
+     * population and region when it has no trivia.
+     */
+    private void printFact(final Country country)
+    {
+        if (facts == null)
+        {
+            return;
+        }
+
+        final int id = facts.idOf(country);
+        if (id == CountryFacts.NO_FACTS)
+        {
+            return;
+        }
+
+        final List<String> trivia = facts.getTrivia(id);
+        final String flag = facts.getFlag(id) == null ? "" : facts.getFlag(id) + " ";
+        if (!trivia.isEmpty())
+        {
+            out.println("Did you know? " + flag + trivia.get(factsShown++ % trivia.size()));
+            return;
+        }
+
+        final long population = facts.getPopulation(id);
+        final String region = facts.getRegion(id);
+        if (population != CountryFacts.UNKNOWN_POPULATION && region != null)
+        {
+            out.printf("Did you know? %s%s is in %s and has about %,d people.%n", flag, country.getName(), region, population);
+        }
+        else if (population != CountryFacts.UNKNOWN_POPULATION)
+        {
+            out.printf("Did you know? %s%s has about %,d people.%n", flag, country.getName(), population);
+        }
+        else if (region != null)
+        {
+            out.printf("Did you know? %s%s is in %s.%n", flag, country.getName(), region);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import java.util.Random;
+
+/**
+ * Samples indexes in proportion to integer weights that can change between draws.
+ * The weights are kept in a Fenwick (binary indexed) tree of partial sums:
+ * - Building the tree is O(n); changing one weight and drawing one index are both O(log n), so a
+ *   sampler can reweight a few entries without touching the rest.
+ * - Weights are whole numbers, so the partial sums are exact however often they are updated;
+ *   an index whose weight is zero is never drawn.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class WeightTree
+{
+    private final long[] weights;
+    private final long[] tree;
+    private final int topStep;
+    private long total;
+
+    /**
+     * Builds a tree over the given weights.
+     *
+     * @param weights non-negative weights, copied
+     */
+    public WeightTree(final long[] weights)
+    {
+        final int n = weights.length;
+        this.weights = weights.clone();
+        this.tree = new long[n + 1];
+
+        for (int i = 0; i < n; i++)
+        {
+            if (weights[i] < 0)
+            {
+                throw new IllegalArgumentException("Weights must be non-negative: " + weights[i]);
+            }
+            total += weights[i];
+
+            // Each node adds itself to its parent, so the whole tree is built in one pass
+            final int node = i + 1;
+            tree[node] += weights[i];
+            final int parent = node + (node & -node);
+            if (parent <= n)
+            {
+                tree[parent] += tree[node];
+            }
+        }
+
+        this.topStep = n == 0 ? 0 : Integer.highestOneBit(n);
+    }
+
+    /**
+     * Changes the weight of one index.
+     *
+     * @param index  the index to reweight
+     * @param weight the new, non-negative weight
+     */
+    public void set(final int index,
+                    final long weight)
+    {
+        if (weight < 0)
+        {
+            throw new IllegalArgumentException("Weights must be non-negative: " + weight);
+        }
+
+        final long delta = weight - weights[index];
+        if (delta == 0)
+        {
+            return;
+        }
+
+        weights[index] = weight;
+        total += delta;
+        for (int node = index + 1; node < tree.length; node += node & -node)
+        {
+            tree[node] += delta;
+        }
+    }
+
+    /**
+     * Returns the current weight of an index.
+     *
+     * @param index the index to look up
+     * @return its weight
+     */
+    public long get(final int index)
+    {
+        return weights[index];
+    }
+
+    /**
+     * Returns the sum of all weights.
+     *
+     * @return the total weight; zero when nothing can be drawn
+     */
+    public long total()
+    {
+        return total;
+    }
+
+    /**
+     * Draws an index with probability proportional to its weight.
+     *
+     * @param random the source of randomness
+     * @return an index in the range [0, size)
+     * @throws IllegalStateException if every weight is zero
+     */
+    public int sample(final Random random)
+    {
+        if (total <= 0)
+        {
+            throw new IllegalStateException("A weight tree needs at least one positive weight to sample.");
+        }
+
+        // Walk down from the largest power of two, skipping every block whose sum is at most the target
+        long target = random.nextLong(total);
+        int node = 0;
+        for (int step = topStep; step > 0; step >>= 1)
+        {
+            final int next = node + step;
+            if (next < tree.length && tree[next] <= target)
+            {
+                node = next;
+                target -= tree[next];
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Returns the number of entries in the tree.
+     *
+     * @return the tree size
+     */
+    public int size()
+    {
+        return weights.length;
+    }
+}
@@ -5,31 +5,47 @@ import java.time.format.DateTimeFormatter;
 /**
  * Runs an interactive trivia game that quizzes the user on capital cities.
  * - Loads country and capital data from external text files.
- * - Selects random countries to ask the player for their capitals.
+ * - Favors countries the player often gets wrong, using per-country stats kept across sessions.
  * - Tracks score and saves performance at the end of each session.
  * - Supports playing multiple rounds in one session.
- * Game Rules:
+ * - Asks for capitals, for countries, or both mixed, as the player chooses (see QuizMode).
+ * - Suggests capitals starting with what the player typed, on request (see PrefixTrie).
+ * Game Rules (enforced by WordGameEngine):
  * - 10 questions per round.
  * - 2 attempts per question.
- * - Capital spelling is case-insensitive.
+ * - Capital spelling ignores case, accents and extra spaces (see World).
+ * - Small typos are forgiven unless the guess is closer to another capital (see FuzzyMatcher).
  * - Stats shown after each round, persisted on exit.
  * Dependencies:
  * - Relies on a `Country` class for holding country/capital pairs.
- * - Outputs final score to `score.txt`.
+ * - Outputs final score to `score.txt` (CSV) and a readable report to `score_report.txt`.
+ * - Keeps per-country accuracy in `country_stats.txt`.
+ * - Optionally shares facts about each country from `countries.facts` (see CountryFacts).
+ * - Compacts sessions older than 30 days out of `score.txt` into daily summaries (ScoreCompactor).
  * Error Handling:
  * - Continues gracefully on file read issues.
  * - Notifies the user if loading or saving fails.
- * - Displays high score info based on calculated points-per-game.
+ * - Displays high score info based on calculated points-per-game, from the best score cached by
+ *   ScoreRecorder; the session is saved in the background and save failures are reported later.
  *
  * @author Aleksandar Panich
  * @version 1.0
  */
 public class WordGame
 {
-    private static final int QUESTIONS_PER_ROUND = 10;
+    /**
+     * The CSV score file every WordGame session is saved to.
+     */
+    public static final String SCORE_FILE_NAME = "score.txt";
+
     private static final int MAX_FILE_PARTS = 2;
-    private static final String SCORE_FILE_NAME = "score.txt";
+    private static final String SCORE_REPORT_FILE_NAME = "score_report.txt";
+    private static final String STATS_FILE_NAME = "country_stats.txt";
     private static final String DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
+    private static final String MODE_CAPITALS = "c";
+    private static final String MODE_COUNTRIES = "n";
+    private static final String MODE_MIXED = "m";
+    private static final ScoreRecorder RECORDER = new ScoreRecorder(SCORE_FILE_NAME, SCORE_REPORT_FILE_NAME);
 
     /**
      * Loads country-capital data from a folder of `.txt` files.
@@ -39,12 +55,29 @@ public class WordGame
      * Behavior:
      * - Skips unreadable files but prints error messages to System.err.
      * - Throws IOException if no valid files are found.
+     * - See CountryLoader for the memory-mapped, parallel variant used for large banks.
      *
      * @param directoryPath path to the folder containing text files
      * @return list of Country objects parsed from files
      * @throws IOException if folder is invalid or unreadable
      */
     public static List<Country> loadCountriesFromDirectory(final String directoryPath) throws IOException
+    {
+        return loadCountriesFromDirectory(directoryPath, new NamePool());
+    }
+
+    /**
+     * Loads country-capital data from a folder of `.txt` files, sharing strings through a pool.
+     * Names repeated across lines and files are stored once, so the countries share storage; the
+     * pool can then report the footprint of the load (see NamePool.describeFootprint).
+     *
+     * @param directoryPath path to the folder containing text files
+     * @param pool          the load-scoped pool every name is routed through
+     * @return list of Country objects parsed from files
+     * @throws IOException if folder is invalid or unreadable
+     */
+    public static List<Country> loadCountriesFromDirectory(final String directoryPath,
+                                                           final NamePool pool) throws IOException
     {
         final List<Country> countries = new ArrayList<>();
         final File folder = new File(directoryPath);
@@ -65,7 +98,7 @@ public class WordGame
                     final String[] parts = line.split(",");
                     if (parts.length == MAX_FILE_PARTS)
                     {
-                        countries.add(new Country(parts[0].trim(), parts[1].trim(), null));
+                        countries.add(new Country(parts[0].trim(), parts[1].trim(), null, pool));
                     }
                 }
             }
@@ -80,13 +113,17 @@ public class WordGame
 
     /**
      * Runs the main loop for the Word Game trivia session.
-     * - Randomly selects 10 countries per round.
-     * - Prompts the user to guess each capital (2 attempts).
+     * - Asks which kind of questions to play: capitals, countries or mixed.
+     * - Draws 10 countries per round, weighted toward the player's weak spots (AdaptiveSampler);
+     *   no country repeats within a round, but weak ones come back sooner than with a QuestionDeck.
+     * - Prompts the user to guess each capital or country (2 attempts).
      * - Tracks results (first try, second try, failures).
      * - Displays round statistics and cumulative results.
      * - Prompts to play again or exit.
-     * - On exit, saves stats to `score.txt` and checks for new high score.
+     * - On exit, saves stats to `country_stats.txt`, shows the high score comparison and queues the
+     *   session to be saved to `score.txt` in the background.
      * Input Handling:
+     * - The rules run in WordGameEngine; this method wires it to the console.
      * - All user input is read via Scanner from System.in.
      * - Input is case-insensitive and trimmed.
      * - Invalid play-again responses are re-prompted until valid.
@@ -95,133 +132,152 @@ public class WordGame
      */
     public static void playGame(final List<Country> countries)
     {
-        try
+        playGame(countries, null);
+    }
+
+    /**
+     * Runs a Word Game trivia session that shares a fact about each country once it is answered.
+     * The facts are only read when the first one is shown.
+     *
+     * @param countries the list of playable countries to quiz from
+     * @param facts     the facts to share, or null to share none
+     */
+    public static void playGame(final List<Country> countries,
+                                final CountryFacts facts)
+    {
+        // Roll old sessions out of the score file in the background so reads stay short, and
+        // report failures to the score report rather than the console the player is reading
+        try (ScoreCompactor compactor = new ScoreCompactor(SCORE_FILE_NAME, ScoreCompactor.DEFAULT_RETAIN_DAYS,
+                RECORDER::reportProblem))
         {
+            compactor.start();
+            // Load the best score while the player plays, so the result can be shown at once
+            RECORDER.warmUp();
             final Scanner scanner = new Scanner(System.in);
-            final Random random = new Random();
-
-            int totalGames = 0;
-            int firstTry = 0;
-            int secondTry = 0;
-            int failed = 0;
-
-            boolean keepPlaying = true;
-
-            while (keepPlaying)
+            final PrintWriter console = new PrintWriter(System.out, true);
+            final QuizMode mode = askQuizMode(scanner, console);
+            if (mode == null)
             {
-                int correct1 = 0;
-                int correct2 = 0;
-                int incorrect = 0;
-
-                for (int i = 0; i < QUESTIONS_PER_ROUND; i++)
-                {
-                    final Country selected = countries.get(random.nextInt(countries.size()));
-                    final String answer = selected.getCapitalCityName();
-
-                    System.out.println("What is the capital of " + selected.getName() + "?");
-                    System.out.print("Your guess: ");
-                    final String guess1 = scanner.nextLine().trim();
-
-                    if (guess1.equalsIgnoreCase(answer))
-                    {
-                        System.out.println("CORRECT");
-                        correct1++;
-                        continue;
-                    }
-
-                    System.out.println("INCORRECT. Try again.");
-                    System.out.print("Second guess: ");
-                    final String guess2 = scanner.nextLine().trim();
-
-                    if (guess2.equalsIgnoreCase(answer))
-                    {
-                        System.out.println("CORRECT");
-                        correct2++;
-                    }
-                    else
-                    {
-                        System.out.println("INCORRECT. The correct answer was " + answer);
-                        incorrect++;
-                    }
-                }
+                return;
+            }
 
-                totalGames++;
-                firstTry += correct1;
-                secondTry += correct2;
-                failed += incorrect;
+            final CountryStats stats = CountryStats.readFromFile(STATS_FILE_NAME);
+            final World world = new World(countries);
+            // Draw from the World, not the raw list, so a country defined in several files is asked
+            // once, with the definition the answers are checked against
+            final List<Country> playable = world.getCountries();
+            final FuzzyMatcher matcher = new FuzzyMatcher(world, FuzzyMatcher.DEFAULT_MAX_EDIT_DISTANCE);
+            final WordGameEngine engine = new WordGameEngine(playable, matcher,
+                    new AdaptiveSampler(playable, stats), mode);
 
-                System.out.println();
-                System.out.println("- " + totalGames + (totalGames == 1 ? " word game played" : " word games played"));
-                System.out.println("- " + firstTry + " correct answers on the first attempt");
-                System.out.println("- " + secondTry + " correct answers on the second attempt");
-                System.out.println("- " + failed + " incorrect answers on two attempts each");
-                System.out.println();
+            final AnswerSource answers = new TextAnswerSource(
+                    () -> scanner.hasNextLine() ? scanner.nextLine() : null, console, PrefixTrie.ofCapitals(world));
+            console.println("Stuck on a capital? Type its first letters followed by "
+                    + TextAnswerSource.HINT_SUFFIX + " for suggestions.");
 
-                System.out.print("Do you want to play again? (Yes/No): ");
-                String input = scanner.nextLine().trim();
+            final Score finalScore = engine.play(answers, new TextEventSink(console, facts));
 
-                while (!input.equalsIgnoreCase("yes") && !input.equalsIgnoreCase("no"))
-                {
-                    System.out.println("Invalid response. Please enter Yes or No.");
-                    System.out.print("Do you want to play again? ");
-                    input = scanner.nextLine().trim();
-                }
+            // Persist per-country accuracy so the next session can focus on weak spots
+            stats.writeToFile(STATS_FILE_NAME);
 
-                if (input.equalsIgnoreCase("no"))
-                {
-                    // Create a new score object and save it to file
-                    final Score finalScore = new Score(totalGames, firstTry, secondTry, failed);
-                    Score.appendFormattedScoreToFile(finalScore, SCORE_FILE_NAME);
+            if (finalScore != null)
+            {
+                reportHighScore(finalScore);
+            }
+        }
+        catch (IOException e)
+        {
+            System.out.println("An error occurred during the game: " + e.getMessage());
+        }
+    }
 
-                    // Calculate the average score for the current session
-                    double finalAvg = (double) finalScore.getScore() / finalScore.getNumGamesPlayed();
+    /**
+     * Asks the player which kind of questions to play, re-prompting until the answer is valid.
+     *
+     * @param scanner reads the player's answer
+     * @param console where the prompt is printed
+     * @return the chosen mode, or null if input has ended
+     */
+    private static QuizMode askQuizMode(final Scanner scanner,
+                                        final PrintWriter console)
+    {
+        while (true)
+        {
+            console.print("Guess capitals (C), countries (N) or both mixed (M)? ");
+            console.flush();
+            if (!scanner.hasNextLine())
+            {
+                return null;
+            }
 
-                    // Load all existing scores from the file to find the highest previous average
-                    List<Score> allScores = Score.readScoresFromFile(SCORE_FILE_NAME);
-                    Score best = null;
-                    double bestAvg = 0;
+            final String input = scanner.nextLine().trim().toLowerCase();
+            switch (input)
+            {
+                case MODE_CAPITALS:
+                    return QuizMode.CAPITAL_OF_COUNTRY;
+                case MODE_COUNTRIES:
+                    return QuizMode.COUNTRY_OF_CAPITAL;
+                case MODE_MIXED:
+                    return QuizMode.MIXED;
+                default:
+                    console.println("Invalid response. Please enter C, N or M.");
+            }
+        }
+    }
 
-                    for (Score s : allScores)
-                    {
-                        double avg = (double) s.getScore() / s.getNumGamesPlayed();
-                        if (avg > bestAvg)
-                        {
-                            bestAvg = avg;
-                            best = s;
-                        }
-                    }
+    /**
+     * Tells the player how a finished session compares with the best so far and saves it.
+     * The comparison uses the best score cached by RECORDER, so it is shown at once; the session
+     * is saved in the background and the player is told later whether that succeeded.
+     *
+     * @param finalScore the results of the session that just ended
+     * @throws IOException if the best score cannot be loaded
+     */
+    private static void reportHighScore(final Score finalScore) throws IOException
+    {
+        final Score best = RECORDER.getBest();
+        RECORDER.record(finalScore).whenComplete((saved, failure) ->
+        {
+            if (failure != null)
+            {
+                System.out.println("Failed to save your score: " + rootMessage(failure));
+            }
+        });
 
-                    // Determine if the new score beats the previous best
-                    if (best == null || finalAvg > bestAvg)
-                    {
-                        System.out.printf("CONGRATULATIONS! You are the new high score with an " +
-                                "average of %.2f points per game", finalAvg);
-                        if (best != null)
-                        {
-                            System.out.printf("; the previous record was %.2f points per game on %s\n",
-                                    bestAvg,
-                                    best.getDateTimePlayed().format(DateTimeFormatter.ofPattern(DATE_TIME_FORMAT)));
-                        }
-                        else
-                        {
-                            System.out.println("; this is the first recorded score.");
-                        }
-                    }
-                    else
-                    {
-                        System.out.printf("You did not beat the high score of %.2f points per game from %s\n",
-                                bestAvg,
-                                best.getDateTimePlayed().format(DateTimeFormatter.ofPattern(DATE_TIME_FORMAT)));
-                    }
+        // Calculate the average score for the current session
+        final double finalAvg = finalScore.getAveragePerGame();
 
-                    // Exit the game loop
-                    keepPlaying = false;
-                }
+        // Determine if the new score beats the previous best
+        if (best == null || finalAvg > best.getAveragePerGame())
+        {
+            System.out.printf("CONGRATULATIONS! You are the new high score with an " +
+                    "average of %.2f points per game", finalAvg);
+            if (best != null)
+            {
+                System.out.printf("; the previous record was %.2f points per game on %s\n",
+                        best.getAveragePerGame(),
+                        best.getDateTimePlayed().format(DateTimeFormatter.ofPattern(DATE_TIME_FORMAT)));
+            }
+            else
+            {
+                System.out.println("; this is the first recorded score.");
             }
         }
-        catch (IOException e)
+        else
         {
-            System.out.println("An error occurred during the game: " + e.getMessage());
+            System.out.printf("You did not beat the high score of %.2f points per game from %s\n",
+                    best.getAveragePerGame(),
+                    best.getDateTimePlayed().format(DateTimeFormatter.ofPattern(DATE_TIME_FORMAT)));
+        }
+    }
+
+    private static String rootMessage(final Throwable failure)
+    {
+        Throwable cause = failure;
+        while (cause.getCause() != null)
+        {
+            cause = cause.getCause();
         }
+        return cause.getMessage();
     }
 }
\ No newline at end of file
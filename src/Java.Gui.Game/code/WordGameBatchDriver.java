@@ -0,0 +1,242 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many scripted WordGame sessions in parallel for load and regression testing.
+ * Each session drives its own WordGameEngine with a seeded deck from its bank (see
+ * QuestionBank.newDeck; a ShardedBank deals shard by shard) and a scripted player
+ * who answers correctly with a fixed probability, so a batch with the same seed always produces
+ * the same scores. The question bank and FuzzyMatcher are built once and shared by all sessions.
+ * Usage: WordGameBatchDriver [sessions] [threads] [data directory] [quiz mode] [shard budget KB]
+ * - Without a data directory, a synthetic bank of countries is generated.
+ * - The quiz mode is a QuizMode name and defaults to CAPITAL_OF_COUNTRY.
+ * - With a shard budget, the data directory is played as a ShardedBank that keeps at most about
+ *   that many kilobytes of shards on the heap, instead of being loaded whole.
+ * - Prints the heap footprint of the question bank (see NamePool), or for a sharded bank how much
+ *   of it was resident at the end, then the number of sessions, elapsed time and sessions per
+ *   second when done.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class WordGameBatchDriver
+{
+    private static final int DEFAULT_SESSIONS = 10_000;
+    private static final int SYNTHETIC_BANK_SIZE = 250;
+    private static final long BASE_SEED = 2522L;
+    private static final int MAX_ROUNDS_PER_SESSION = 3;
+    private static final double FIRST_TRY_ACCURACY = 0.7;
+    private static final double SECOND_TRY_ACCURACY = 0.5;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final long BYTES_PER_KILOBYTE = 1024L;
+    private static final String WRONG_ANSWER = "?";
+
+    private WordGameBatchDriver()
+    {
+    }
+
+    /**
+     * Runs a batch from the command line and reports its throughput.
+     *
+     * @param args optional session count, thread count, data directory, quiz mode and shard budget
+     * @throws IOException if the data directory cannot be loaded
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        final int sessions = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SESSIONS;
+        final int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final QuizMode mode = args.length > 3 ? QuizMode.valueOf(args[3]) : QuizMode.CAPITAL_OF_COUNTRY;
+
+        final ShardedBank shards;
+        final QuestionBank bank;
+        if (args.length > 4)
+        {
+            shards = ShardedBank.open(args[2], Long.parseLong(args[4]) * BYTES_PER_KILOBYTE);
+            bank = shards;
+        }
+        else
+        {
+            final NamePool pool = new NamePool();
+            final List<Country> countries = args.length > 2 ? CountrySnapshot.load(args[2], pool) : syntheticBank(pool);
+            System.out.println(pool.describeFootprint(countries.size()));
+            shards = null;
+            final World world = new World(countries);
+            bank = QuestionBank.of(world.getCountries(),
+                    new FuzzyMatcher(world, FuzzyMatcher.DEFAULT_MAX_EDIT_DISTANCE));
+        }
+
+        final long start = System.nanoTime();
+        final List<Score> scores = runSessions(bank, sessions, threads, BASE_SEED, mode);
+        final double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+
+        if (shards != null)
+        {
+            System.out.println(shards.describeResidency());
+        }
+
+        long games = 0;
+        long points = 0;
+        for (Score score : scores)
+        {
+            games += score.getNumGamesPlayed();
+            points += score.getScore();
+        }
+
+        System.out.printf("%d sessions (%d rounds) on %d threads in %.3f s: %.0f sessions per second%n",
+                scores.size(), games, threads, seconds, scores.size() / seconds);
+        System.out.printf("Average of %.2f points per game%n", games == 0 ? 0.0 : (double) points / games);
+    }
+
+    /**
+     * Plays a batch of scripted sessions over a shared question bank.
+     *
+     * @param countries the question bank shared by every session
+     * @param sessions  the number of sessions to play
+     * @param threads   the number of worker threads
+     * @param seed      the batch seed; session i is seeded with seed + i
+     * @return the final score of every session, in session order
+     */
+    public static List<Score> runSessions(final List<Country> countries,
+                                          final int sessions,
+                                          final int threads,
+                                          final long seed)
+    {
+        return runSessions(countries, sessions, threads, seed, QuizMode.CAPITAL_OF_COUNTRY);
+    }
+
+    /**
+     * Plays a batch of scripted sessions of a given quiz mode over a shared question bank.
+     *
+     * @param countries the question bank shared by every session
+     * @param sessions  the number of sessions to play
+     * @param threads   the number of worker threads
+     * @param seed      the batch seed; session i is seeded with seed + i
+     * @param mode      the kind of questions every session asks
+     * @return the final score of every session, in session order
+     */
+    public static List<Score> runSessions(final List<Country> countries,
+                                          final int sessions,
+                                          final int threads,
+                                          final long seed,
+                                          final QuizMode mode)
+    {
+        // Sessions draw from the World, so a duplicated country is asked once, as the matcher knows it
+        final World world = new World(countries);
+        final FuzzyMatcher matcher = new FuzzyMatcher(world, FuzzyMatcher.DEFAULT_MAX_EDIT_DISTANCE);
+        return runSessions(QuestionBank.of(world.getCountries(), matcher), sessions, threads, seed, mode);
+    }
+
+    /**
+     * Plays a batch of scripted sessions of a given quiz mode over any question bank, such as a
+     * ShardedBank that loads its countries as the sessions draw them.
+     *
+     * @param bank     the question bank shared by every session
+     * @param sessions the number of sessions to play
+     * @param threads  the number of worker threads
+     * @param seed     the batch seed; session i is seeded with seed + i
+     * @param mode     the kind of questions every session asks
+     * @return the final score of every session, in session order
+     */
+    public static List<Score> runSessions(final QuestionBank bank,
+                                          final int sessions,
+                                          final int threads,
+                                          final long seed,
+                                          final QuizMode mode)
+    {
+        final ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        try
+        {
+            final List<Future<Score>> futures = new ArrayList<>(sessions);
+            for (int i = 0; i < sessions; i++)
+            {
+                final long sessionSeed = seed + i;
+                futures.add(pool.submit(() -> playSession(bank, sessionSeed, mode)));
+            }
+
+            final List<Score> scores = new ArrayList<>(sessions);
+            for (Future<Score> future : futures)
+            {
+                scores.add(future.get());
+            }
+            return scores;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch interrupted", e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("Session failed", e.getCause());
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Score playSession(final QuestionBank bank,
+                                     final long seed,
+                                     final QuizMode mode)
+    {
+        final WordGameEngine engine = new WordGameEngine(bank, bank.newDeck(seed), mode);
+        return engine.play(new ScriptedAnswerSource(seed), new GameEventSink()
+        {
+        });
+    }
+
+    private static List<Country> syntheticBank(final NamePool pool)
+    {
+        final List<Country> countries = new ArrayList<>(SYNTHETIC_BANK_SIZE);
+        for (int i = 0; i < SYNTHETIC_BANK_SIZE; i++)
+        {
+            countries.add(new Country("Country " + i, "Capital " + i, null, pool));
+        }
+        return countries;
+    }
+
+    /**
+     * A player who answers correctly with fixed probabilities and plays a random number of rounds.
+     */
+    private static final class ScriptedAnswerSource implements AnswerSource
+    {
+        private final Random random;
+        private int roundsLeft;
+
+        ScriptedAnswerSource(final long seed)
+        {
+            this.random = new Random(seed);
+            this.roundsLeft = 1 + random.nextInt(MAX_ROUNDS_PER_SESSION);
+        }
+
+        @Override
+        public String nextGuess(final Country country,
+                                final int attempt)
+        {
+            final double accuracy = attempt == 1 ? FIRST_TRY_ACCURACY : SECOND_TRY_ACCURACY;
+            return random.nextDouble() < accuracy ? country.getCapitalCityName() : WRONG_ANSWER;
+        }
+
+        @Override
+        public String nextGuess(final Question question,
+                                final int attempt)
+        {
+            final double accuracy = attempt == 1 ? FIRST_TRY_ACCURACY : SECOND_TRY_ACCURACY;
+            return random.nextDouble() < accuracy ? question.getAnswers().get(0) : WRONG_ANSWER;
+        }
+
+        @Override
+        public boolean playAgain()
+        {
+            roundsLeft--;
+            return roundsLeft > 0;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+import java.util.List;
+
+/**
+ * Runs the round, attempt and scoring rules of the WordGame without any console dependency.
+ * Questions come from a QuestionSampler, answers from an AnswerSource and every step of the game
+ * is reported to a GameEventSink, so the same rules drive the interactive console game, scripted
+ * load tests and network sessions.
+ * Game Rules:
+ * - 10 questions per round.
+ * - 2 attempts per question; 2 points on the first try, 1 point on the second.
+ * - Guesses are checked by a FuzzyMatcher, so case, accents and small typos are forgiven.
+ * - The QuizMode decides whether each question asks for a capital or for a country.
+ * An engine holds the state of one session. The question bank is only read, so one bank can be
+ * shared by many engines running on different threads.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class WordGameEngine
+{
+    /**
+     * Number of questions asked in each round.
+     */
+    public static final int QUESTIONS_PER_ROUND = 10;
+
+    private static final int FIRST_ATTEMPT = 1;
+    private static final int SECOND_ATTEMPT = 2;
+
+    private final QuestionBank bank;
+    private final QuestionSampler sampler;
+    private final QuizMode mode;
+
+    private int questionsAsked;
+    private int totalGames;
+    private int firstTry;
+    private int secondTry;
+    private int failed;
+
+    /**
+     * Creates an engine for one session that asks for capitals.
+     *
+     * @param countries the question bank the sampler's indexes refer to
+     * @param matcher   the answer checker built over the same bank
+     * @param sampler   chooses the questions of this session
+     */
+    public WordGameEngine(final List<Country> countries,
+                          final FuzzyMatcher matcher,
+                          final QuestionSampler sampler)
+    {
+        this(countries, matcher, sampler, QuizMode.CAPITAL_OF_COUNTRY);
+    }
+
+    /**
+     * Creates an engine for one session.
+     *
+     * @param countries the question bank the sampler's indexes refer to
+     * @param matcher   the answer checker built over the same bank
+     * @param sampler   chooses the questions of this session
+     * @param mode      the kind of questions to ask
+     */
+    public WordGameEngine(final List<Country> countries,
+                          final FuzzyMatcher matcher,
+                          final QuestionSampler sampler,
+                          final QuizMode mode)
+    {
+        this(QuestionBank.of(countries, matcher), sampler, mode);
+    }
+
+    /**
+     * Creates an engine for one session over a bank that supplies a matcher with each question.
+     *
+     * @param bank    the question bank the sampler's indexes refer to
+     * @param sampler chooses the questions of this session
+     * @param mode    the kind of questions to ask
+     */
+    public WordGameEngine(final QuestionBank bank,
+                          final QuestionSampler sampler,
+                          final QuizMode mode)
+    {
+        this.bank = bank;
+        this.sampler = sampler;
+        this.mode = mode;
+    }
+
+    /**
+     * Plays rounds until the player declines another round or the answer source runs dry.
+     * A round interrupted because the source ran dry is not counted.
+     *
+     * @param source supplies guesses and play-again decisions
+     * @param sink   receives every game event
+     * @return the session results, or null if no round was completed
+     */
+    public Score play(final AnswerSource source,
+                      final GameEventSink sink)
+    {
+        boolean keepPlaying = true;
+
+        while (keepPlaying)
+        {
+            if (!playRound(source, sink))
+            {
+                break;
+            }
+
+            sink.onRoundComplete(new Score(totalGames, firstTry, secondTry, failed));
+            keepPlaying = source.playAgain();
+        }
+
+        final Score finalScore = totalGames == 0 ? null : new Score(totalGames, firstTry, secondTry, failed);
+        sink.onSessionEnd(finalScore);
+        return finalScore;
+    }
+
+    /*
+     * Plays one round and folds its results into the session totals.
+     * Returns false, leaving the totals untouched, if the answer source ran dry.
+     */
+    private boolean playRound(final AnswerSource source,
+                              final GameEventSink sink)
+    {
+        int correct1 = 0;
+        int correct2 = 0;
+        int incorrect = 0;
+
+        for (int i = 0; i < QUESTIONS_PER_ROUND; i++)
+        {
+            final int index = sampler.next();
+            final QuestionBank.Item item = bank.item(index);
+            final FuzzyMatcher matcher = item.getMatcher();
+            final Question selected = mode.questionFor(matcher.getWorld(), item.getCountry(), questionsAsked++);
+            sink.onQuestion(selected);
+
+            final String guess1 = source.nextGuess(selected, FIRST_ATTEMPT);
+            if (guess1 == null)
+            {
+                return false;
+            }
+
+            if (matcher.matches(selected, guess1))
+            {
+                sink.onCorrect(selected, AnswerOutcome.FIRST_TRY);
+                sampler.record(index, AnswerOutcome.FIRST_TRY);
+                correct1++;
+                continue;
+            }
+
+            sink.onRetry(selected);
+            final String guess2 = source.nextGuess(selected, SECOND_ATTEMPT);
+            if (guess2 == null)
+            {
+                return false;
+            }
+
+            if (matcher.matches(selected, guess2))
+            {
+                sink.onCorrect(selected, AnswerOutcome.SECOND_TRY);
+                sampler.record(index, AnswerOutcome.SECOND_TRY);
+                correct2++;
+            }
+            else
+            {
+                sink.onMissed(selected);
+                sampler.record(index, AnswerOutcome.MISSED);
+                incorrect++;
+            }
+        }
+
+        sampler.endRound();
+
+        totalGames++;
+        firstTry += correct1;
+        secondTry += correct2;
+        failed += incorrect;
+        return true;
+    }
+}
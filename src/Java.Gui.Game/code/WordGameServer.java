@@ -0,0 +1,363 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hosts WordGame for many players at once over a line-based TCP connection (for example telnet).
+ * Every connection gets its own virtual thread running a WordGameEngine session, so thousands of
+ * mostly idle players cost little more than their sockets. The question bank and FuzzyMatcher
+ * are shared read-only by every session; each session has its own QuestionDeck.
+ * When the server is started with a CountryWatcher, each session takes the watcher's current
+ * snapshot when it starts, so edits to the data files reach new players without a restart while
+ * players already in a session keep the questions they started with.
+ * Finished sessions can be persisted through a shared ScoreWriter, so many players ending at once
+ * cost one group commit instead of one file append each. Closing the server waits for every
+ * disconnected session to hand its score to the writer, so the writer can be closed right after.
+ * The server is meant for players on the same machine and listens on the loopback interface only.
+ * Protocol:
+ * - The server sends the same prompts as the console game, one line per message.
+ * - The client answers one line per prompt; closing the connection ends the session.
+ * - A line longer than MAX_LINE_LENGTH characters also ends the session, so one client cannot
+ *   fill the heap with a line that never ends.
+ *
+ * @author Aleksandar Panich
+ * @version 1.0
+ */
+public final class WordGameServer implements Closeable
+{
+    /**
+     * The port used when none is given.
+     */
+    public static final int DEFAULT_PORT = 2522;
+
+    /**
+     * The longest line a client may send, in characters.
+     */
+    public static final int MAX_LINE_LENGTH = 1024;
+
+    private static final int ACCEPT_BACKLOG = 4096;
+    private static final long ACCEPT_RETRY_MILLIS = 100;
+    private static final long SHUTDOWN_WAIT_SECONDS = 10;
+
+    private final Supplier<CountryWatcher.Snapshot> questionBank;
+    private final ServerSocket serverSocket;
+    private final ScoreWriter scoreWriter;
+    private final ExecutorService sessions;
+    private final Set<Socket> openSockets;
+    private final AtomicInteger activeSessions;
+    private final AtomicInteger completedSessions;
+
+    private WordGameServer(final Supplier<CountryWatcher.Snapshot> questionBank,
+                           final ServerSocket serverSocket,
+                           final ScoreWriter scoreWriter)
+    {
+        this.questionBank = questionBank;
+        this.serverSocket = serverSocket;
+        this.scoreWriter = scoreWriter;
+        this.sessions = Executors.newVirtualThreadPerTaskExecutor();
+        this.openSockets = ConcurrentHashMap.newKeySet();
+        this.activeSessions = new AtomicInteger();
+        this.completedSessions = new AtomicInteger();
+    }
+
+    /**
+     * Starts a server and begins accepting players in the background.
+     *
+     * @param countries the question bank shared by all sessions
+     * @param port      the TCP port to listen on, or 0 for any free port
+     * @return the running server
+     * @throws IOException if the port cannot be opened
+     */
+    public static WordGameServer start(final List<Country> countries,
+                                       final int port) throws IOException
+    {
+        return start(countries, port, null);
+    }
+
+    /**
+     * Starts a server that saves every finished session, and begins accepting players.
+     * The server does not close the writer; its owner does, after closing the server.
+     *
+     * @param countries   the question bank shared by all sessions
+     * @param port        the TCP port to listen on, or 0 for any free port
+     * @param scoreWriter receives the final score of every session, or null to keep no scores
+     * @return the running server
+     * @throws IOException if the port cannot be opened
+     */
+    public static WordGameServer start(final List<Country> countries,
+                                       final int port,
+                                       final ScoreWriter scoreWriter) throws IOException
+    {
+        if (countries.isEmpty())
+        {
+            throw new IllegalArgumentException("The question bank is empty.");
+        }
+
+        final CountryWatcher.Snapshot snapshot = CountryWatcher.Snapshot.of(countries);
+        return start(() -> snapshot, port, scoreWriter);
+    }
+
+    /**
+     * Starts a server whose sessions use the latest countries of a watched directory.
+     * The server does not close the watcher or the writer; their owner does, after closing the server.
+     *
+     * @param watcher     supplies the question bank each session starts with
+     * @param port        the TCP port to listen on, or 0 for any free port
+     * @param scoreWriter receives the final score of every session, or null to keep no scores
+     * @return the running server
+     * @throws IOException if the port cannot be opened
+     */
+    public static WordGameServer start(final CountryWatcher watcher,
+                                       final int port,
+                                       final ScoreWriter scoreWriter) throws IOException
+    {
+        return start(watcher::current, port, scoreWriter);
+    }
+
+    private static WordGameServer start(final Supplier<CountryWatcher.Snapshot> questionBank,
+                                        final int port,
+                                        final ScoreWriter scoreWriter) throws IOException
+    {
+        final ServerSocket serverSocket = new ServerSocket(port, ACCEPT_BACKLOG, InetAddress.getLoopbackAddress());
+        final WordGameServer server = new WordGameServer(questionBank, serverSocket, scoreWriter);
+        Thread.ofVirtual().name("wordgame-acceptor").start(server::acceptLoop);
+        return server;
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return the local port
+     */
+    public int getPort()
+    {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the number of sessions currently being played.
+     *
+     * @return the number of connected players
+     */
+    public int getActiveSessions()
+    {
+        return activeSessions.get();
+    }
+
+    /**
+     * Returns the number of sessions that have ended since the server started.
+     *
+     * @return the number of finished sessions
+     */
+    public int getCompletedSessions()
+    {
+        return completedSessions.get();
+    }
+
+    /**
+     * Stops accepting players, disconnects everyone still playing and waits for their sessions to
+     * end, so every completed round has been submitted to the score writer when this returns.
+     * Sessions still running after SHUTDOWN_WAIT_SECONDS are interrupted.
+     *
+     * @throws IOException if the listening socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        serverSocket.close();
+        for (Socket socket : openSockets)
+        {
+            closeQuietly(socket);
+        }
+
+        // A closed socket ends its session's next read, which then saves the rounds it completed
+        sessions.shutdown();
+        try
+        {
+            if (!sessions.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS))
+            {
+                sessions.shutdownNow();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            sessions.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop()
+    {
+        while (!serverSocket.isClosed())
+        {
+            try
+            {
+                final Socket socket = serverSocket.accept();
+                openSockets.add(socket);
+                try
+                {
+                    sessions.execute(() -> serve(socket));
+                }
+                catch (RejectedExecutionException e)
+                {
+                    // Accepted just as the server closed; the player never starts a session
+                    openSockets.remove(socket);
+                    closeQuietly(socket);
+                    return;
+                }
+            }
+            catch (IOException e)
+            {
+                if (serverSocket.isClosed())
+                {
+                    return;
+                }
+
+                // Typically out of file descriptors under load; back off instead of spinning
+                System.out.println("Failed to accept a connection: " + e.getMessage());
+                try
+                {
+                    Thread.sleep(ACCEPT_RETRY_MILLIS);
+                }
+                catch (InterruptedException interrupted)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void serve(final Socket socket)
+    {
+        activeSessions.incrementAndGet();
+
+        try (socket;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new BufferedWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))))
+        {
+            out.println("Welcome to WordGame! Answer each question and press Enter.");
+
+            // One snapshot for the whole session, however the data files change meanwhile
+            final CountryWatcher.Snapshot snapshot = questionBank.get();
+            if (snapshot.getCountries().isEmpty())
+            {
+                out.println("No questions are available right now. Please try again later.");
+                out.flush();
+                return;
+            }
+
+            final List<Country> countries = snapshot.getCountries();
+            final WordGameEngine engine = new WordGameEngine(countries, snapshot.getMatcher(),
+                    new QuestionDeck(countries.size()));
+            final Score finalScore = engine.play(new TextAnswerSource(() -> readLine(in), out, snapshot.getHints()),
+                    new TextEventSink(out));
+
+            if (finalScore != null)
+            {
+                save(finalScore);
+                out.printf("Final score: %d points over %d games. Goodbye!%n",
+                        finalScore.getScore(), finalScore.getNumGamesPlayed());
+            }
+            out.flush();
+        }
+        catch (IOException | UncheckedIOException e)
+        {
+            // The player disconnected; nothing to clean up beyond the socket
+        }
+        finally
+        {
+            openSockets.remove(socket);
+            activeSessions.decrementAndGet();
+            completedSessions.incrementAndGet();
+        }
+    }
+
+    private void save(final Score finalScore)
+    {
+        if (scoreWriter == null)
+        {
+            return;
+        }
+
+        try
+        {
+            scoreWriter.submit(finalScore).whenComplete((ignored, failure) ->
+            {
+                if (failure != null)
+                {
+                    System.out.println("Failed to save a session score: " + failure.getMessage());
+                }
+            });
+        }
+        catch (IllegalStateException e)
+        {
+            // The writer's owner closed it without closing this server first
+            System.out.println("Failed to save a session score: " + e.getMessage());
+        }
+    }
+
+    /*
+     * Reads one line of at most MAX_LINE_LENGTH characters, without its line terminator.
+     * Returns null at the end of the stream, on a read error, or if the line is too long.
+     */
+    static String readLine(final Reader in)
+    {
+        final StringBuilder line = new StringBuilder();
+        try
+        {
+            int c;
+            while ((c = in.read()) != -1)
+            {
+                if (c == '\n')
+                {
+                    final int end = line.length();
+                    return end > 0 && line.charAt(end - 1) == '\r' ? line.substring(0, end - 1) : line.toString();
+                }
+                if (line.length() == MAX_LINE_LENGTH)
+                {
+                    return null;
+                }
+                line.append((char) c);
+            }
+            return line.length() == 0 ? null : line.toString();
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
+
+    private static void closeQuietly(final Socket socket)
+    {
+        try
+        {
+            socket.close();
+        }
+        catch (IOException e)
+        {
+            // Already closed
+        }
+    }
+}
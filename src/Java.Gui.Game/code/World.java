@@ -1,59 +1,482 @@
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 /**
- * Represents a collection of Country objects organized by country name.
- * The World class acts as a container for storing and managing a global set of countries,
- * where each country is uniquely identified by its name. Internally, it uses a HashMap to
- * efficiently retrieve, add, and manage Country instances.
- * - countries: A HashMap mapping country names (String) to Country objects. This structure
- *   allows for quick lookups and ensures uniqueness based on the country name.
+ * Represents a collection of Country objects indexed for fast, forgiving lookups.
+ * The World class acts as a container for storing and managing a global set of countries.
+ * Countries are indexed by the normalized form of their name and of their capital city, so
+ * "cote d'ivoire", "Côte d'Ivoire" and "  CÔTE  D'IVOIRE " all find the same entry.
+ * - byName: An open-addressing table mapping normalized country names to Country objects.
+ * - byCapital: An open-addressing table mapping each normalized capital name back to every
+ *   Country that has it, so the index is bidirectional and multi-valued in both directions: a
+ *   country can have several capitals (see Country) and a capital can be claimed by several
+ *   countries.
+ * - countries: The countries in insertion order, for iteration and random selection.
+ * Replacing or removing a country only unlinks it from the indexes, which is O(1); its entry in
+ * countries goes stale and is dropped by the next compaction, so loading many overlapping files
+ * stays linear instead of paying an O(n) list removal per duplicate. Compaction is one pass that
+ * keeps each live country at its last position, and runs when stale entries outnumber live ones
+ * or when getCountries is called. A World shared between threads must therefore not be changed
+ * after getCountries was last called; CountryWatcher snapshots and FuzzyMatcher both call it
+ * before sharing.
+ * The normalized keys are precomputed by Country, so building the index and checking an answer
+ * never re-normalize a stored name; only the player's input is normalized, once per lookup.
  *
  * @author Aleksandar Panich
  * @version 1.0
  */
 public class World
 {
-    private final HashMap<String, Country> countries;
+    private final Index<Country> byName;
+    private final Index<Country[]> byCapital;
+    private final List<Country> countries;
 
     /**
      * Constructs a new, empty World object.
-     * Initializes the internal HashMap used to store countries.
+     * Initializes the internal indexes used to store countries.
      */
     public World()
     {
-        countries = new HashMap<>();
+        byName = new Index<>();
+        byCapital = new Index<>();
+        countries = new ArrayList<>();
+    }
+
+    /**
+     * Constructs a World containing the given countries.
+     *
+     * @param countries the countries to index, typically straight from the loader
+     */
+    public World(final Collection<Country> countries)
+    {
+        byName = new Index<>();
+        byCapital = new Index<>();
+        this.countries = new ArrayList<>(countries.size());
+        for (Country country : countries)
+        {
+            put(country);
+        }
+        compact();
+    }
+
+    /**
+     * Constructs an independent copy of another World.
+     * The indexes are copied as arrays, so no key is hashed or normalized again; this is what
+     * makes copy-on-write updates (see CountryWatcher) cheap.
+     *
+     * @param other the World to copy
+     */
+    public World(final World other)
+    {
+        byName = new Index<>(other.byName);
+        byCapital = new Index<>(other.byCapital);
+        countries = new ArrayList<>(other.countries);
     }
 
     /**
      * Adds a Country object to the World.
-     * If a country with the same name already exists, it will be replaced.
+     * If a country with the same normalized name already exists, it will be replaced.
      *
      * @param country The Country object to add.
      */
     public void addCountry(Country country)
     {
-        countries.put(country.getName(), country);
+        put(country);
+        compactIfMostlyStale();
     }
 
     /**
-     * Returns the internal HashMap of countries.
+     * Removes a Country object from the World.
+     * Nothing happens if that exact object is not in the World, even if another country with the
+     * same name is.
+     *
+     * @param country The Country object to remove.
+     */
+    public void removeCountry(final Country country)
+    {
+        if (byName.get(country.getNormalizedName()) != country)
+        {
+            return;
+        }
+
+        byName.remove(country.getNormalizedName(), country);
+        removeCapitals(country);
+        compactIfMostlyStale();
+    }
+
+    /**
+     * Returns all countries in the World in insertion order.
      * This can be used for iterating over or inspecting all countries in the World.
      *
-     * @return A HashMap mapping country names to Country objects.
+     * @return An unmodifiable list of the indexed countries.
      */
-    public HashMap<String, Country> getCountries()
+    public List<Country> getCountries()
     {
-        return countries;
+        if (countries.size() != byName.size())
+        {
+            compact();
+        }
+        return Collections.unmodifiableList(countries);
     }
 
     /**
-     * Retrieves a specific Country object by its name.
+     * Retrieves a specific Country object by its name, ignoring case, accents and extra spaces.
      *
      * @param name The name of the country to retrieve.
      * @return The Country object with the given name, or null if not found.
      */
     public Country getCountryByName(String name)
     {
-        return countries.get(name);
+        return getCountryByNormalizedName(NameNormalizer.normalize(name));
+    }
+
+    /**
+     * Retrieves a specific Country object by an already normalized name.
+     *
+     * @param normalizedName The normalized name of the country (see NameNormalizer).
+     * @return The Country object with that name, or null if not found.
+     */
+    public Country getCountryByNormalizedName(final String normalizedName)
+    {
+        return byName.get(normalizedName);
+    }
+
+    /**
+     * Retrieves the Country whose capital city has the given name.
+     * Matching ignores case, accents and extra spaces.
+     *
+     * @param capital The capital city name to look up.
+     * @return The Country with that capital, the first one added if several share it, or null if not found.
+     */
+    public Country getCountryByCapital(String capital)
+    {
+        final Country[] owners = byCapital.get(NameNormalizer.normalize(capital));
+        return owners == null ? null : owners[0];
+    }
+
+    /**
+     * Retrieves every Country that has a capital city with the given name.
+     * Matching ignores case, accents and extra spaces.
+     *
+     * @param capital The capital city name to look up.
+     * @return An unmodifiable list of the countries with that capital, empty if none.
+     */
+    public List<Country> getCountriesByCapital(String capital)
+    {
+        return getCountriesByNormalizedCapital(NameNormalizer.normalize(capital));
+    }
+
+    /**
+     * Retrieves every Country that has a capital city with an already normalized name.
+     *
+     * @param normalizedCapital The normalized capital city name (see NameNormalizer).
+     * @return An unmodifiable list of the countries with that capital, empty if none.
+     */
+    public List<Country> getCountriesByNormalizedCapital(final String normalizedCapital)
+    {
+        final Country[] owners = byCapital.get(normalizedCapital);
+        return owners == null ? List.of() : List.of(owners);
+    }
+
+    /**
+     * Checks a player's guess against a country's capital city.
+     * The guess is normalized once and compared with the precomputed key of the capital.
+     *
+     * @param country The country being asked about.
+     * @param guess   The player's answer.
+     * @return true if the guess names one of the country's capitals, ignoring case, accents and spacing.
+     */
+    public boolean isCapitalOf(final Country country,
+                               final String guess)
+    {
+        return country.hasNormalizedCapital(NameNormalizer.normalize(guess));
+    }
+
+    /**
+     * Checks a player's guess of which country has a given capital.
+     * Any country with that capital is accepted, since several can share one.
+     *
+     * @param normalizedCapital The normalized capital being asked about.
+     * @param guess             The player's answer.
+     * @return true if the guess names a country with that capital, ignoring case, accents and spacing.
+     */
+    public boolean isCountryWithCapital(final String normalizedCapital,
+                                        final String guess)
+    {
+        final Country named = byName.get(NameNormalizer.normalize(guess));
+        return named != null && named.hasNormalizedCapital(normalizedCapital);
+    }
+
+    /**
+     * Returns the number of countries in the World.
+     *
+     * @return the number of indexed countries
+     */
+    public int size()
+    {
+        return byName.size();
+    }
+
+    /*
+     * Indexes a country, unlinking any country it replaces; the replaced entry in countries goes stale.
+     */
+    private void put(final Country country)
+    {
+        final Country previous = byName.put(country.getNormalizedName(), country);
+        if (previous != null)
+        {
+            removeCapitals(previous);
+        }
+
+        for (int i = 0; i < country.getCapitalCount(); i++)
+        {
+            final String key = country.getNormalizedCapitalCityName(i);
+            final Country[] owners = byCapital.get(key);
+            if (owners == null)
+            {
+                byCapital.put(key, new Country[] {country});
+            }
+            else if (!contains(owners, country))
+            {
+                final Country[] added = Arrays.copyOf(owners, owners.length + 1);
+                added[owners.length] = country;
+                byCapital.put(key, added);
+            }
+        }
+        countries.add(country);
+    }
+
+    private void compactIfMostlyStale()
+    {
+        if (countries.size() - byName.size() > byName.size())
+        {
+            compact();
+        }
+    }
+
+    /*
+     * Drops stale entries from countries. A country that was removed and added again has an entry
+     * for each time; only the last one is kept, as if the earlier one had been removed.
+     */
+    private void compact()
+    {
+        final Set<Country> kept = Collections.newSetFromMap(new IdentityHashMap<>(byName.size()));
+        int write = countries.size();
+        for (int read = countries.size() - 1; read >= 0; read--)
+        {
+            final Country country = countries.get(read);
+            if (byName.get(country.getNormalizedName()) == country && kept.add(country))
+            {
+                countries.set(--write, country);
+            }
+        }
+        countries.subList(0, write).clear();
+    }
+
+    /*
+     * Removes a country from the owners of each of its capitals. Owner arrays are replaced rather
+     * than changed in place, since copies of this World share them.
+     */
+    private void removeCapitals(final Country country)
+    {
+        for (int i = 0; i < country.getCapitalCount(); i++)
+        {
+            final String key = country.getNormalizedCapitalCityName(i);
+            final Country[] owners = byCapital.get(key);
+            if (owners == null || !contains(owners, country))
+            {
+                continue;
+            }
+
+            if (owners.length == 1)
+            {
+                byCapital.remove(key, owners);
+                continue;
+            }
+
+            final Country[] remaining = new Country[owners.length - 1];
+            int next = 0;
+            for (Country owner : owners)
+            {
+                if (owner != country)
+                {
+                    remaining[next++] = owner;
+                }
+            }
+            byCapital.put(key, remaining);
+        }
+    }
+
+    private static boolean contains(final Country[] owners,
+                                    final Country country)
+    {
+        for (Country owner : owners)
+        {
+            if (owner == country)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * A minimal open-addressing hash table from normalized keys to values.
+     * Uses linear probing over a power-of-two table kept at most half full.
+     * Values are compared by identity on removal. Package-private so its probing can be tested directly.
+     *
+     * @param <V> the type of the values
+     */
+    static final class Index<V>
+    {
+        private static final int INITIAL_CAPACITY = 16;
+        private static final int MAX_LOAD_DIVISOR = 2;
+
+        private String[] keys;
+        private Object[] values;
+        private int size;
+
+        Index()
+        {
+            keys = new String[INITIAL_CAPACITY];
+            values = new Object[INITIAL_CAPACITY];
+        }
+
+        Index(final Index<V> other)
+        {
+            keys = other.keys.clone();
+            values = other.values.clone();
+            size = other.size;
+        }
+
+        int size()
+        {
+            return size;
+        }
+
+        int capacity()
+        {
+            return keys.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        V get(final String key)
+        {
+            if (key == null)
+            {
+                return null;
+            }
+
+            final int mask = keys.length - 1;
+            for (int slot = hash(key) & mask; keys[slot] != null; slot = (slot + 1) & mask)
+            {
+                if (keys[slot].equals(key))
+                {
+                    return (V) values[slot];
+                }
+            }
+
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        V put(final String key,
+              final V value)
+        {
+            if ((size + 1) * MAX_LOAD_DIVISOR > keys.length)
+            {
+                resize(keys.length * 2);
+            }
+
+            final int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (keys[slot] != null)
+            {
+                if (keys[slot].equals(key))
+                {
+                    final V previous = (V) values[slot];
+                    values[slot] = value;
+                    return previous;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+            return null;
+        }
+
+        /*
+         * Removes the entry for key only if it still maps to value, then shifts later entries of
+         * the probe run back so lookups never stop early at the freed slot.
+         */
+        void remove(final String key,
+                    final V value)
+        {
+            final int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (keys[slot] != null && !keys[slot].equals(key))
+            {
+                slot = (slot + 1) & mask;
+            }
+
+            if (keys[slot] == null || values[slot] != value)
+            {
+                return;
+            }
+
+            int hole = slot;
+            for (int next = (hole + 1) & mask; keys[next] != null; next = (next + 1) & mask)
+            {
+                final int home = hash(keys[next]) & mask;
+                // Move the entry back unless its home slot lies cyclically in (hole, next]
+                if (((next - home) & mask) >= ((next - hole) & mask))
+                {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+            }
+
+            keys[hole] = null;
+            values[hole] = null;
+            size--;
+        }
+
+        private void resize(final int capacity)
+        {
+            final String[] oldKeys = keys;
+            final Object[] oldValues = values;
+            keys = new String[capacity];
+            values = new Object[capacity];
+
+            final int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++)
+            {
+                if (oldKeys[i] != null)
+                {
+                    int slot = hash(oldKeys[i]) & mask;
+                    while (keys[slot] != null)
+                    {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int hash(final String key)
+        {
+            final int h = key.hashCode();
+            return h ^ (h >>> 16);
+        }
     }
 }
\ No newline at end of file
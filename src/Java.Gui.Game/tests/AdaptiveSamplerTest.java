@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveSamplerTest {
+
+    private static final List<Country> BANK = bank(20);
+
+    @Test
+    void testNoCountryRepeatsWithinARound() {
+        AdaptiveSampler sampler = new AdaptiveSampler(BANK, new CountryStats(), 3L);
+        for (int round = 0; round < 50; round++) {
+            Set<Integer> asked = new HashSet<>();
+            for (int i = 0; i < 10; i++) {
+                assertTrue(asked.add(sampler.next()), "No country should repeat within round " + round + ".");
+            }
+            sampler.endRound();
+        }
+    }
+
+    @Test
+    void testRoundLongerThanTheBankStartsOver() {
+        AdaptiveSampler sampler = new AdaptiveSampler(BANK, new CountryStats(), 5L);
+        Set<Integer> firstPass = new HashSet<>();
+        for (int i = 0; i < BANK.size(); i++) {
+            firstPass.add(sampler.next());
+        }
+        assertEquals(BANK.size(), firstPass.size(), "Every country should be asked once before any repeats.");
+        sampler.next();
+    }
+
+    @Test
+    void testMissedCountriesAreAskedMoreOften() {
+        CountryStats stats = new CountryStats();
+        AdaptiveSampler sampler = new AdaptiveSampler(BANK, stats, 11L);
+        for (int i = 0; i < 5; i++) {
+            sampler.record(0, AnswerOutcome.MISSED);
+        }
+        sampler.endRound();
+
+        int askedFirst = 0;
+        for (int round = 0; round < 1000; round++) {
+            if (sampler.next() == 0) {
+                askedFirst++;
+            }
+            sampler.endRound();
+        }
+        // Country 0 now weighs 11 against 1 for each of the 19 others
+        assertEquals(11.0 / 30.0, askedFirst / 1000.0, 0.05, "The reweight should reach the next round.");
+    }
+
+    @Test
+    void testSameSeedAndHistoryReplaySameQuestions() {
+        AdaptiveSampler first = new AdaptiveSampler(BANK, new CountryStats(), 42L);
+        AdaptiveSampler second = new AdaptiveSampler(BANK, new CountryStats(), 42L);
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 10; i++) {
+                int index = first.next();
+                assertEquals(index, second.next(), "Draws should match for the same seed.");
+                first.record(index, AnswerOutcome.values()[index % AnswerOutcome.values().length]);
+                second.record(index, AnswerOutcome.values()[index % AnswerOutcome.values().length]);
+            }
+            first.endRound();
+            second.endRound();
+        }
+    }
+
+    private static List<Country> bank(int size) {
+        List<Country> countries = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            countries.add(new Country("Country " + i, "Capital " + i, null));
+        }
+        return countries;
+    }
+}
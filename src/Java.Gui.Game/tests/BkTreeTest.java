@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BkTreeTest {
+
+    @Test
+    void testDistanceCountsSingleCharacterEdits() {
+        assertEquals(0, BkTree.distance("paris", "paris"), "Equal words should be at distance 0.");
+        assertEquals(1, BkTree.distance("bogota", "bogata"), "One substitution should cost 1.");
+        assertEquals(1, BkTree.distance("ottawa", "otawa"), "One deletion should cost 1.");
+        assertEquals(3, BkTree.distance("kitten", "sitting"), "The classic example should cost 3.");
+        assertEquals(4, BkTree.distance("", "lima"), "Against the empty word every character is an edit.");
+    }
+
+    @Test
+    void testBoundedDistanceStopsPastTheBound() {
+        assertEquals(2, BkTree.boundedDistance("kitten", "sittin", 2), "A distance at the bound should be exact.");
+        assertEquals(3, BkTree.boundedDistance("kitten", "sitting", 2), "A distance over the bound should give bound + 1.");
+        assertEquals(1, BkTree.boundedDistance("abc", "abcdefgh", 0), "A length gap over the bound should give bound + 1.");
+        assertEquals(0, BkTree.boundedDistance("", "", 0), "Two empty words should be at distance 0.");
+    }
+
+    @Test
+    void testBoundedDistanceAgreesWithTheFullDistance() {
+        Random random = new Random(17L);
+        for (int i = 0; i < 2000; i++) {
+            String a = randomWord(random);
+            String b = randomWord(random);
+            int exact = BkTree.distance(a, b);
+            for (int bound = 0; bound <= 6; bound++) {
+                assertEquals(Math.min(exact, bound + 1), BkTree.boundedDistance(a, b, bound),
+                        "Bounded distance of " + a + " and " + b + " with bound " + bound);
+            }
+        }
+    }
+
+    @Test
+    void testContainsWithinHonorsTheThreshold() {
+        BkTree tree = new BkTree();
+        tree.add("paris");
+        tree.add("lima");
+        tree.add("lima");
+
+        assertEquals(2, tree.size(), "Duplicates should be ignored.");
+        assertTrue(tree.containsWithin("pariss", 1, (String) null), "One edit away should be within 1.");
+        assertFalse(tree.containsWithin("pairs", 1, (String) null), "Two edits away should not be within 1.");
+        assertTrue(tree.containsWithin("pairs", 2, (String) null), "Two edits away should be within 2.");
+        assertFalse(tree.containsWithin("pariss", 1, "paris"), "An excluded word should not count.");
+        assertFalse(tree.containsWithin("paris", -1, (String) null), "A negative threshold should match nothing.");
+    }
+
+    @Test
+    void testSearchFindsWhatALinearScanFinds() {
+        Random random = new Random(5L);
+        List<String> words = new ArrayList<>();
+        BkTree tree = new BkTree();
+        for (int i = 0; i < 500; i++) {
+            String word = randomWord(random);
+            words.add(word);
+            tree.add(word);
+        }
+
+        for (int i = 0; i < 500; i++) {
+            String query = randomWord(random);
+            for (int maxDistance = 0; maxDistance <= 3; maxDistance++) {
+                boolean expected = false;
+                for (String word : words) {
+                    expected |= BkTree.distance(query, word) <= maxDistance;
+                }
+                assertEquals(expected, tree.containsWithin(query, maxDistance, (String) null),
+                        "The tree should agree with a linear scan for " + query + " within " + maxDistance);
+            }
+        }
+    }
+
+    private static String randomWord(Random random) {
+        // A small alphabet makes near misses common
+        StringBuilder word = new StringBuilder();
+        int length = random.nextInt(9);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,85 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountryFactsTest {
+
+    private static final Path DATA_DIR = Path.of("test_facts_data");
+    private static final Path FACTS_FILE = DATA_DIR.resolve(CountryFacts.FACTS_FILE_NAME);
+
+    @Test
+    void testFactsAreReadOnFirstLookup() throws IOException {
+        Files.createDirectories(DATA_DIR);
+        Files.writeString(FACTS_FILE, "Canada,38000000,Americas,,Has the longest coastline, by far.|Is bilingual.\n"
+                + "Peru,,Americas,,\n"
+                + "broken line\n", StandardCharsets.UTF_8);
+
+        CountryFacts facts = CountryFacts.open(DATA_DIR.toString());
+        assertFalse(facts.isLoaded(), "Opening the store should not read the file.");
+
+        int canada = facts.idOf(new Country("CANADA", "Ottawa", null));
+        assertTrue(facts.isLoaded(), "The first lookup should read the file.");
+        assertEquals(2, facts.size(), "Lines without a name should be skipped.");
+        assertEquals(38_000_000L, facts.getPopulation(canada), "The population should be parsed.");
+        assertEquals("Americas", facts.getRegion(canada), "The region should be kept.");
+        assertNull(facts.getFlag(canada), "An empty flag should be unknown.");
+        assertEquals(List.of("Has the longest coastline, by far.", "Is bilingual."), facts.getTrivia(canada),
+                "Trivia may contain commas and should be split into lines.");
+
+        int peru = facts.idOf(new Country("Peru", "Lima", null));
+        assertEquals(CountryFacts.UNKNOWN_POPULATION, facts.getPopulation(peru), "A missing population should be unknown.");
+        assertTrue(facts.getTrivia(peru).isEmpty(), "A country without trivia should have none.");
+        assertEquals(CountryFacts.NO_FACTS, facts.idOf(new Country("Chile", "Santiago", null)), "Unknown countries have no facts.");
+    }
+
+    @Test
+    void testSinkSharesFactsAfterAnswers() {
+        CountryFacts facts = new CountryFacts.Builder()
+                .add("France", new String[] {"68000000", "Europe", null})
+                .build();
+        StringWriter text = new StringWriter();
+        TextEventSink sink = new TextEventSink(new PrintWriter(text, true), facts);
+
+        sink.onCorrect(new Country("France", "Paris", null), AnswerOutcome.FIRST_TRY);
+
+        assertTrue(text.toString().contains("France is in Europe and has about"),
+                "A correct answer should be followed by a fact.");
+    }
+
+    @Test
+    void testConstructorFactsAreKeyedByPooledId() throws IOException {
+        Files.createDirectories(DATA_DIR);
+        Files.writeString(FACTS_FILE, "Canada,1,Elsewhere,,\nPeru,34000000,Americas,,\n", StandardCharsets.UTF_8);
+        NamePool pool = new NamePool();
+        Country canada = new Country("Canada", "Ottawa", new String[] {"38000000", "Americas", null, "Is bilingual."}, pool);
+        Country again = new Country("CANADA", "Ottawa", null, pool);
+
+        assertEquals(canada.getId(), again.getId(), "Countries with the same normalized name should share an id.");
+        assertEquals(NamePool.NO_ID, new Country("Canada", "Ottawa", null).getId(), "Without a pool there is no id.");
+
+        CountryFacts facts = CountryFacts.open(DATA_DIR.toString(), pool);
+        int row = facts.idOf(canada);
+        assertEquals(38_000_000L, facts.getPopulation(row), "Constructor facts should win over the file.");
+        assertEquals(List.of("Is bilingual."), facts.getTrivia(row), "Constructor trivia should be kept.");
+        assertEquals("Americas", facts.getRegion(facts.idOf(new Country("Peru", "Lima", null))),
+                "File facts should still be found for countries from another pool.");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(FACTS_FILE);
+        Files.deleteIfExists(DATA_DIR);
+    }
+}
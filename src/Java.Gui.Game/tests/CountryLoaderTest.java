@@ -0,0 +1,119 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CountryLoaderTest {
+
+    private static final Path DATA_DIR = Path.of("test_loader_data");
+    private static final String MIXED_LINES =
+            "France,Paris\r\n"
+            + "Peru,Lima,,\n"
+            + "  Côte d'Ivoire , Yamoussoukro \n"
+            + "Nowhere\n"
+            + "Too,Many,Fields\n"
+            + "\n"
+            + "Japan,Tokyo";
+
+    @Test
+    void testLinesAreParsedLikeTheTextLoader() throws IOException {
+        Path file = write("a.txt", MIXED_LINES);
+
+        List<Country> countries = CountryLoader.parseFile(file, new NamePool());
+
+        assertEquals(List.of("France", "Peru", "Côte d'Ivoire", "Japan"), names(countries),
+                "Malformed lines should be skipped and names trimmed.");
+        assertEquals("Paris", countries.get(0).getCapitalCityName(), "A carriage return should be dropped.");
+        assertEquals("Lima", countries.get(1).getCapitalCityName(), "Trailing commas should be ignored.");
+        assertEquals("Tokyo", countries.get(3).getCapitalCityName(), "A last line without a line feed should load.");
+    }
+
+    @Test
+    void testEveryWindowSizeGivesTheSameCountries() throws IOException {
+        Path file = write("a.txt", MIXED_LINES);
+        List<String> expected = names(CountryLoader.parseFile(file, new NamePool()));
+
+        // From the longest line (33 bytes) up, windows cut lines, UTF-8 names and CRLF pairs at every offset
+        int size = MIXED_LINES.getBytes(StandardCharsets.UTF_8).length;
+        for (long window = 33; window <= size + 1; window++) {
+            assertEquals(expected, names(CountryLoader.parseFile(file, new NamePool(), window)),
+                    "A window of " + window + " bytes should not change the result.");
+        }
+    }
+
+    @Test
+    void testLineLongerThanAWindowIsSkipped() throws IOException {
+        String longName = "X".repeat(100);
+        Path file = write("a.txt", "France,Paris\n" + longName + ",Nowhere\nPeru,Lima\n");
+
+        List<Country> countries = CountryLoader.parseFile(file, new NamePool(), 16);
+
+        assertEquals(List.of("France", "Peru"), names(countries),
+                "Only the line that does not fit in a window should be lost.");
+    }
+
+    @Test
+    void testEmptyFileLoadsNothing() throws IOException {
+        Path file = write("a.txt", "");
+
+        assertEquals(0, CountryLoader.parseFile(file, new NamePool(), 16).size(),
+                "An empty file should yield no countries.");
+    }
+
+    @Test
+    void testWindowSizeMustFitOneMapping() throws IOException {
+        Path file = write("a.txt", MIXED_LINES);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CountryLoader.parseFile(file, new NamePool(), Integer.MAX_VALUE + 1L),
+                "A window larger than one mapping should be rejected.");
+        assertThrows(IllegalArgumentException.class,
+                () -> CountryLoader.parseFile(file, new NamePool(), 0),
+                "An empty window should be rejected.");
+    }
+
+    @Test
+    void testDirectoryIsLoadedInFileNameOrder() throws IOException {
+        write("b.txt", "Peru,Lima\n");
+        write("a.txt", "France,Paris\n");
+        write("c.csv", "Japan,Tokyo\n");
+
+        List<Country> countries = CountryLoader.loadCountriesFromDirectory(DATA_DIR.toString());
+
+        assertEquals(List.of("France", "Peru"), names(countries),
+                "Only text files should load, in file-name order.");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        File[] files = DATA_DIR.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        Files.deleteIfExists(DATA_DIR);
+    }
+
+    private static Path write(String name, String content) throws IOException {
+        Files.createDirectories(DATA_DIR);
+        return Files.write(DATA_DIR.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> names(List<Country> countries) {
+        List<String> names = new ArrayList<>();
+        for (Country country : countries) {
+            names.add(country.getName());
+        }
+        return names;
+    }
+}
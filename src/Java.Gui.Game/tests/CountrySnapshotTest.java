@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CountrySnapshotTest {
+
+    private static final Path DATA_DIR = Path.of("test_snapshot_data");
+    private static final long OLD_TIME = 1_600_000_000_000L;
+    private static final long NEW_TIME = 1_700_000_000_000L;
+
+    @Test
+    void testFreshSnapshotIsReadBack() throws IOException {
+        write("a.txt", "France,Paris\n", OLD_TIME);
+        write("b.txt", "Peru,Lima\n", NEW_TIME);
+        CountrySnapshot.load(DATA_DIR.toString());
+
+        List<Country> cached = readSnapshot();
+        assertNotNull(cached, "An unchanged directory should use the snapshot.");
+        assertEquals("Lima", cached.get(1).getCapitalCityName(), "Countries should keep their load order.");
+    }
+
+    @Test
+    void testEditThatKeepsTotalsIsNoticed() throws IOException {
+        write("a.txt", "France,Paris\n", OLD_TIME);
+        write("b.txt", "Peru,Lima\n", NEW_TIME);
+        CountrySnapshot.load(DATA_DIR.toString());
+
+        // Same size, same file count, and the newest timestamp still belongs to b.txt
+        write("a.txt", "France,Lyons\n", OLD_TIME + 1000);
+        assertNull(readSnapshot(), "An edit to an older file should make the snapshot stale.");
+        assertEquals("Lyons", CountrySnapshot.load(DATA_DIR.toString()).get(0).getCapitalCityName(),
+                "The edit should be loaded.");
+    }
+
+    @Test
+    void testRenameThatKeepsTotalsIsNoticed() throws IOException {
+        write("a.txt", "France,Paris\n", OLD_TIME);
+        write("b.txt", "Peru,Lima\n", NEW_TIME);
+        CountrySnapshot.load(DATA_DIR.toString());
+
+        Files.move(DATA_DIR.resolve("a.txt"), DATA_DIR.resolve("c.txt"));
+        assertNull(readSnapshot(), "A renamed file changes the load order and should make the snapshot stale.");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        File[] files = DATA_DIR.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        Files.deleteIfExists(DATA_DIR);
+    }
+
+    private static List<Country> readSnapshot() throws IOException {
+        return CountrySnapshot.read(DATA_DIR.resolve(CountrySnapshot.SNAPSHOT_FILE_NAME),
+                CountrySnapshot.SourceStamp.of(CountryLoader.listDataFiles(DATA_DIR.toString())), new NamePool());
+    }
+
+    private static void write(String fileName, String content, long lastModified) throws IOException {
+        Files.createDirectories(DATA_DIR);
+        Path file = DATA_DIR.resolve(fileName);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        file.toFile().setLastModified(lastModified);
+    }
+}
@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountryWatcherTest {
+
+    private static final Path DATA_DIR = Path.of("test_watch_data");
+    private static final long WATCH_TIMEOUT_MILLIS = 10_000;
+
+    private CountryWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(DATA_DIR);
+        write("a.txt", "France,Paris\nJapan,Tokyo\n");
+        write("b.txt", "Peru,Lima\n");
+        watcher = CountryWatcher.start(DATA_DIR.toString());
+    }
+
+    @Test
+    void testReloadSwapsOnlyTheChangedFile() throws IOException {
+        CountryWatcher.Snapshot before = watcher.current();
+        assertEquals(3, before.getCountries().size(), "The initial load should read every file.");
+
+        write("a.txt", "France,Paris\nJapan,Kyoto\n");
+        watcher.reload("a.txt");
+
+        CountryWatcher.Snapshot after = watcher.current();
+        assertEquals("Kyoto", after.getWorld().getCountryByName("Japan").getCapitalCityName(), "The fix should be applied.");
+        assertEquals("Lima", after.getWorld().getCountryByName("Peru").getCapitalCityName(), "Other files should be untouched.");
+        assertEquals("Tokyo", before.getWorld().getCountryByName("Japan").getCapitalCityName(),
+                "An earlier snapshot should not change.");
+        assertTrue(after.getVersion() > before.getVersion(), "A reload should publish a newer snapshot.");
+    }
+
+    @Test
+    void testDeletedFileRestoresShadowedCountry() throws IOException {
+        write("c.txt", "France,Lyon\n");
+        watcher.reload("c.txt");
+        assertEquals("Lyon", watcher.current().getWorld().getCountryByName("France").getCapitalCityName(),
+                "The most recently loaded file should win.");
+
+        Files.delete(DATA_DIR.resolve("c.txt"));
+        watcher.reload("c.txt");
+        assertEquals("Paris", watcher.current().getWorld().getCountryByName("France").getCapitalCityName(),
+                "Removing the file should bring back the remaining definition.");
+
+        Files.delete(DATA_DIR.resolve("b.txt"));
+        watcher.reload("b.txt");
+        assertNull(watcher.current().getWorld().getCountryByName("Peru"), "Countries of a deleted file should be removed.");
+        assertEquals(2, watcher.current().getCountries().size(), "Only the first file's countries should remain.");
+    }
+
+    @Test
+    void testWatchServicePicksUpNewFile() throws Exception {
+        write("d.txt", "Chile,Santiago\n");
+
+        long deadline = System.currentTimeMillis() + WATCH_TIMEOUT_MILLIS;
+        while (watcher.current().getWorld().getCountryByName("Chile") == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals("Santiago", watcher.current().getWorld().getCountryByName("Chile").getCapitalCityName(),
+                "A new data file should be loaded without a restart.");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        watcher.close();
+        File[] files = DATA_DIR.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        Files.deleteIfExists(DATA_DIR);
+    }
+
+    private static void write(String fileName, String content) throws IOException {
+        Files.writeString(DATA_DIR.resolve(fileName), content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FuzzyMatcherTest {
+
+    private static final World WORLD = new World(List.of(
+            new Country("Colombia", "Bogota", null),
+            new Country("Canada", "Ottawa", null),
+            new Country("Australia", "Canberra", null),
+            new Country("Peru", "Lima", null),
+            new Country("Austria", "Vienna", null),
+            new Country("Switzerland", "Bern", null),
+            new Country("Germany", "Berlin", null)));
+
+    private final FuzzyMatcher matcher = new FuzzyMatcher(WORLD, FuzzyMatcher.DEFAULT_MAX_EDIT_DISTANCE);
+
+    @Test
+    void testExactAnswersIgnoreCaseAccentsAndSpacing() {
+        assertTrue(matcher.matches(country("Colombia"), "  BOGOTÁ "), "Normalized answers should match exactly.");
+    }
+
+    @Test
+    void testNearMissesWithinTheThresholdAreAccepted() {
+        assertTrue(matcher.matches(country("Colombia"), "Bogata"), "One edit should be forgiven.");
+        assertTrue(matcher.matches(country("Canada"), "Otawa"), "A six-letter answer should forgive one edit.");
+        assertFalse(matcher.matches(country("Canada"), "Otowa"), "A six-letter answer should not forgive two edits.");
+        assertTrue(matcher.matches(country("Australia"), "Kanbera"), "An eight-letter answer should forgive two edits.");
+        assertFalse(matcher.matches(country("Australia"), "Kambera"), "Three edits should never be forgiven.");
+    }
+
+    @Test
+    void testShortAnswersAreForgivenLess() {
+        assertTrue(matcher.matches(country("Peru"), "Lina"), "A four-letter answer should forgive one edit.");
+        assertFalse(matcher.matches(country("Peru"), "Luna"), "A four-letter answer should not forgive two edits.");
+        assertFalse(new FuzzyMatcher(WORLD, 0).matches(country("Colombia"), "Bogata"), "A zero threshold should forgive nothing.");
+    }
+
+    @Test
+    void testGuessCloserToAnotherCapitalIsRejected() {
+        assertFalse(matcher.matches(country("Germany"), "Bern"), "Another country's exact capital should not be a near miss.");
+        assertFalse(matcher.matches(country("Germany"), "Berin"), "A guess as close to another capital should be rejected.");
+        assertTrue(matcher.matches(country("Germany"), "Berlim"), "A guess closest to the answer should be accepted.");
+    }
+
+    @Test
+    void testReverseQuestionsForgiveCountryNames() {
+        Question question = QuizMode.COUNTRY_OF_CAPITAL.questionFor(WORLD, country("Austria"), 0);
+        assertTrue(matcher.matches(question, "Austra"), "A near miss of the country name should be accepted.");
+        assertFalse(matcher.matches(question, "Australia"), "A different name should be rejected.");
+    }
+
+    @Test
+    void testNegativeThresholdIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new FuzzyMatcher(WORLD, -1));
+    }
+
+    private static Country country(String name) {
+        return WORLD.getCountryByName(name);
+    }
+}
@@ -0,0 +1,100 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HighScoreIndexTest {
+
+    private static final String SCORE_FILE = "test_high_score_index.txt";
+    private static final Path SIDECAR = Path.of(SCORE_FILE + ".best");
+
+    @Test
+    void testCurrentSidecarIsTrustedWithoutRescanning() throws IOException {
+        append(score(1, 5));
+        assertEquals(10, new HighScoreIndex(SCORE_FILE).getBest().getScore(), "The first load should scan the file.");
+
+        // A sidecar whose length matches is used as is, so a planted best proves no rescan happened
+        Files.writeString(SIDECAR, new File(SCORE_FILE).length() + "\n" + score(1, 9).toCsvLine() + "\n",
+                StandardCharsets.UTF_8);
+        assertEquals(18, new HighScoreIndex(SCORE_FILE).getBest().getScore(), "A current sidecar should be read, not rebuilt.");
+    }
+
+    @Test
+    void testAppendOutsideTheIndexTriggersRebuild() throws IOException {
+        append(score(1, 3));
+        assertEquals(6, new HighScoreIndex(SCORE_FILE).getBest().getScore(), "The index should start from the file.");
+
+        append(score(1, 8));
+        HighScoreIndex index = new HighScoreIndex(SCORE_FILE);
+        assertEquals(16, index.getBest().getScore(), "A longer file should be rescanned.");
+        assertEquals(String.valueOf(new File(SCORE_FILE).length()), Files.readAllLines(SIDECAR).get(0),
+                "The rebuilt sidecar should record the new length.");
+    }
+
+    @Test
+    void testTruncatedFileTriggersRebuild() throws IOException {
+        append(score(1, 3));
+        append(score(1, 8));
+        assertEquals(16, new HighScoreIndex(SCORE_FILE).getBest().getScore(), "Both sessions should be indexed.");
+
+        Files.writeString(Path.of(SCORE_FILE), score(1, 3).toCsvLine() + "\n", StandardCharsets.UTF_8);
+        assertEquals(6, new HighScoreIndex(SCORE_FILE).getBest().getScore(), "A shorter file should be rescanned.");
+    }
+
+    @Test
+    void testCorruptSidecarIsRebuilt() throws IOException {
+        append(score(1, 4));
+        String[] corrupt = {
+                "not a number\n",
+                new File(SCORE_FILE).length() + "\nnot,a,score\n",
+                "1\n2\n3\n",
+                ""
+        };
+
+        for (String content : corrupt) {
+            Files.writeString(SIDECAR, content, StandardCharsets.UTF_8);
+            assertEquals(8, new HighScoreIndex(SCORE_FILE).getBest().getScore(), "A corrupt sidecar should be rebuilt: " + content);
+        }
+    }
+
+    @Test
+    void testRecordKeepsTheSidecarInStep() throws IOException {
+        HighScoreIndex index = new HighScoreIndex(SCORE_FILE);
+        assertNull(index.getBest(), "An empty history should have no best.");
+
+        append(score(1, 2));
+        index.record(score(1, 2));
+        append(score(1, 1));
+        index.record(score(1, 1));
+
+        assertEquals(4, index.getBest().getScore(), "A worse score should not replace the best.");
+        assertEquals(String.valueOf(new File(SCORE_FILE).length()), Files.readAllLines(SIDECAR).get(0),
+                "Each record should store the file length it covers.");
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(SCORE_FILE).delete();
+        new File(SCORE_FILE + ".best").delete();
+        new File(SCORE_FILE + ".best.tmp").delete();
+        new File(SCORE_FILE + ".lock").delete();
+    }
+
+    private static Score score(int games, int firstTry) {
+        return new Score(LocalDateTime.of(2024, 5, 1, 12, 0), games, firstTry, 0, 0);
+    }
+
+    private static void append(Score score) throws IOException {
+        Files.writeString(Path.of(SCORE_FILE), score.toCsvLine() + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
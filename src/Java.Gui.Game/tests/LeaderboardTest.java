@@ -0,0 +1,121 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaderboardTest {
+
+    private static final String SCORE_FILE = "test_leaderboard.txt";
+    private static final LocalDate CUTOFF = LocalDate.of(2024, 3, 1);
+
+    @Test
+    void testKeepsOnlyTheBestSessionsInOrder() {
+        Leaderboard leaderboard = new Leaderboard(Leaderboard.Ranking.TOTAL_SCORE, 3);
+        for (int i = 0; i < 100; i++) {
+            leaderboard.accept(new Score(1, (i * 37) % 100, 0, 0));
+        }
+
+        List<Score> top = leaderboard.getTop();
+        assertEquals(3, top.size(), "Only three sessions should be kept.");
+        assertEquals(198, top.get(0).getScore(), "The best session should come first.");
+        assertEquals(196, top.get(1).getScore(), "The second best session should come next.");
+        assertEquals(194, top.get(2).getScore(), "The third best session should come last.");
+    }
+
+    @Test
+    void testTiesKeepTheEarlierSession() {
+        Score a = new Score(1, 5, 0, 0);
+        Score b = new Score(1, 5, 0, 0);
+        Score c = new Score(1, 6, 0, 0);
+
+        Leaderboard leaderboard = new Leaderboard(Leaderboard.Ranking.TOTAL_SCORE, 2);
+        leaderboard.accept(a);
+        leaderboard.accept(b);
+        leaderboard.accept(c);
+
+        List<Score> top = leaderboard.getTop();
+        assertSame(c, top.get(0), "The strictly better session should lead.");
+        assertSame(a, top.get(1), "Of two tied sessions, the earlier one should be kept.");
+    }
+
+    @Test
+    void testTiesAreListedInTheOrderOffered() {
+        Leaderboard leaderboard = new Leaderboard(Leaderboard.Ranking.TOTAL_SCORE, 5);
+        List<Score> offered = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Score score = new Score(1, 5, 0, 0);
+            offered.add(score);
+            leaderboard.accept(score);
+        }
+
+        List<Score> top = leaderboard.getTop();
+        for (int i = 0; i < top.size(); i++) {
+            assertSame(offered.get(i), top.get(i), "Tied session " + i + " should keep its place.");
+        }
+    }
+
+    @Test
+    void testRankingsDiffer() {
+        Score manyGames = new Score(4, 30, 5, 5);  // 65 points, 16.25 per game
+        Score oneGame = new Score(1, 8, 1, 1);     // 17 points, 17 per game
+        Score accurate = new Score(1, 7, 0, 0);    // 14 points, 100% first try
+
+        Leaderboard byAverage = new Leaderboard(Leaderboard.Ranking.AVERAGE_PER_GAME, 1);
+        Leaderboard byTotal = new Leaderboard(Leaderboard.Ranking.TOTAL_SCORE, 1);
+        Leaderboard byAccuracy = new Leaderboard(Leaderboard.Ranking.FIRST_TRY_ACCURACY, 1);
+        for (Score score : List.of(manyGames, oneGame, accurate)) {
+            byAverage.accept(score);
+            byTotal.accept(score);
+            byAccuracy.accept(score);
+        }
+
+        assertEquals(oneGame, byAverage.getTop().get(0), "The one-game session has the best average.");
+        assertEquals(manyGames, byTotal.getTop().get(0), "The four-game session has the most points.");
+        assertEquals(accurate, byAccuracy.getTop().get(0), "The flawless session has the best accuracy.");
+    }
+
+    @Test
+    void testTopFromScoreFile() throws IOException {
+        assertTrue(Leaderboard.top(SCORE_FILE, Leaderboard.Ranking.AVERAGE_PER_GAME, 10).isEmpty(),
+                "A missing score file should give an empty leaderboard.");
+
+        for (int i = 0; i < 20; i++) {
+            Score.appendScoreToFile(new Score(1, i, 0, 0), SCORE_FILE);
+        }
+
+        List<Score> top = Leaderboard.top(SCORE_FILE, Leaderboard.Ranking.AVERAGE_PER_GAME, 5);
+        assertEquals(5, top.size(), "Five sessions should be returned.");
+        assertEquals(38, top.get(0).getScore(), "The best saved session should come first.");
+    }
+
+    @Test
+    void testTopIncludesCompactedSessions() throws IOException {
+        Score record = new Score(LocalDateTime.of(2024, 1, 5, 12, 0), 1, 10, 0, 0);
+        Score.appendScoreToFile(record, SCORE_FILE);
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 6, 5, 12, 0), 1, 3, 3, 4), SCORE_FILE);
+        ScoreCompactor.compact(SCORE_FILE, CUTOFF);
+
+        List<Score> top = Leaderboard.top(SCORE_FILE, Leaderboard.Ranking.AVERAGE_PER_GAME, 5);
+
+        assertEquals(2, top.size(), "Sessions rolled out into a segment should still be ranked.");
+        assertEquals(record.getDateTimePlayed(), top.get(0).getDateTimePlayed(), "The compacted record should still lead.");
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(SCORE_FILE).delete();
+        new File(SCORE_FILE + ".lock").delete();
+        new File(SCORE_FILE + ".best").delete();
+        new File(SCORE_FILE + ScoreCompactor.SUMMARY_SUFFIX).delete();
+        new File(SCORE_FILE + "." + CUTOFF + ScoreCompactor.SEGMENT_SUFFIX).delete();
+    }
+}
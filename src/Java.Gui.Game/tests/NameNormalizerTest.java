@@ -0,0 +1,26 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NameNormalizerTest {
+
+    @Test
+    void testCaseAccentsAndSpacesAreFolded() {
+        assertEquals("cote d'ivoire", NameNormalizer.normalize("  CÔTE  D'IVOIRE "), "All three rules should apply together.");
+        assertEquals("bogota", NameNormalizer.normalize("Bogotá"), "Accents should be stripped.");
+        assertEquals("sao tome", NameNormalizer.normalize("São\tTomé"), "Any whitespace should collapse to one space.");
+    }
+
+    @Test
+    void testAsciiFastPathMatchesTheUnicodePath() {
+        assertEquals(NameNormalizer.normalize("Bogotá"), NameNormalizer.normalize("Bogota"), "Both forms should give the same key.");
+        assertEquals("new delhi", NameNormalizer.normalize("New Delhi"), "A non-breaking space should count as a space.");
+    }
+
+    @Test
+    void testEdgeCases() {
+        assertNull(NameNormalizer.normalize(null), "Null should stay null.");
+        assertEquals("", NameNormalizer.normalize("   "), "Only spaces should give an empty key.");
+    }
+}
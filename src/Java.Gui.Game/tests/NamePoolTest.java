@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NamePoolTest {
+
+    private static final Path DATA_DIR = Path.of("test_pool_data");
+
+    @Test
+    void testInternReturnsCanonicalInstancesAndIds() {
+        NamePool pool = new NamePool();
+        String first = pool.intern(new String("Ottawa"));
+
+        assertSame(first, pool.intern(new String("Ottawa")), "Equal names should share one instance.");
+        assertEquals(0, pool.idOf("Ottawa"), "The first name should get id 0.");
+        assertEquals(1, pool.idOf("Paris"), "Each new name should get the next id.");
+        assertSame(first, pool.nameOf(0), "An id should map back to the canonical name.");
+        assertSame(pool.normalize("Ottawa"), pool.normalize(new String("Ottawa")), "Normalized keys should be shared too.");
+    }
+
+    @Test
+    void testConcurrentInternsAgreeOnIdsAndInstances() throws InterruptedException {
+        NamePool pool = new NamePool();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    pool.normalize(pool.intern(new String("Capital " + (i % 500))));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // 500 names and their 500 normalized keys
+        assertEquals(1000, pool.size(), "Each distinct string should be pooled once.");
+        for (int i = 0; i < 500; i++) {
+            String name = pool.intern(new String("Capital " + i));
+            int id = pool.findId(name);
+            assertSame(name, pool.nameOf(id), "An id should map back to the one pooled instance.");
+            assertTrue(pool.holds(id, name), "The pool should recognize its own id and instance.");
+        }
+    }
+
+    @Test
+    void testOverlappingFilesShareStorage() throws IOException {
+        Files.createDirectories(DATA_DIR);
+        Files.writeString(DATA_DIR.resolve("a.txt"), "Canada,Ottawa\nFrance,Paris\n", StandardCharsets.UTF_8);
+        Files.writeString(DATA_DIR.resolve("b.txt"), "Canada,Ottawa\nPeru,Lima\n", StandardCharsets.UTF_8);
+
+        NamePool pool = new NamePool();
+        List<Country> countries = WordGame.loadCountriesFromDirectory(DATA_DIR.toString(), pool);
+        Country a = countries.get(0);
+        Country b = countries.get(2);
+
+        assertEquals("Canada", b.getName(), "The repeated country should be loaded from both files.");
+        assertSame(a.getName(), b.getName(), "Repeated names should share storage.");
+        assertSame(a.getCapitalCityName(), b.getCapitalCityName(), "Repeated capitals should share storage.");
+        assertSame(a.getNormalizedName(), b.getNormalizedName(), "Repeated keys should share storage.");
+        assertTrue(pool.getRetainedBytes() < pool.getRequestedBytes(), "Sharing should save memory.");
+        assertTrue(pool.describeFootprint(countries.size()).startsWith("4 countries share 12 distinct strings"),
+                "The report should count the countries and the distinct strings.");
+
+        List<Country> mapped = CountryLoader.loadCountriesFromDirectory(DATA_DIR.toString(), new NamePool());
+        assertSame(mapped.get(0).getName(), mapped.get(2).getName(), "The parallel loader should share names too.");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        File[] files = DATA_DIR.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        Files.deleteIfExists(DATA_DIR);
+    }
+}
@@ -0,0 +1,47 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixTrieTest {
+
+    @Test
+    void testCompletesInKeyOrderIgnoringCaseAndAccents() {
+        PrefixTrie trie = new PrefixTrie();
+        for (String capital : List.of("Bogotá", "Bern", "Berlin", "Beirut", "Belgrade", "Ottawa", "BERLIN")) {
+            trie.add(capital);
+        }
+
+        assertEquals(6, trie.size(), "Names with the same normalized form should be stored once.");
+        assertEquals(List.of("Beirut", "Belgrade", "Berlin", "Bern"), trie.complete("be", 10),
+                "Every name with the prefix should be listed in key order.");
+        assertEquals(List.of("Berlin", "Bern"), trie.complete("BER", 10), "Case should be ignored.");
+        assertEquals(List.of("Bogotá"), trie.complete("bogo", 10), "Accents should be ignored.");
+        assertEquals(List.of("Beirut", "Belgrade"), trie.complete("b", 3).subList(0, 2), "Results should start in key order.");
+        assertEquals(3, trie.complete("b", 3).size(), "No more names than the limit should be returned.");
+        assertTrue(trie.complete("bx", 10).isEmpty(), "A prefix that leaves the tree should match nothing.");
+        assertTrue(trie.complete("berlinx", 10).isEmpty(), "A prefix longer than every name should match nothing.");
+    }
+
+    @Test
+    void testLargeBankStillCompletesFromPrefix() {
+        PrefixTrie trie = new PrefixTrie();
+        for (int i = 0; i < 200_000; i++) {
+            trie.add("Capital " + i);
+        }
+
+        assertEquals(200_000, trie.size(), "Every distinct name should be stored.");
+        assertEquals(List.of("Capital 12345", "Capital 123450", "Capital 123451"), trie.complete("capital 12345", 3),
+                "Completions should follow key order below the prefix.");
+    }
+
+    @Test
+    void testCapitalsOfEveryCountryAreSuggested() {
+        World world = new World(List.of(new Country("Bolivia", "Sucre|La Paz", null), new Country("Latvia", "Riga", null)));
+
+        assertEquals(List.of("La Paz"), PrefixTrie.ofCapitals(world).complete("la", PrefixTrie.DEFAULT_SUGGESTIONS),
+                "Every capital of a country should be suggested.");
+    }
+}
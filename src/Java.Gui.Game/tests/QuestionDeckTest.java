@@ -0,0 +1,54 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuestionDeckTest {
+
+    @Test
+    void testNoRepeatsUntilDeckIsExhausted() {
+        QuestionDeck deck = new QuestionDeck(50);
+        Set<Integer> seen = new HashSet<>();
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(seen.add(deck.next()), "No index should repeat within a single pass.");
+        }
+
+        assertEquals(50, seen.size(), "Every index should be dealt exactly once per pass.");
+        assertEquals(0, deck.remaining(), "The pass should be exhausted after 50 draws.");
+    }
+
+    @Test
+    void testNewPassStartsAfterExhaustion() {
+        QuestionDeck deck = new QuestionDeck(10);
+        for (int i = 0; i < 10; i++) {
+            deck.next();
+        }
+
+        Set<Integer> secondPass = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            secondPass.add(deck.next());
+        }
+
+        assertEquals(10, secondPass.size(), "The second pass should also deal every index once.");
+    }
+
+    @Test
+    void testSameSeedReplaysSameSequence() {
+        QuestionDeck first = new QuestionDeck(100, 42L);
+        QuestionDeck second = new QuestionDeck(100, 42L);
+
+        for (int i = 0; i < 250; i++) {
+            assertEquals(first.next(), second.next(), "Draw " + i + " should match for the same seed.");
+        }
+    }
+
+    @Test
+    void testEmptyDeckIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new QuestionDeck(0));
+    }
+}
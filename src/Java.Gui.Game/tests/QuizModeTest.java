@@ -0,0 +1,83 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuizModeTest {
+
+    private World world;
+    private FuzzyMatcher matcher;
+    private Country bolivia;
+
+    @BeforeEach
+    void setUp() {
+        bolivia = new Country("Bolivia", "Sucre | La Paz", null);
+        world = new World(List.of(
+                new Country("Canada", "Ottawa", null),
+                new Country("France", "Paris", null),
+                bolivia));
+        matcher = new FuzzyMatcher(world, FuzzyMatcher.DEFAULT_MAX_EDIT_DISTANCE);
+    }
+
+    @Test
+    void testEveryCapitalIndexesTheCountry() {
+        assertEquals(List.of("Sucre", "La Paz"), bolivia.getCapitalCityNames(), "Both capitals should be kept in order.");
+        assertEquals(bolivia, world.getCountryByCapital("la paz"), "The second capital should find the country.");
+        assertTrue(matcher.matches(bolivia, "Sucre"), "The primary capital should be accepted.");
+        assertTrue(matcher.matches(bolivia, "La Pas"), "A near miss of any capital should be accepted.");
+        assertFalse(matcher.matches(bolivia, "Paris"), "Another country's capital should be rejected.");
+
+        world.removeCountry(bolivia);
+        assertTrue(world.getCountriesByCapital("Sucre").isEmpty(), "Removing a country should drop all its capitals.");
+    }
+
+    @Test
+    void testReverseQuestionsAcceptCountriesWithThatCapital() {
+        Question question = QuizMode.COUNTRY_OF_CAPITAL.questionFor(world, bolivia, 1);
+        assertTrue(question.isReverse(), "Country questions should be reversed.");
+        assertEquals("La Paz", question.getPrompt(), "Reverse questions should take turns naming each capital.");
+        assertTrue(matcher.matches(question, "bolivia"), "The country name should be accepted.");
+        assertTrue(matcher.matches(question, "Bolivja"), "A near miss of the country name should be accepted.");
+        assertFalse(matcher.matches(question, "France"), "Another country should be rejected.");
+
+        Country shared = new Country("Holy See", "Paris", null);
+        world.addCountry(shared);
+        Question paris = Question.countryOf(world, shared, 0);
+        assertEquals(List.of("France", "Holy See"), paris.getAnswers(), "Every country with the capital should be listed.");
+        assertTrue(new FuzzyMatcher(world, 2).matches(paris, "France"), "Any country with that capital should count.");
+    }
+
+    @Test
+    void testMixedSessionAlternatesDirections() {
+        List<Country> countries = world.getCountries();
+        WordGameEngine engine = new WordGameEngine(countries, matcher, new QuestionDeck(countries.size(), 3L), QuizMode.MIXED);
+        int[] reverse = new int[1];
+
+        Score score = engine.play(new AnswerSource() {
+            @Override
+            public String nextGuess(Country country, int attempt) {
+                return null;
+            }
+
+            @Override
+            public String nextGuess(Question question, int attempt) {
+                if (question.isReverse()) {
+                    reverse[0]++;
+                }
+                return question.getAnswers().get(0);
+            }
+
+            @Override
+            public boolean playAgain() {
+                return false;
+            }
+        }, new GameEventSink() { });
+
+        assertEquals(10, score.getNumCorrectFirstAttempt(), "Every answer should be accepted on the first try.");
+        assertEquals(5, reverse[0], "Half of the questions should ask for the country.");
+    }
+}
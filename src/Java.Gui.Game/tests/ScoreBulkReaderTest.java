@@ -0,0 +1,58 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScoreBulkReaderTest {
+
+    private static final String SCORE_FILE = "test_bulk_score.txt";
+
+    @Test
+    void testMatchesSequentialReaderAcrossManyChunks() throws IOException {
+        for (int i = 0; i < 2000; i++) {
+            Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i), 1 + i % 3, i % 11, i % 5, i % 7), SCORE_FILE);
+        }
+
+        // Tiny chunks force many boundaries, each of which must fall between records
+        ScoreTable table = ScoreBulkReader.readColumns(Path.of(SCORE_FILE), 100);
+        List<Score> expected = Score.readScoresFromFile(SCORE_FILE);
+
+        assertEquals(expected.size(), table.size(), "The bulk reader should find every record.");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toCsvLine(), table.get(i).toCsvLine(), "Row " + i + " should match the file.");
+        }
+    }
+
+    @Test
+    void testSkipsInvalidRecordsAndStreamsScores() throws IOException {
+        try (FileWriter writer = new FileWriter(SCORE_FILE, false)) {
+            writer.write("2024-01-02 03:04:05,1,6,2,1\n");
+            writer.write("\n");
+            writer.write("2024-02-30 00:00:00,1,1,1,1\n");
+            writer.write("2024-01-02 25:00:00,1,1,1,1\n");
+            writer.write("  2024-02-29 23:59:59,2,9,1,0  \r\n");
+            writer.write("2024-03-01 00:00:00,1,5,0,5");
+        }
+
+        List<Score> scores = ScoreBulkReader.stream(Path.of(SCORE_FILE)).collect(Collectors.toList());
+
+        assertEquals(3, scores.size(), "Only the three valid records should be read.");
+        assertEquals(LocalDateTime.of(2024, 2, 29, 23, 59, 59), scores.get(1).getDateTimePlayed(),
+                "Timestamps should be parsed exactly.");
+        assertEquals(10, scores.get(2).getScore(), "A last line without a line feed should be read.");
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(SCORE_FILE).delete();
+        new File(SCORE_FILE + ".lock").delete();
+    }
+}
@@ -0,0 +1,145 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreCompactorTest {
+
+    private static final String SCORE_FILE = "test_compact_score.txt";
+    private static final LocalDate CUTOFF = LocalDate.of(2024, 3, 1);
+    private static final String SEGMENT_FILE = SCORE_FILE + "." + CUTOFF + ScoreCompactor.SEGMENT_SUFFIX;
+    private static final String SUMMARY_FILE = SCORE_FILE + ScoreCompactor.SUMMARY_SUFFIX;
+    private static final String JOURNAL_FILE = SCORE_FILE + ScoreCompactor.JOURNAL_SUFFIX;
+
+    @Test
+    void testCompactRollsOldSessionsIntoSummaries() throws IOException {
+        // Two sessions a day through February and March
+        for (LocalDate day = LocalDate.of(2024, 2, 1); day.isBefore(LocalDate.of(2024, 4, 1)); day = day.plusDays(1)) {
+            Score.appendScoreToFile(new Score(day.atTime(9, 0), 1, 5, 2, 3), SCORE_FILE);
+            Score.appendScoreToFile(new Score(day.atTime(21, 0), 2, 12, 4, 4), SCORE_FILE);
+        }
+
+        assertEquals(29 * 2, ScoreCompactor.compact(SCORE_FILE, CUTOFF), "All February sessions should be rolled out.");
+        assertEquals(31 * 2, Score.readScoresFromFile(SCORE_FILE).size(), "Only March should remain in the live file.");
+        assertTrue(new File(SCORE_FILE + "." + CUTOFF + ScoreCompactor.SEGMENT_SUFFIX).length() > 0,
+                "The rolled-out records should be archived in a segment.");
+
+        SortedMap<LocalDate, DailySummary> days = ScoreCompactor.dailySummaries(SCORE_FILE);
+        assertEquals(60, days.size(), "Every day of both months should still be summarized.");
+        DailySummary feb10 = days.get(LocalDate.of(2024, 2, 10));
+        assertEquals(2, feb10.getSessions(), "Each compacted day should count both sessions.");
+        assertEquals(3, feb10.getGames(), "Each compacted day should count three games.");
+        assertEquals(14.0, feb10.getBestAverage(), 1e-9, "The evening session of each day averages 14 points per game.");
+
+        assertEquals(0, ScoreCompactor.compact(SCORE_FILE, CUTOFF), "Compacting again should roll nothing out.");
+    }
+
+    @Test
+    void testLinesThatAreNotRecordsStayInTheLiveFile() throws IOException {
+        // A report block from before the CSV format, and a five-field line that fails validation
+        String legacy = "Date and Time: 2024-01-03 10:00:00\n"
+                + "Player: Zoë\n"
+                + "Games Played: 1\n"
+                + "Correct First Attempts: 6\n"
+                + "2024-13-01 00:00:00,1,1,1,1\n";
+        Files.writeString(Path.of(SCORE_FILE), legacy, StandardCharsets.UTF_8);
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 1, 5, 12, 0), 1, 5, 2, 3), SCORE_FILE);
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 6, 5, 12, 0), 1, 5, 2, 3), SCORE_FILE);
+
+        assertEquals(1, ScoreCompactor.compact(SCORE_FILE, CUTOFF), "Only the January record should be rolled out.");
+
+        String live = Files.readString(Path.of(SCORE_FILE), StandardCharsets.UTF_8);
+        assertTrue(live.startsWith(legacy), "Lines compaction cannot read should be kept exactly as they were.");
+        assertEquals(1, Score.readScoresFromFile(SCORE_FILE).size(), "The June record should stay live.");
+    }
+
+    @Test
+    void testHighScoreSurvivesCompaction() throws IOException {
+        Score record = new Score(LocalDateTime.of(2024, 1, 5, 12, 0), 1, 10, 0, 0);
+        Score.appendScoreToFile(record, SCORE_FILE);
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 6, 5, 12, 0), 1, 3, 3, 4), SCORE_FILE);
+
+        ScoreCompactor.compact(SCORE_FILE, CUTOFF);
+
+        Score best = new HighScoreIndex(SCORE_FILE).getBest();
+        assertEquals(record.getDateTimePlayed(), best.getDateTimePlayed(), "The compacted record should still be the best.");
+    }
+
+    @Test
+    void testWriterFollowsTheSwappedLiveFile() throws Exception {
+        try (ScoreWriter writer = new ScoreWriter(Path.of(SCORE_FILE), ScoreWriter.Durability.BATCHED)) {
+            writer.submit(new Score(LocalDateTime.of(2024, 1, 5, 12, 0), 1, 5, 2, 3)).get();
+            writer.submit(new Score(LocalDateTime.of(2024, 6, 5, 12, 0), 1, 5, 2, 3)).get();
+
+            assertEquals(1, ScoreCompactor.compact(SCORE_FILE, CUTOFF), "The January session should be rolled out.");
+            writer.submit(new Score(LocalDateTime.of(2024, 6, 6, 12, 0), 1, 5, 2, 3)).get();
+        }
+
+        assertEquals(2, Score.readScoresFromFile(SCORE_FILE).size(),
+                "A score submitted after the swap should land in the new live file.");
+    }
+
+    @Test
+    void testCommittedCompactionIsFinishedNotRepeated() throws IOException {
+        // The state a crash leaves right after the journal is written: everything prepared, nothing moved
+        Score old = new Score(LocalDateTime.of(2024, 2, 10, 9, 0), 1, 5, 2, 3);
+        Score recent = new Score(LocalDateTime.of(2024, 3, 10, 9, 0), 1, 5, 2, 3);
+        Score.appendScoreToFile(old, SCORE_FILE);
+        Score.appendScoreToFile(recent, SCORE_FILE);
+        Score.appendScoreToFile(recent, SCORE_FILE + ".tmp");
+        Score.appendScoreToFile(old, SEGMENT_FILE + ".tmp");
+        DailySummary summary = new DailySummary(old.getDateTimePlayed().toLocalDate());
+        summary.add(old);
+        Files.writeString(Path.of(SUMMARY_FILE + ".tmp"), summary.toCsvLine() + "\n", StandardCharsets.UTF_8);
+        Files.writeString(Path.of(JOURNAL_FILE),
+                SUMMARY_FILE + "\n" + SEGMENT_FILE + "\n" + SCORE_FILE + "\n", StandardCharsets.UTF_8);
+
+        SortedMap<LocalDate, DailySummary> days = ScoreCompactor.dailySummaries(SCORE_FILE);
+
+        assertFalse(new File(JOURNAL_FILE).exists(), "Reading the summaries should finish the compaction.");
+        assertEquals(1, days.get(old.getDateTimePlayed().toLocalDate()).getSessions(),
+                "The rolled-out session should be counted once.");
+        assertEquals(1, Score.readScoresFromFile(SCORE_FILE).size(), "Only the recent session should stay live.");
+        assertEquals(0, ScoreCompactor.compact(SCORE_FILE, CUTOFF), "Nothing should be rolled out again.");
+    }
+
+    @Test
+    void testUncommittedCompactionIsDiscarded() throws IOException {
+        // A crash before the journal leaves only temporary files, which the next run replaces
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 2, 10, 9, 0), 1, 5, 2, 3), SCORE_FILE);
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 2, 10, 9, 0), 1, 5, 2, 3), SEGMENT_FILE + ".tmp");
+        Files.writeString(Path.of(SUMMARY_FILE + ".tmp"), "garbage\n", StandardCharsets.UTF_8);
+
+        assertEquals(1, ScoreCompactor.compact(SCORE_FILE, CUTOFF), "The session should be rolled out once.");
+        assertEquals(1, ScoreCompactor.dailySummaries(SCORE_FILE).get(LocalDate.of(2024, 2, 10)).getSessions(),
+                "The leftover files should not be counted.");
+        assertEquals(1, Score.readScoresFromFile(SEGMENT_FILE).size(), "The segment should hold the session once.");
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(SCORE_FILE).delete();
+        new File(SCORE_FILE + ".lock").delete();
+        new File(SCORE_FILE + ".best").delete();
+        new File(SCORE_FILE + ".tmp").delete();
+        new File(SUMMARY_FILE).delete();
+        new File(SUMMARY_FILE + ".tmp").delete();
+        new File(SEGMENT_FILE).delete();
+        new File(SEGMENT_FILE + ".tmp").delete();
+        new File(SCORE_FILE + ".tmp.lock").delete();
+        new File(SEGMENT_FILE + ".lock").delete();
+        new File(SEGMENT_FILE + ".tmp.lock").delete();
+        new File(JOURNAL_FILE).delete();
+    }
+}
@@ -0,0 +1,56 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScoreFileLockTest {
+
+    private static final String SCORE_FILE = "test_score_lock.txt";
+
+    @Test
+    void testConcurrentAppendsAndReadsDoNotInterleave() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                final int n = i;
+                futures.add(pool.submit(() -> {
+                    Score.appendScoreToFile(new Score(1, n, 1, 0), SCORE_FILE);
+                    Score.readScoresFromFile(SCORE_FILE);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(400, Score.readScoresFromFile(SCORE_FILE).size(), "Every append should produce one whole record.");
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    void testExclusiveLockIsReentrant() throws IOException {
+        try (ScoreFileLock lock = ScoreFileLock.exclusive(SCORE_FILE)) {
+            // Appending and reading inside a held lock must not deadlock or fail
+            Score.appendScoreToFile(new Score(1, 6, 2, 1), SCORE_FILE);
+            assertEquals(1, Score.readScoresFromFile(SCORE_FILE).size(), "The record should be readable under the lock.");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(SCORE_FILE).delete();
+        new File(SCORE_FILE + ".lock").delete();
+    }
+}
@@ -0,0 +1,141 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ScoreLogTest {
+
+    private static final String LOG_FILE = "test_score.log";
+    private static final String CSV_FILE = "test_score_import.txt";
+
+    @Test
+    void testAppendAndRandomAccess() throws IOException {
+        try (ScoreLog log = new ScoreLog(Path.of(LOG_FILE))) {
+            for (int i = 0; i < 10; i++) {
+                log.append(new Score(LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(i), 1, i, 1, 0));
+            }
+
+            assertEquals(10, log.size(), "Ten records should have been appended.");
+            assertEquals(LocalDateTime.of(2024, 1, 4, 0, 0), log.get(3).getDateTimePlayed(),
+                    "Record 3 should hold the fourth timestamp.");
+            assertEquals(2 * 7 + 1, log.get(7).getScore(), "Record 7 should score 15 points.");
+        }
+    }
+
+    @Test
+    void testReopenKeepsRecordsAndCount() throws IOException {
+        try (ScoreLog log = new ScoreLog(Path.of(LOG_FILE))) {
+            log.append(new Score(LocalDateTime.of(2024, 5, 6, 7, 8, 9), 2, 15, 3, 2));
+        }
+
+        try (ScoreLog log = new ScoreLog(Path.of(LOG_FILE))) {
+            assertEquals(1, log.size(), "The record should survive reopening the log.");
+            assertEquals(LocalDateTime.of(2024, 5, 6, 7, 8, 9), log.get(0).getDateTimePlayed(),
+                    "The timestamp should round-trip exactly.");
+            assertThrows(IndexOutOfBoundsException.class, () -> log.get(1));
+        }
+    }
+
+    @Test
+    void testLastReturnsNewestFirst() throws IOException {
+        try (ScoreLog log = new ScoreLog(Path.of(LOG_FILE))) {
+            for (int i = 0; i < 3000; i++) {
+                log.append(new Score(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i), 1, i, 0, 0));
+            }
+
+            List<Score> last = log.last(1500);
+            assertEquals(1500, last.size(), "1500 records should be returned.");
+            assertEquals(2999, last.get(0).getNumCorrectFirstAttempt(), "The newest record should come first.");
+            assertEquals(1500, last.get(1499).getNumCorrectFirstAttempt(), "The oldest returned record should be 1500.");
+            assertEquals(3000, log.last(5000).size(), "Asking for more than exist should return them all.");
+        }
+    }
+
+    @Test
+    void testImportCsv() throws IOException {
+        try (FileWriter writer = new FileWriter(CSV_FILE, false)) {
+            writer.write("2024-01-02 03:04:05,1,6,2,1\n");
+            writer.write("not a record\n");
+            writer.write("2024-02-29 23:59:59,2,9,1,0\n");
+        }
+
+        try (ScoreLog log = new ScoreLog(Path.of(LOG_FILE))) {
+            assertEquals(2, log.importCsv(CSV_FILE), "Only the two valid records should be imported.");
+
+            List<Score> scores = new ArrayList<>();
+            log.forEach(scores::add);
+            assertEquals(14, scores.get(0).getScore(), "The first record should score 14 points.");
+            assertEquals(LocalDateTime.of(2024, 2, 29, 23, 59, 59), scores.get(1).getDateTimePlayed(),
+                    "The second record's timestamp should be imported exactly.");
+        }
+    }
+
+    @Test
+    void testImportCsvSkipsRecordsAlreadyImported() throws IOException {
+        try (FileWriter writer = new FileWriter(CSV_FILE, false)) {
+            writer.write("2024-01-02 03:04:05,1,6,2,1\n");
+            writer.write("2024-01-02 03:04:05,1,6,2,1\n");
+        }
+
+        try (ScoreLog log = new ScoreLog(Path.of(LOG_FILE))) {
+            assertEquals(2, log.importCsv(CSV_FILE), "Repeated records in the file should each be imported.");
+            assertEquals(0, log.importCsv(CSV_FILE), "Importing the same file again should add nothing.");
+
+            try (FileWriter writer = new FileWriter(CSV_FILE, true)) {
+                writer.write("2024-02-29 23:59:59,2,9,1,0\n");
+            }
+            assertEquals(1, log.importCsv(CSV_FILE), "Only the record added since the last import should be imported.");
+            assertEquals(3, log.size(), "The log should hold each record of the file once.");
+        }
+    }
+
+    @Test
+    void testImportCsvRefusesAFileRewrittenSinceTheLastImport() throws IOException {
+        try (FileWriter writer = new FileWriter(CSV_FILE, false)) {
+            writer.write("2024-01-02 03:04:05,1,6,2,1\n");
+        }
+
+        try (ScoreLog log = new ScoreLog(Path.of(LOG_FILE))) {
+            log.importCsv(CSV_FILE);
+
+            try (FileWriter writer = new FileWriter(CSV_FILE, false)) {
+                writer.write("2024-02-29 23:59:59,2,9,1,0\n");
+                writer.write("2024-03-01 00:00:00,1,5,2,3\n");
+            }
+            assertThrows(IOException.class, () -> log.importCsv(CSV_FILE),
+                    "A file whose imported records changed should not be guessed at.");
+            assertEquals(1, log.size(), "Nothing should be appended from the rewritten file.");
+        }
+    }
+
+    @Test
+    void testNewLogForgetsTheProgressOfAnOldOne() throws IOException {
+        try (FileWriter writer = new FileWriter(CSV_FILE, false)) {
+            writer.write("2024-01-02 03:04:05,1,6,2,1\n");
+        }
+        try (ScoreLog log = new ScoreLog(Path.of(LOG_FILE))) {
+            log.importCsv(CSV_FILE);
+        }
+        new File(LOG_FILE).delete();
+
+        try (ScoreLog log = new ScoreLog(Path.of(LOG_FILE))) {
+            assertEquals(1, log.importCsv(CSV_FILE), "A recreated log should import the file again.");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(LOG_FILE).delete();
+        new File(LOG_FILE + ScoreLog.IMPORTS_SUFFIX).delete();
+        new File(CSV_FILE).delete();
+    }
+}
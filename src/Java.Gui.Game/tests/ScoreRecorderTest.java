@@ -0,0 +1,66 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreRecorderTest {
+
+    private static final String SCORE_FILE = "test_recorder_score.txt";
+    private static final String REPORT_FILE = "test_recorder_report.txt";
+
+    @Test
+    void testBestIsCachedAndSessionsAreSavedInBackground() throws Exception {
+        ScoreRecorder recorder = new ScoreRecorder(SCORE_FILE, REPORT_FILE);
+        recorder.warmUp();
+        assertNull(recorder.getBest(), "There is no best score before anything is recorded.");
+
+        Score first = new Score(1, 6, 2, 2);   // 14 points per game
+        Score better = new Score(1, 9, 1, 0);  // 19 points per game
+        Score worse = new Score(2, 10, 4, 6);  // 12 points per game
+
+        CompletableFuture<Void> saved = CompletableFuture.allOf(
+                recorder.record(first), recorder.record(better), recorder.record(worse));
+        assertEquals(better, recorder.getBest(), "The cached best should update as soon as a session is recorded.");
+
+        saved.get();
+        assertEquals(3, Score.readScoresFromFile(SCORE_FILE).size(), "Every session should be saved.");
+        assertEquals(19.0, new HighScoreIndex(SCORE_FILE).getBest().getAveragePerGame(), 1e-9,
+                "The saved index should agree with the cached best.");
+    }
+
+    @Test
+    void testCachedBestIsLoadedFromExistingHistory() throws IOException {
+        Score.appendScoreToFile(new Score(1, 8, 0, 2), SCORE_FILE);
+
+        ScoreRecorder recorder = new ScoreRecorder(SCORE_FILE, REPORT_FILE);
+        assertEquals(16, recorder.getBest().getScore(), "The best score should come from the existing file.");
+    }
+
+    @Test
+    void testProblemsAreWrittenToTheReport() throws Exception {
+        ScoreRecorder recorder = new ScoreRecorder(SCORE_FILE, REPORT_FILE);
+
+        recorder.reportProblem("Failed to compact the score file").get();
+
+        String report = Files.readString(Path.of(REPORT_FILE), StandardCharsets.UTF_8);
+        assertTrue(report.contains("Failed to compact the score file"), "The problem should be in the report.");
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(SCORE_FILE).delete();
+        new File(SCORE_FILE + ".lock").delete();
+        new File(SCORE_FILE + ".best").delete();
+        new File(REPORT_FILE).delete();
+        new File(REPORT_FILE + ".lock").delete();
+    }
+}
@@ -0,0 +1,56 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScoreTableTest {
+
+    private static final List<Score> SCORES = List.of(
+            new Score(LocalDateTime.of(2024, 3, 4, 9, 0), 1, 6, 2, 2),    // Monday, 14 points
+            new Score(LocalDateTime.of(2024, 3, 4, 20, 0), 2, 15, 3, 2),  // Monday, 33 points
+            new Score(LocalDateTime.of(2024, 3, 10, 23, 0), 1, 9, 1, 0),  // Sunday, 19 points
+            new Score(LocalDateTime.of(2024, 3, 11, 0, 30), 1, 4, 4, 2)); // next Monday, 12 points
+
+    @Test
+    void testRoundTripThroughColumns() {
+        ScoreTable table = ScoreTable.fromScores(SCORES);
+        List<Score> back = table.toScores();
+
+        assertEquals(SCORES.size(), table.size(), "Every session should become one row.");
+        for (int i = 0; i < SCORES.size(); i++) {
+            assertEquals(SCORES.get(i).toCsvLine(), back.get(i).toCsvLine(), "Row " + i + " should round-trip exactly.");
+        }
+    }
+
+    @Test
+    void testAggregates() {
+        ScoreTable table = ScoreTable.fromScores(SCORES);
+
+        assertEquals(5, table.sum(ScoreTable.Column.GAMES), "Five games were played in total.");
+        assertEquals(8.5, table.mean(ScoreTable.Column.CORRECT_FIRST_ATTEMPT), 1e-9, "34 first tries over 4 sessions.");
+        assertEquals(78, table.totalScore(), "The sessions score 78 points together.");
+        assertEquals(19.0, table.maxAveragePerGame(), 1e-9, "The Sunday session has the best average.");
+        assertEquals(2, table.bestRow(), "The Sunday session is row 2.");
+    }
+
+    @Test
+    void testGroupByDayAndWeek() {
+        ScoreTable table = ScoreTable.fromScores(SCORES);
+
+        ScoreTable.Grouped days = table.groupBy(ScoreTable.Period.DAY);
+        assertEquals(3, days.size(), "Sessions were played on three different days.");
+        assertEquals(LocalDate.of(2024, 3, 4), days.getStart(0), "Days should be in time order.");
+        assertEquals(2, days.getSessions(0), "Two sessions were played on the first day.");
+        assertEquals(47, days.getScore(0), "The first day scored 47 points.");
+        assertEquals(16.5, days.getBestAverage(0), 1e-9, "The first day's best average is 16.5.");
+
+        ScoreTable.Grouped weeks = table.groupBy(ScoreTable.Period.WEEK);
+        assertEquals(2, weeks.size(), "Sessions span two Monday-to-Sunday weeks.");
+        assertEquals(LocalDate.of(2024, 3, 4), weeks.getStart(0), "The first week starts on Monday the 4th.");
+        assertEquals(3, weeks.getSessions(0), "Sunday belongs to the first week.");
+        assertEquals(LocalDate.of(2024, 3, 11), weeks.getStart(1), "The second week starts on Monday the 11th.");
+    }
+}
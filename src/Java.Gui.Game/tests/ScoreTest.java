@@ -133,9 +133,39 @@ class ScoreTest {
         assertTrue(scores.isEmpty(), "Reading from an empty file should return an empty list.");
     }
 
+    @Test
+    void testReadSkipsBlankAndMalformedLines() throws IOException {
+        // Mix valid records with blank, malformed and out-of-range lines
+        try (FileWriter writer = new FileWriter(SCORE_FILE, false)) {
+            writer.write("2024-01-02 03:04:05,1,6,2,1\n");
+            writer.write("\n");
+            writer.write("Games Played: 1\n");
+            writer.write("2024-13-01 00:00:00,1,1,1,1\n");
+            writer.write("  2024-02-29 23:59:59,2,9,1,0  \r\n");
+        }
+
+        List<Score> scores = Score.readScoresFromFile(SCORE_FILE);
+
+        assertEquals(2, scores.size(), "Only the two valid records should be read.");
+        assertEquals(14, scores.get(0).getScore(), "The first record should score 14 points.");
+        assertEquals(LocalDateTime.of(2024, 2, 29, 23, 59, 59), scores.get(1).getDateTimePlayed(),
+                "The second record's timestamp should be parsed exactly.");
+    }
+
+    @Test
+    void testCsvLineRoundTrip() {
+        Score score = new Score(LocalDateTime.of(2025, 5, 6, 7, 8, 9), 3, 20, 5, 5);
+        Score parsed = Score.parseCsvLine(score.toCsvLine());
+
+        assertEquals(score.getDateTimePlayed(), parsed.getDateTimePlayed(), "Timestamps should match.");
+        assertEquals(score.getScore(), parsed.getScore(), "Scores should match.");
+        assertEquals(score.getNumGamesPlayed(), parsed.getNumGamesPlayed(), "Game counts should match.");
+    }
+
     @AfterEach
     void tearDown() {
         // Clean up by deleting the test score file after each test
         new File(SCORE_FILE).delete();
+        new File(SCORE_FILE + ".lock").delete();
     }
 }
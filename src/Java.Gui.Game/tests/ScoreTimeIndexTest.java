@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreTimeIndexTest {
+
+    private static final String LOG_FILE = "test_time_index.log";
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void testRangeQueryAcrossBlocks() throws IOException {
+        try (ScoreLog log = new ScoreLog(Path.of(LOG_FILE))) {
+            // One session per hour for 5000 hours, spanning several index blocks
+            for (int i = 0; i < 5000; i++) {
+                log.append(new Score(START.plusHours(i), 1, i % 10, 0, 0));
+            }
+            ScoreTimeIndex index = new ScoreTimeIndex(log, Path.of(LOG_FILE));
+
+            List<Score> week = index.between(START.plusHours(2000), START.plusHours(2000 + 24 * 7));
+            assertEquals(24 * 7, week.size(), "A week should hold one session per hour.");
+            assertEquals(START.plusHours(2000), week.get(0).getDateTimePlayed(), "The range start is inclusive.");
+            assertEquals(START.plusHours(2000 + 24 * 7 - 1), week.get(week.size() - 1).getDateTimePlayed(),
+                    "The range end is exclusive.");
+
+            assertTrue(index.between(START.minusDays(10), START).isEmpty(), "Nothing was played before the log starts.");
+            assertNull(index.bestBetween(START.plusYears(5), START.plusYears(6)), "Nothing was played years later.");
+            assertEquals(18, index.bestBetween(START, START.plusHours(24)).getScore(), "The best day-one session scores 18.");
+        }
+    }
+
+    @Test
+    void testIndexIsExtendedAfterAppendsAndReopen() throws IOException {
+        try (ScoreLog log = new ScoreLog(Path.of(LOG_FILE))) {
+            for (int i = 0; i < 1500; i++) {
+                log.append(new Score(START.plusMinutes(i), 1, 1, 0, 0));
+            }
+            new ScoreTimeIndex(log, Path.of(LOG_FILE));
+
+            for (int i = 1500; i < 3000; i++) {
+                log.append(new Score(START.plusMinutes(i), 1, 1, 0, 0));
+            }
+        }
+
+        try (ScoreLog log = new ScoreLog(Path.of(LOG_FILE))) {
+            ScoreTimeIndex index = new ScoreTimeIndex(log, Path.of(LOG_FILE));
+            assertEquals(100, index.between(START.plusMinutes(2800), START.plusMinutes(2900)).size(),
+                    "Records appended after the index was built should be found.");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(LOG_FILE).delete();
+        new File(LOG_FILE + ScoreTimeIndex.INDEX_SUFFIX).delete();
+    }
+}
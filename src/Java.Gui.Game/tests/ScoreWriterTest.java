@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreWriterTest {
+
+    private static final String SCORE_FILE = "test_score_writer.txt";
+
+    @Test
+    void testBatchedSubmitsFromManyThreadsAreAllPersisted() throws Exception {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        try (ScoreWriter writer = new ScoreWriter(Path.of(SCORE_FILE), ScoreWriter.Durability.BATCHED)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < 250; i++) {
+                        CompletableFuture<Void> future = writer.submit(new Score(1, 5, 2, 3));
+                        synchronized (futures) {
+                            futures.add(future);
+                        }
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+        }
+
+        assertEquals(1000, Score.readScoresFromFile(SCORE_FILE).size(), "Every submitted score should be saved.");
+    }
+
+    @Test
+    void testCloseCommitsQueuedScoresInOrder() throws IOException {
+        ScoreWriter writer = new ScoreWriter(Path.of(SCORE_FILE), ScoreWriter.Durability.ASYNC, 50);
+        for (int i = 0; i < 10; i++) {
+            writer.submit(new Score(LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(i), 1, i, 0, 0));
+        }
+        writer.close();
+
+        List<Score> scores = Score.readScoresFromFile(SCORE_FILE);
+        assertEquals(10, scores.size(), "Closing should commit everything already queued.");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, scores.get(i).getNumCorrectFirstAttempt(), "Scores should be saved in submit order.");
+        }
+        assertThrows(IllegalStateException.class, () -> writer.submit(new Score(1, 1, 0, 0)));
+    }
+
+    @Test
+    void testPerRecordFutureCompletesAfterWrite() throws Exception {
+        try (ScoreWriter writer = new ScoreWriter(Path.of(SCORE_FILE), ScoreWriter.Durability.PER_RECORD)) {
+            writer.submit(new Score(1, 6, 2, 1)).get();
+            assertTrue(new File(SCORE_FILE).length() > 0, "The score should be on disk once its future completes.");
+        }
+    }
+
+    @Test
+    void testEachCommitKeepsTheHighScoreIndexCurrent() throws Exception {
+        try (ScoreWriter writer = new ScoreWriter(Path.of(SCORE_FILE), ScoreWriter.Durability.BATCHED)) {
+            writer.submit(new Score(1, 2, 0, 8));
+            writer.submit(new Score(1, 9, 1, 0)).get();
+        }
+
+        // The sidecar's first line is the score file length it covers; matching means no rebuild is needed
+        List<String> sidecar = Files.readAllLines(Path.of(SCORE_FILE + ".best"), StandardCharsets.UTF_8);
+        assertEquals(String.valueOf(new File(SCORE_FILE).length()), sidecar.get(0),
+                "The index should cover every committed score.");
+        assertEquals(19, new HighScoreIndex(SCORE_FILE).getBest().getScore(), "The index should hold the best score.");
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(SCORE_FILE).delete();
+        new File(SCORE_FILE + ".lock").delete();
+        new File(SCORE_FILE + ".best").delete();
+    }
+}
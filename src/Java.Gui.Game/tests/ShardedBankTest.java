@@ -0,0 +1,156 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedBankTest {
+
+    private static final Path DATA_DIR = Path.of("test_shard_data");
+
+    @Test
+    void testShardsLoadOnDemandAndEvictLeastRecentlyUsed() throws IOException {
+        write("a.txt", "France,Paris\nJapan,Tokyo\n");
+        write("b.txt", "");
+        write("c.txt", "Peru,Lima\n");
+        write("d.txt", "Chile,Santiago\nKenya,Nairobi\nNepal,Kathmandu\n");
+
+        // A budget of one byte keeps only the shard just loaded
+        ShardedBank bank = ShardedBank.open(DATA_DIR.toString(), 1);
+        assertEquals(6, bank.size(), "The bank should count every country without loading any shard.");
+        assertEquals(3, bank.getShardCount(), "An empty file should not be a shard.");
+        assertEquals(0, bank.getResidentShardCount(), "Opening the bank should not load shards.");
+
+        assertEquals("Japan", bank.get(1).getName(), "Indexes should follow file-name order.");
+        assertEquals("Lima", bank.get(2).getCapitalCityName(), "The empty file should be skipped.");
+        assertEquals("Nepal", bank.get(5).getName(), "The last index should be in the last shard.");
+        assertEquals(1, bank.getResidentShardCount(), "Shards over the budget should be evicted.");
+        assertEquals(3, bank.getLoadCount(), "Each shard should have been loaded once.");
+
+        bank.get(3);
+        assertEquals(3, bank.getLoadCount(), "A resident shard should not be loaded again.");
+        bank.get(0);
+        assertEquals(4, bank.getLoadCount(), "An evicted shard should be loaded again.");
+    }
+
+    @Test
+    void testLargeBudgetKeepsShardsResident() throws IOException {
+        write("a.txt", "France,Paris\n");
+        write("b.txt", "Peru,Lima\n");
+
+        ShardedBank bank = ShardedBank.open(DATA_DIR.toString(), ShardedBank.DEFAULT_BUDGET_BYTES);
+        FuzzyMatcher france = bank.matcherFor(0);
+        bank.get(1);
+
+        assertEquals(2, bank.getResidentShardCount(), "Shards within the budget should stay resident.");
+        assertSame(france, bank.matcherFor(0), "A resident shard should keep its matcher.");
+        assertTrue(bank.getResidentBytes() > 0, "Resident shards should be counted against the budget.");
+    }
+
+    @Test
+    void testManifestIsReusedUntilAFileChanges() throws IOException {
+        write("a.txt", "France,Paris\n");
+        ShardedBank.open(DATA_DIR.toString(), ShardedBank.DEFAULT_BUDGET_BYTES);
+        Path manifest = DATA_DIR.resolve(ShardedBank.MANIFEST_FILE_NAME);
+        assertTrue(Files.exists(manifest), "Opening the bank should write its manifest.");
+
+        // A manifest claiming more countries than the file holds is trusted while the file is unchanged
+        File file = DATA_DIR.resolve("a.txt").toFile();
+        Files.writeString(manifest, "5,13," + file.lastModified() + ",a.txt\n", StandardCharsets.UTF_8);
+        assertEquals(5, ShardedBank.open(DATA_DIR.toString(), 1).size(), "A current manifest entry should be used.");
+
+        write("a.txt", "France,Paris\nJapan,Tokyo\n");
+        ShardedBank bank = ShardedBank.open(DATA_DIR.toString(), 1);
+        assertEquals(2, bank.size(), "A changed file should be counted again.");
+        assertEquals("Tokyo", bank.get(1).getCapitalCityName(), "The new line should be playable.");
+    }
+
+    @Test
+    void testRepeatedCountryIsAskedOnceWithItsLastDefinition() throws IOException {
+        write("a.txt", "France,Paris\nPeru,Lima\nFrance,Lyon\n");
+        ShardedBank bank = ShardedBank.open(DATA_DIR.toString(), ShardedBank.DEFAULT_BUDGET_BYTES);
+
+        assertEquals(2, bank.size(), "A repeated country should be one question.");
+        assertEquals("Lyon", bank.get(1).getCapitalCityName(), "The last definition should be asked.");
+        assertTrue(bank.matcherFor(1).matches(bank.get(1), "Lyon"), "The question should match its matcher.");
+    }
+
+    @Test
+    void testSessionsPlayOverShards() throws IOException {
+        write("a.txt", "France,Paris\n");
+        write("b.txt", "Peru,Lima\n");
+        ShardedBank bank = ShardedBank.open(DATA_DIR.toString(), 1);
+
+        List<Score> scores = WordGameBatchDriver.runSessions(bank, 4, 2, 1L, QuizMode.MIXED);
+
+        assertEquals(4, scores.size(), "Every session should be played over the sharded bank.");
+        assertEquals(1, bank.getResidentShardCount(), "The budget should hold while sessions play.");
+        int points = 0;
+        for (Score score : scores) {
+            points += score.getScore();
+        }
+        assertTrue(points > 0, "Correct answers should be matched against the question's shard.");
+    }
+
+    @Test
+    void testConcurrentSessionsLoadAShardOnce() throws Exception {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            lines.append("Country ").append(i).append(",Capital ").append(i).append('\n');
+        }
+        write("a.txt", lines.toString());
+        ShardedBank bank = ShardedBank.open(DATA_DIR.toString(), ShardedBank.DEFAULT_BUDGET_BYTES);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            int index = t * 100;
+            threads.add(Thread.ofVirtual().unstarted(() -> bank.item(index)));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, bank.getLoadCount(), "Sessions waiting on a loading shard should share its load.");
+    }
+
+    @Test
+    void testShardedDeckKeepsLoadsLowUnderATightBudget() throws IOException {
+        for (char file = 'a'; file <= 'e'; file++) {
+            write(file + ".txt", file + "1,X\n" + file + "2,Y\n" + file + "3,Z\n" + file + "4,W\n");
+        }
+        ShardedBank bank = ShardedBank.open(DATA_DIR.toString(), 1);
+
+        QuestionSampler deck = bank.newDeck(3L);
+        for (int i = 0; i < bank.size(); i++) {
+            bank.item(deck.next());
+        }
+
+        assertEquals(5, bank.getLoadCount(), "A full pass should load each shard once.");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        File[] files = DATA_DIR.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        Files.deleteIfExists(DATA_DIR);
+    }
+
+    private static void write(String fileName, String content) throws IOException {
+        Files.createDirectories(DATA_DIR);
+        Files.writeString(DATA_DIR.resolve(fileName), content, StandardCharsets.UTF_8);
+    }
+}
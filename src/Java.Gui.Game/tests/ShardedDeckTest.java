@@ -0,0 +1,51 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedDeckTest {
+
+    // Three shards: [0, 4), [4, 5) and [5, 12)
+    private static final int[] STARTS = {0, 4, 5, 12};
+
+    @Test
+    void testEachShardIsUsedUpBeforeTheNext() {
+        ShardedDeck deck = new ShardedDeck(STARTS, 9L);
+        Set<Integer> seen = new HashSet<>();
+        int switches = 0;
+        int previousShard = -1;
+
+        for (int i = 0; i < 12; i++) {
+            int index = deck.next();
+            assertTrue(seen.add(index), "No index should repeat within a pass.");
+            int shard = shardOf(index);
+            if (shard != previousShard) {
+                switches++;
+                previousShard = shard;
+            }
+        }
+
+        assertEquals(12, seen.size(), "Every question should be dealt once per pass.");
+        assertEquals(3, switches, "Each shard should be entered once per pass.");
+    }
+
+    @Test
+    void testSameSeedReplaysSameSequence() {
+        ShardedDeck first = new ShardedDeck(STARTS, 42L);
+        ShardedDeck second = new ShardedDeck(STARTS, 42L);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(first.next(), second.next(), "Draw " + i + " should match for the same seed.");
+        }
+    }
+
+    private static int shardOf(int index) {
+        int shard = 0;
+        while (STARTS[shard + 1] <= index) {
+            shard++;
+        }
+        return shard;
+    }
+}
@@ -0,0 +1,60 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeightTreeTest {
+
+    @Test
+    void testDrawsFollowTheWeights() {
+        WeightTree tree = new WeightTree(new long[] {1, 0, 3, 6});
+        int[] counts = new int[4];
+        Random random = new Random(7L);
+        for (int i = 0; i < 100_000; i++) {
+            counts[tree.sample(random)]++;
+        }
+
+        assertEquals(0, counts[1], "A zero weight should never be drawn.");
+        assertEquals(0.1, counts[0] / 100_000.0, 0.01, "Index 0 carries a tenth of the weight.");
+        assertEquals(0.3, counts[2] / 100_000.0, 0.01, "Index 2 carries three tenths of the weight.");
+        assertEquals(0.6, counts[3] / 100_000.0, 0.01, "Index 3 carries six tenths of the weight.");
+    }
+
+    @Test
+    void testSetChangesOnlyOneWeight() {
+        long[] weights = new long[37];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = i + 1;
+        }
+        WeightTree tree = new WeightTree(weights);
+        assertEquals(37 * 38 / 2, tree.total(), "The total should be the sum of the weights.");
+
+        for (int i = 0; i < weights.length; i++) {
+            if (i != 20) {
+                tree.set(i, 0);
+            }
+        }
+        assertEquals(21, tree.total(), "Only index 20 should keep its weight.");
+        Random random = new Random(1L);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(20, tree.sample(random), "The only positive weight should always be drawn.");
+        }
+
+        tree.set(20, 0);
+        assertThrows(IllegalStateException.class, () -> tree.sample(random), "Nothing should be drawable.");
+        tree.set(36, 5);
+        assertEquals(36, tree.sample(random), "The last index should be reachable.");
+        assertEquals(5, tree.get(36), "The new weight should be kept.");
+    }
+
+    @Test
+    void testRejectsNegativeWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new WeightTree(new long[] {1, -1}));
+        WeightTree tree = new WeightTree(new long[] {1});
+        assertThrows(IllegalArgumentException.class, () -> tree.set(0, -2));
+        assertTrue(tree.total() > 0, "A rejected update should leave the tree unchanged.");
+    }
+}
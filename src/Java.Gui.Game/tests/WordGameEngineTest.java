@@ -0,0 +1,87 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WordGameEngineTest {
+
+    private List<Country> countries;
+    private FuzzyMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        countries = List.of(
+                new Country("Canada", "Ottawa", null),
+                new Country("Colombia", "Bogotá", null),
+                new Country("France", "Paris", null));
+        matcher = new FuzzyMatcher(new World(countries), FuzzyMatcher.DEFAULT_MAX_EDIT_DISTANCE);
+    }
+
+    @Test
+    void testAllFirstTryAnswersScoreTwoPointsEach() {
+        WordGameEngine engine = new WordGameEngine(countries, matcher, new QuestionDeck(countries.size(), 1L));
+        Score score = engine.play(new ScriptedSource(true, false), new GameEventSink() { });
+
+        assertEquals(1, score.getNumGamesPlayed(), "One round should have been played.");
+        assertEquals(10, score.getNumCorrectFirstAttempt(), "Every question should be correct on the first try.");
+        assertEquals(20, score.getScore(), "Ten first-try answers are worth 20 points.");
+    }
+
+    @Test
+    void testSecondAttemptAndMissesAreCounted() {
+        WordGameEngine engine = new WordGameEngine(countries, matcher, new QuestionDeck(countries.size(), 1L));
+        Score score = engine.play(new ScriptedSource(false, false), new GameEventSink() { });
+
+        assertEquals(0, score.getNumCorrectFirstAttempt(), "No answer should be correct on the first try.");
+        assertEquals(10, score.getNumCorrectSecondAttempt(), "Every answer should be correct on the second try.");
+        assertEquals(10, score.getScore(), "Ten second-try answers are worth 10 points.");
+    }
+
+    @Test
+    void testSessionWithoutCompletedRoundHasNoScore() {
+        WordGameEngine engine = new WordGameEngine(countries, matcher, new QuestionDeck(countries.size(), 1L));
+        Deque<String> answers = new ArrayDeque<>(List.of("Ottawa"));
+
+        Score score = engine.play(new AnswerSource() {
+            @Override
+            public String nextGuess(Country country, int attempt) {
+                return answers.poll();
+            }
+
+            @Override
+            public boolean playAgain() {
+                return false;
+            }
+        }, new GameEventSink() { });
+
+        assertNull(score, "A session that ends mid-round should not produce a score.");
+    }
+
+    /**
+     * Answers with the correct capital on the chosen attempt and a wrong one otherwise.
+     */
+    private static final class ScriptedSource implements AnswerSource {
+        private final boolean correctFirst;
+        private final boolean again;
+
+        ScriptedSource(boolean correctFirst, boolean again) {
+            this.correctFirst = correctFirst;
+            this.again = again;
+        }
+
+        @Override
+        public String nextGuess(Country country, int attempt) {
+            return (attempt == 1) == correctFirst ? country.getCapitalCityName() : "Nowhere";
+        }
+
+        @Override
+        public boolean playAgain() {
+            return again;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WordGameServerTest {
+
+    private static final String SCORE_FILE = "test_server_score.txt";
+    private static final List<Country> BANK = List.of(new Country("France", "Paris", null));
+
+    @Test
+    void testSessionOverSocketIsPlayedAndSaved() throws Exception {
+        String transcript;
+        try (ScoreWriter writer = new ScoreWriter(Path.of(SCORE_FILE), ScoreWriter.Durability.BATCHED);
+             WordGameServer server = WordGameServer.start(BANK, 0, writer)) {
+            transcript = play(server, "Paris\n".repeat(WordGameEngine.QUESTIONS_PER_ROUND) + "no\n");
+            waitForCompletedSessions(server, 1);
+        }
+
+        assertTrue(transcript.contains("Final score: 20 points over 1 games"),
+                "Ten first-try answers should score 20 points.");
+        List<Score> saved = Score.readScoresFromFile(SCORE_FILE);
+        assertEquals(1, saved.size(), "The finished session should be saved through the writer.");
+        assertEquals(20, saved.get(0).getScore(), "The saved score should match the session.");
+    }
+
+    @Test
+    void testClosingMidSessionSavesTheCompletedRounds() throws Exception {
+        try (ScoreWriter writer = new ScoreWriter(Path.of(SCORE_FILE), ScoreWriter.Durability.BATCHED);
+             Socket socket = new Socket()) {
+            WordGameServer server = WordGameServer.start(BANK, 0, writer);
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+            OutputStream out = socket.getOutputStream();
+            out.write(("Paris\n".repeat(WordGameEngine.QUESTIONS_PER_ROUND) + "yes\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            // Wait for the first question of the second round, then stop the server with the player still connected
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            int questions = 0;
+            while (questions <= WordGameEngine.QUESTIONS_PER_ROUND) {
+                questions += in.readLine().contains("What is the capital") ? 1 : 0;
+            }
+            server.close();
+        }
+
+        assertEquals(1, Score.readScoresFromFile(SCORE_FILE).size(),
+                "The completed round should reach the writer before the writer closes.");
+    }
+
+    @Test
+    void testOverlongLineEndsTheSession() throws Exception {
+        try (WordGameServer server = WordGameServer.start(BANK, 0)) {
+            String transcript = play(server, "x".repeat(WordGameServer.MAX_LINE_LENGTH * 4));
+            assertFalse(transcript.contains("Final score"), "A line over the limit should end the session.");
+            waitForCompletedSessions(server, 1);
+        }
+    }
+
+    @Test
+    void testReadLineStopsAtTheLimit() {
+        assertEquals("Paris", WordGameServer.readLine(new StringReader("Paris\r\nLima\n")), "CRLF should end a line.");
+        assertEquals("Lima", WordGameServer.readLine(new StringReader("Lima")), "The last line may lack a terminator.");
+        assertNull(WordGameServer.readLine(new StringReader("")), "The end of the stream should give null.");
+        String limit = "x".repeat(WordGameServer.MAX_LINE_LENGTH);
+        assertEquals(limit, WordGameServer.readLine(new StringReader(limit + "\n")), "A line at the limit should be read.");
+        assertNull(WordGameServer.readLine(new StringReader(limit + "x\n")), "A longer line should be refused.");
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(SCORE_FILE).delete();
+        new File(SCORE_FILE + ".lock").delete();
+        new File(SCORE_FILE + ".best").delete();
+    }
+
+    /*
+     * Connects over the loopback interface, sends every line at once and reads until the server hangs up.
+     */
+    private static String play(WordGameServer server, String input) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            OutputStream out = socket.getOutputStream();
+            out.write(input.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            StringBuilder transcript = new StringBuilder();
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    transcript.append(line).append('\n');
+                }
+            } catch (SocketException e) {
+                // A server that hangs up with input still unread may reset the connection
+            }
+            return transcript.toString();
+        }
+    }
+
+    private static void waitForCompletedSessions(WordGameServer server, int sessions) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (server.getCompletedSessions() < sessions && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(sessions, server.getCompletedSessions(), "The session should have ended.");
+    }
+}
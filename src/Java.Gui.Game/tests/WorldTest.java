@@ -0,0 +1,95 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorldTest {
+
+    // "Aa" and "BB" share a hash code, so these four keys all probe from the same home slot
+    private static final List<String> COLLIDING = List.of("AaAa", "AaBB", "BBAa", "BBBB");
+
+    @Test
+    void testIndexRemoveKeepsLaterProbesReachable() {
+        World.Index<String> index = new World.Index<>();
+        for (String key : COLLIDING) {
+            index.put(key, key);
+        }
+
+        // Removing from the front of the probe run must shift the rest back, not leave a hole
+        index.remove("AaAa", "AaAa");
+        for (String key : COLLIDING.subList(1, COLLIDING.size())) {
+            assertEquals(key, index.get(key), "Every key after the removed one should still be found.");
+        }
+        assertNull(index.get("AaAa"), "The removed key should be gone.");
+        assertEquals(3, index.size(), "The size should drop by one.");
+
+        index.remove("BBAa", "other value");
+        assertEquals("BBAa", index.get("BBAa"), "A key mapped to another value should not be removed.");
+    }
+
+    @Test
+    void testIndexGrowsAndKeepsEveryKey() {
+        World.Index<String> index = new World.Index<>();
+        int initialCapacity = index.capacity();
+        String[] values = new String[1000];
+        for (int i = 0; i < 1000; i++) {
+            values[i] = "value" + i;
+            index.put("key" + i, values[i]);
+        }
+
+        assertTrue(index.capacity() >= 2 * index.size(), "The table should stay at most half full.");
+        assertTrue(index.capacity() > initialCapacity, "The table should have grown.");
+        for (int i = 0; i < 1000; i += 2) {
+            // Values are matched by identity, as World always passes the stored object
+            index.remove("key" + i, values[i]);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? null : values[i], index.get("key" + i), "Lookups should survive removals.");
+        }
+    }
+
+    @Test
+    void testReplacedCountriesKeepOrderWithoutDuplicates() {
+        Country france = new Country("France", "Paris", null);
+        Country peru = new Country("Peru", "Lima", null);
+        Country newFrance = new Country("FRANCE", "Lyon", null);
+        World world = new World(List.of(france, peru, newFrance));
+
+        assertEquals(List.of(peru, newFrance), world.getCountries(), "A replacement should move to the end.");
+        assertEquals(2, world.size(), "Replaced countries should not be counted.");
+        assertNull(world.getCountryByCapital("Paris"), "The replaced capital should be unlinked.");
+        assertSame(newFrance, world.getCountryByCapital("Lyon"), "The new capital should be indexed.");
+    }
+
+    @Test
+    void testManyRemovalsAndReAddsStayConsistent() {
+        List<Country> countries = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            countries.add(new Country("Country " + i, "Capital " + i, null));
+        }
+        World world = new World(countries);
+
+        for (int i = 0; i < 500; i += 2) {
+            world.removeCountry(countries.get(i));
+        }
+        world.addCountry(countries.get(0));
+
+        List<Country> expected = new ArrayList<>();
+        for (int i = 1; i < 500; i += 2) {
+            expected.add(countries.get(i));
+        }
+        expected.add(countries.get(0));
+        assertEquals(expected, world.getCountries(), "Removed countries should be dropped and a re-add appended once.");
+        assertEquals(251, world.size(), "The size should count live countries only.");
+
+        World copy = new World(world);
+        copy.removeCountry(countries.get(1));
+        assertEquals(250, copy.getCountries().size(), "A copy should change independently.");
+        assertEquals(251, world.getCountries().size(), "The original should be untouched by its copy.");
+    }
+}